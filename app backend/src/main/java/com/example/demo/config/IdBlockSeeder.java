@@ -0,0 +1,53 @@
+package com.example.demo.config;
+
+import com.example.demo.constants.IdGeneration;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Aliniază generatorul comun de ID-uri cu datele existente.
+ *
+ * Tabelele create înainte de trecerea la generatorul pooled au ID-uri
+ * alocate prin AUTO_INCREMENT. La pornire, valoarea din id_blocks este
+ * ridicată peste cel mai mare ID existent, ca primul bloc rezervat să nu
+ * se suprapună cu rândurile deja salvate.
+ */
+@Component("idBlockSeeder")
+public class IdBlockSeeder {
+
+    // Tabelele rădăcină ale entităților (owners și tenants împart ID-urile cu users)
+    private static final List<String> ENTITY_TABLES = List.of(
+            "users", "buildings", "parkings", "comercial_spaces", "rental_contracts");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Depinde de EntityManagerFactory ca schema (inclusiv id_blocks) să fie deja actualizată.
+     */
+    @Autowired
+    public IdBlockSeeder(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void seed() {
+        long maxId = 0;
+        for (String table : ENTITY_TABLES) {
+            Long tableMax = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            maxId = Math.max(maxId, tableMax != null ? tableMax : 0);
+        }
+
+        // Cu optimizatorul pooled, valoarea stocată este limita superioară a următorului bloc
+        long floor = maxId + IdGeneration.BLOCK_SIZE + 1;
+        jdbcTemplate.update(
+                "INSERT INTO " + IdGeneration.TABLE + " (" + IdGeneration.NAME_COLUMN + ", " + IdGeneration.VALUE_COLUMN + ") " +
+                        "VALUES (?, ?) ON DUPLICATE KEY UPDATE " +
+                        IdGeneration.VALUE_COLUMN + " = GREATEST(" + IdGeneration.VALUE_COLUMN + ", VALUES(" + IdGeneration.VALUE_COLUMN + "))",
+                IdGeneration.SEGMENT, floor);
+    }
+}
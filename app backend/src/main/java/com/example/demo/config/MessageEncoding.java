@@ -0,0 +1,41 @@
+package com.example.demo.config;
+
+import java.util.Locale;
+
+/**
+ * Formatele în care pot fi trimise notificările unei sesiuni STOMP.
+ * Clientul alege formatul prin header-ul "encoding" al cadrului CONNECT.
+ */
+public enum MessageEncoding {
+    JSON("application/json"),
+    CBOR("application/cbor"),
+    SMILE("application/x-jackson-smile");
+
+    private final String mimeType;
+
+    MessageEncoding(String mimeType) {
+        this.mimeType = mimeType;
+    }
+
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    public boolean isBinary() {
+        return this != JSON;
+    }
+
+    /**
+     * Formatul cerut de client; JSON pentru valori lipsă sau necunoscute.
+     */
+    public static MessageEncoding fromHeader(String value) {
+        if (value == null || value.isBlank()) {
+            return JSON;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return JSON;
+        }
+    }
+}
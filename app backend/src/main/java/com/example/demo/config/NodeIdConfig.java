@@ -0,0 +1,29 @@
+package com.example.demo.config;
+
+import com.example.demo.util.ContractNumberGenerator;
+import com.example.demo.util.SnowflakeIdGenerator;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Setează ID-ul nodului pentru generatoarele de ID-uri (numere de contract, notificări).
+ *
+ * Fiecare instanță a aplicației care scrie în aceeași bază de date trebuie
+ * pornită cu un app.node-id diferit (0-1023), ca numerele să nu se suprapună.
+ */
+@Configuration
+public class NodeIdConfig {
+
+    private final int nodeId;
+
+    public NodeIdConfig(@Value("${app.node-id:0}") int nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    @PostConstruct
+    public void configureGenerators() {
+        ContractNumberGenerator.getInstance().setNodeId(nodeId);
+        SnowflakeIdGenerator.notifications().setNodeId(nodeId);
+    }
+}
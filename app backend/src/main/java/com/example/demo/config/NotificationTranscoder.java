@@ -0,0 +1,66 @@
+package com.example.demo.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Convertește o notificare serializată JSON în CBOR sau Smile, în forma compactă:
+ * ID-ul numeric devine întreg, iar timestamp-ul ISO devine milisecunde epoch.
+ *
+ * Conversia se face o singură dată per mesaj și format, nu per abonat.
+ */
+public class NotificationTranscoder {
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final ObjectMapper cborMapper = new CBORMapper();
+    private final ObjectMapper smileMapper = new SmileMapper();
+    private final ZoneId zone;
+
+    public NotificationTranscoder(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    /**
+     * @param json notificarea serializată JSON
+     * @param encoding formatul cerut
+     * @return octeții în formatul cerut (același tablou pentru JSON)
+     */
+    public byte[] transcode(byte[] json, MessageEncoding encoding) throws IOException {
+        if (encoding == MessageEncoding.JSON) {
+            return json;
+        }
+        JsonNode tree = jsonMapper.readTree(json);
+        if (tree.isObject()) {
+            compact((ObjectNode) tree);
+        }
+        return (encoding == MessageEncoding.CBOR ? cborMapper : smileMapper).writeValueAsBytes(tree);
+    }
+
+    private void compact(ObjectNode notification) {
+        JsonNode id = notification.get("id");
+        if (id != null && id.isTextual()) {
+            try {
+                notification.put("id", Long.parseLong(id.asText()));
+            } catch (NumberFormatException e) {
+                // Not a numeric ID (e.g. a client-supplied one): keep it as sent
+            }
+        }
+        JsonNode timestamp = notification.get("timestamp");
+        if (timestamp != null && timestamp.isTextual()) {
+            try {
+                notification.put("timestamp",
+                        LocalDateTime.parse(timestamp.asText()).atZone(zone).toInstant().toEpochMilli());
+            } catch (DateTimeParseException e) {
+                // Not an ISO local date-time: keep it as sent
+            }
+        }
+    }
+}
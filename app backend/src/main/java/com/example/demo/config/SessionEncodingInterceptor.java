@@ -0,0 +1,180 @@
+package com.example.demo.config;
+
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.NativeMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.io.IOException;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Formatul notificărilor negociat per sesiune STOMP.
+ *
+ * Clientul cere formatul în cadrul CONNECT (header-ul "encoding": json, cbor sau smile).
+ * Formatele binare sunt acceptate doar pe endpoint-ul WebSocket nativ (/ws-native);
+ * SockJS transportă doar text, deci acolo sesiunea rămâne pe JSON. Pe canalul de
+ * ieșire, mesajele brokerului (JSON) pentru sesiunile binare sunt convertite o singură
+ * dată per mesaj și format, iar rezultatul este refolosit pentru toți abonații cu
+ * același format. Cadrele binare au content-type application/octet-stream (ca Spring
+ * să le trimită ca mesaje WebSocket binare) și header-ul "encoding" cu formatul.
+ */
+@Component
+public class SessionEncodingInterceptor implements ChannelInterceptor {
+
+    public static final String ENCODING_HEADER = "encoding";
+    static final String NATIVE_WEBSOCKET_ATTRIBUTE = "nativeWebSocket";
+
+    private final NotificationTranscoder transcoder = new NotificationTranscoder(ZoneId.systemDefault());
+    private final Map<String, MessageEncoding> sessions = new ConcurrentHashMap<>();
+    // Keyed by the identity of the broker's JSON payload, which every subscriber's copy shares
+    private final Map<MessageEncoding, Map<byte[], byte[]>> encoded = new EnumMap<>(MessageEncoding.class);
+
+    private final LongAdder transcoded = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder downgraded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public SessionEncodingInterceptor() {
+        for (MessageEncoding encoding : MessageEncoding.values()) {
+            if (encoding.isBinary()) {
+                encoded.put(encoding, Collections.synchronizedMap(new WeakHashMap<>()));
+            }
+        }
+    }
+
+    /**
+     * Marchează sesiunile deschise pe endpoint-ul WebSocket nativ, singurele care pot primi cadre binare.
+     */
+    public HandshakeInterceptor nativeWebSocketMarker() {
+        return new HandshakeInterceptor() {
+            @Override
+            public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                           WebSocketHandler wsHandler, Map<String, Object> attributes) {
+                attributes.put(NATIVE_WEBSOCKET_ATTRIBUTE, Boolean.TRUE);
+                return true;
+            }
+
+            @Override
+            public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                       WebSocketHandler wsHandler, Exception exception) {
+            }
+        };
+    }
+
+    /**
+     * Interceptorul pentru canalul de intrare: reține formatul cerut la CONNECT și îl uită la DISCONNECT.
+     */
+    public ChannelInterceptor negotiation() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+                String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+                if (sessionId != null && type == SimpMessageType.CONNECT) {
+                    negotiate(sessionId, message);
+                } else if (sessionId != null && type == SimpMessageType.DISCONNECT) {
+                    sessions.remove(sessionId);
+                }
+                return message;
+            }
+        };
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        // Outbound channel: only broker messages to sessions that negotiated a binary format
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE
+                || !(message.getPayload() instanceof byte[])) {
+            return message;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        MessageEncoding encoding = sessionId != null ? sessions.get(sessionId) : null;
+        return encoding != null ? encode(message, encoding) : message;
+    }
+
+    public Map<String, Integer> sessionsByEncoding() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (MessageEncoding encoding : MessageEncoding.values()) {
+            if (encoding.isBinary()) {
+                counts.put(encoding.name(), 0);
+            }
+        }
+        for (MessageEncoding encoding : sessions.values()) {
+            counts.merge(encoding.name(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    public long getTranscoded() {
+        return transcoded.sum();
+    }
+
+    public long getReused() {
+        return reused.sum();
+    }
+
+    public long getDowngraded() {
+        return downgraded.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    private void negotiate(String sessionId, Message<?> message) {
+        MessageEncoding requested = MessageEncoding.fromHeader(
+                NativeMessageHeaderAccessor.getFirstNativeHeader(ENCODING_HEADER, message.getHeaders()));
+        if (!requested.isBinary()) {
+            return;
+        }
+        Map<String, Object> attributes = SimpMessageHeaderAccessor.getSessionAttributes(message.getHeaders());
+        if (attributes == null || !Boolean.TRUE.equals(attributes.get(NATIVE_WEBSOCKET_ATTRIBUTE))) {
+            // SockJS frames are text only
+            downgraded.increment();
+            return;
+        }
+        sessions.put(sessionId, requested);
+    }
+
+    private Message<?> encode(Message<?> message, MessageEncoding encoding) {
+        byte[] json = (byte[]) message.getPayload();
+        Map<byte[], byte[]> cache = encoded.get(encoding);
+        byte[] body = cache.get(json);
+        if (body != null) {
+            reused.increment();
+        } else {
+            try {
+                body = transcoder.transcode(json, encoding);
+            } catch (IOException e) {
+                // Not a JSON body: send it unchanged rather than drop it
+                failed.increment();
+                return message;
+            }
+            cache.put(json, body);
+            transcoded.increment();
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        accessor.setNativeHeader(ENCODING_HEADER, encoding.name().toLowerCase(Locale.ROOT));
+        return MessageBuilder.createMessage(body, accessor.getMessageHeaders());
+    }
+}
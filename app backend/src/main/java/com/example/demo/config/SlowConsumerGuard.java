@@ -0,0 +1,249 @@
+package com.example.demo.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Politica pentru clienții WebSocket lenți (slow consumers).
+ *
+ * Fiecare sesiune este urmărită de un decorator care știe de când durează trimiterea
+ * curentă către client. Dacă durează mai mult de app.websocket.slow-consumer-ms,
+ * sesiunea este considerată lentă, iar mesajele noi pentru ea (interceptate pe canalul
+ * de ieșire, înainte să ajungă în bufferul sesiunii) sunt tratate după politică:
+ * DROP le ignoră, COALESCE păstrează doar ultimul mesaj per destinație, tip și entitate
+ * (câmpurile entity și id din conținutul notificării) și îl trimite când clientul își
+ * revine, DISCONNECT închide sesiunea. COALESCE nu comasează mesajele fără entitate
+ * (ex. rezumatul unui import) și nici cozile utilizatorilor (/queue/...), unde fiecare
+ * mesaj are propria secvență: acestea trec mai departe. Limitele de buffer și de timp
+ * din configurarea transportului rămân plasa de siguranță (sesiunea este închisă).
+ */
+@Component
+public class SlowConsumerGuard implements ChannelInterceptor {
+
+    public enum Policy {
+        DROP, COALESCE, DISCONNECT
+    }
+
+    private final Policy policy;
+    private final long slowNanos;
+    private final ObjectMapper objectMapper;
+    private final Map<String, TrackedSession> sessions = new ConcurrentHashMap<>();
+    private volatile MessageChannel outboundChannel;
+
+    private final LongAdder slowEvents = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder disconnected = new LongAdder();
+
+    @Autowired
+    public SlowConsumerGuard(@Value("${app.websocket.slow-consumer-policy:COALESCE}") Policy policy,
+                             @Value("${app.websocket.slow-consumer-ms:2000}") long slowMillis,
+                             ObjectMapper objectMapper) {
+        this.policy = policy;
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowMillis);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Decorează handler-ul WebSocket astfel încât fiecare sesiune nouă să fie urmărită.
+     */
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                TrackedSession tracked = new TrackedSession(session);
+                sessions.put(session.getId(), tracked);
+                super.afterConnectionEstablished(tracked);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        outboundChannel = channel;
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            // Only broker messages are subject to the policy; CONNECT_ACK, heartbeats and errors always go out
+            return message;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        TrackedSession session = sessionId != null ? sessions.get(sessionId) : null;
+        if (session == null || !session.isSlow(System.nanoTime())) {
+            return message;
+        }
+
+        switch (policy) {
+            case DROP:
+                dropped.increment();
+                return null;
+            case COALESCE:
+                String key = coalesceKey(message);
+                if (key == null) {
+                    // Not a state update that a later message replaces: let the transport limits handle it
+                    return message;
+                }
+                session.pending.put(key, message);
+                coalesced.increment();
+                return null;
+            default:
+                disconnected.increment();
+                session.closeSlow();
+                return null;
+        }
+    }
+
+    /**
+     * Cheia de comasare: destinația, tipul notificării și entitatea (entity + id) din conținut.
+     * Null dacă mesajul nu poate fi înlocuit de unul mai nou.
+     */
+    private String coalesceKey(Message<?> message) {
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null || destination.startsWith("/queue/") || !(message.getPayload() instanceof byte[])) {
+            return null;
+        }
+        try {
+            JsonNode notification = objectMapper.readTree((byte[]) message.getPayload());
+            JsonNode data = notification.path("data");
+            if (!data.hasNonNull("entity") || !data.hasNonNull("id")) {
+                return null;
+            }
+            return destination + '|' + notification.path("type").asText() + '|'
+                    + data.get("entity").asText() + ':' + data.get("id").asText();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    public int getSessions() {
+        return sessions.size();
+    }
+
+    public int getSlowSessions() {
+        long now = System.nanoTime();
+        int slow = 0;
+        for (TrackedSession session : sessions.values()) {
+            if (session.isSlow(now)) {
+                slow++;
+            }
+        }
+        return slow;
+    }
+
+    public int getPendingMessages() {
+        int pending = 0;
+        for (TrackedSession session : sessions.values()) {
+            pending += session.pending.size();
+        }
+        return pending;
+    }
+
+    public long getSlowEvents() {
+        return slowEvents.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getDisconnected() {
+        return disconnected.sum();
+    }
+
+    /**
+     * Sesiunea unui client, cu momentul de început al trimiterii în curs (0 dacă nu trimite nimic).
+     * Trimiterile către o sesiune sunt deja serializate de decoratorul concurent al Spring.
+     */
+    private final class TrackedSession extends WebSocketSessionDecorator {
+        // Latest message per coalescing key, in the order the keys first appeared
+        final Map<String, Message<?>> pending = Collections.synchronizedMap(new LinkedHashMap<>());
+        private volatile long sendingSince;
+        private volatile boolean reportedSlow;
+
+        TrackedSession(WebSocketSession delegate) {
+            super(delegate);
+        }
+
+        boolean isSlow(long now) {
+            long since = sendingSince;
+            boolean slow = since != 0 && now - since > slowNanos;
+            if (slow && !reportedSlow) {
+                reportedSlow = true;
+                slowEvents.increment();
+            }
+            return slow;
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            sendingSince = System.nanoTime();
+            try {
+                super.sendMessage(message);
+            } finally {
+                sendingSince = 0;
+                reportedSlow = false;
+                flushPending();
+            }
+        }
+
+        void closeSlow() {
+            try {
+                getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (IOException e) {
+                // The session is being dropped anyway
+            }
+        }
+
+        private void flushPending() {
+            MessageChannel channel = outboundChannel;
+            if (pending.isEmpty() || channel == null) {
+                return;
+            }
+            List<Message<?>> messages;
+            synchronized (pending) {
+                messages = new ArrayList<>(pending.values());
+                pending.clear();
+            }
+            // Latest message per key goes back through the outbound channel (and this guard)
+            for (Message<?> message : messages) {
+                channel.send(message);
+            }
+        }
+    }
+}
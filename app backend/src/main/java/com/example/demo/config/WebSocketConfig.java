@@ -1,16 +1,55 @@
 // app backend/src/main/java/com/example/demo/config/WebSocketConfig.java
 package com.example.demo.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final SlowConsumerGuard slowConsumerGuard;
+    private final SessionEncodingInterceptor sessionEncoding;
+    private final int inboundPoolSize;
+    private final int inboundMaxPoolSize;
+    private final int inboundQueueCapacity;
+    private final int outboundPoolSize;
+    private final int outboundMaxPoolSize;
+    private final int outboundQueueCapacity;
+    private final int sendBufferSizeLimit;
+    private final int sendTimeLimit;
+    private final int messageSizeLimit;
+
+    public WebSocketConfig(SlowConsumerGuard slowConsumerGuard,
+                           SessionEncodingInterceptor sessionEncoding,
+                           @Value("${app.websocket.inbound.core-pool-size:4}") int inboundPoolSize,
+                           @Value("${app.websocket.inbound.max-pool-size:8}") int inboundMaxPoolSize,
+                           @Value("${app.websocket.inbound.queue-capacity:1000}") int inboundQueueCapacity,
+                           @Value("${app.websocket.outbound.core-pool-size:8}") int outboundPoolSize,
+                           @Value("${app.websocket.outbound.max-pool-size:16}") int outboundMaxPoolSize,
+                           @Value("${app.websocket.outbound.queue-capacity:10000}") int outboundQueueCapacity,
+                           @Value("${app.websocket.send-buffer-size-limit:524288}") int sendBufferSizeLimit,
+                           @Value("${app.websocket.send-time-limit-ms:10000}") int sendTimeLimit,
+                           @Value("${app.websocket.message-size-limit:65536}") int messageSizeLimit) {
+        this.slowConsumerGuard = slowConsumerGuard;
+        this.sessionEncoding = sessionEncoding;
+        this.inboundPoolSize = inboundPoolSize;
+        this.inboundMaxPoolSize = inboundMaxPoolSize;
+        this.inboundQueueCapacity = inboundQueueCapacity;
+        this.outboundPoolSize = outboundPoolSize;
+        this.outboundMaxPoolSize = outboundMaxPoolSize;
+        this.outboundQueueCapacity = outboundQueueCapacity;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.sendTimeLimit = sendTimeLimit;
+        this.messageSizeLimit = messageSizeLimit;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Enable a simple memory-based message broker to carry messages back to the client
@@ -28,5 +67,40 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws")
                 .setAllowedOrigins("http://localhost:3000") // Allow React frontend
                 .withSockJS();
+
+        // Plain WebSocket endpoint (no SockJS) for clients that negotiate a binary encoding on CONNECT
+        registry.addEndpoint("/ws-native")
+                .setAllowedOrigins("http://localhost:3000")
+                .addInterceptors(sessionEncoding.nativeWebSocketMarker());
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Frames from clients (CONNECT, SUBSCRIBE, SEND) are handled on a bounded pool
+        registration.taskExecutor()
+                .corePoolSize(inboundPoolSize)
+                .maxPoolSize(inboundMaxPoolSize)
+                .queueCapacity(inboundQueueCapacity);
+        registration.interceptors(sessionEncoding.negotiation());
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // Messages to clients: bounded pool and queue, the slow-consumer policy before anything is buffered,
+        // then the session's negotiated encoding
+        registration.taskExecutor()
+                .corePoolSize(outboundPoolSize)
+                .maxPoolSize(outboundMaxPoolSize)
+                .queueCapacity(outboundQueueCapacity);
+        registration.interceptors(slowConsumerGuard, sessionEncoding);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Hard per-session limits: a client over either of them is disconnected
+        registration.setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setSendTimeLimit(sendTimeLimit)
+                .setMessageSizeLimit(messageSizeLimit)
+                .addDecoratorFactory(slowConsumerGuard::decorate);
     }
-}
\ No newline at end of file
+}
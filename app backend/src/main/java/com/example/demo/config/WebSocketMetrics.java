@@ -0,0 +1,80 @@
+package com.example.demo.config;
+
+import com.example.demo.dto.MetricsDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.config.WebSocketMessageBrokerStats;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+/**
+ * Adună metricile transportului WebSocket: sesiunile (din statisticile Spring),
+ * adâncimea cozilor canalelor de intrare/ieșire, contoarele politicii pentru clienți lenți
+ * și sesiunile pe format de codare (JSON/CBOR/Smile).
+ */
+@Component
+public class WebSocketMetrics {
+
+    private final WebSocketMessageBrokerStats brokerStats;
+    private final ThreadPoolTaskExecutor inboundExecutor;
+    private final ThreadPoolTaskExecutor outboundExecutor;
+    private final SlowConsumerGuard slowConsumerGuard;
+    private final SessionEncodingInterceptor sessionEncoding;
+
+    @Autowired
+    public WebSocketMetrics(WebSocketMessageBrokerStats brokerStats,
+                            @Qualifier("clientInboundChannelExecutor") ThreadPoolTaskExecutor inboundExecutor,
+                            @Qualifier("clientOutboundChannelExecutor") ThreadPoolTaskExecutor outboundExecutor,
+                            SlowConsumerGuard slowConsumerGuard,
+                            SessionEncodingInterceptor sessionEncoding) {
+        this.brokerStats = brokerStats;
+        this.inboundExecutor = inboundExecutor;
+        this.outboundExecutor = outboundExecutor;
+        this.slowConsumerGuard = slowConsumerGuard;
+        this.sessionEncoding = sessionEncoding;
+    }
+
+    public MetricsDTO.WebSocketMetricsDTO metrics() {
+        MetricsDTO.WebSocketMetricsDTO.WebSocketMetricsDTOBuilder result = MetricsDTO.WebSocketMetricsDTO.builder()
+                .inbound(executorMetrics(inboundExecutor))
+                .outbound(executorMetrics(outboundExecutor))
+                .slowConsumerPolicy(slowConsumerGuard.getPolicy().name())
+                .slowSessions(slowConsumerGuard.getSlowSessions())
+                .pendingCoalesced(slowConsumerGuard.getPendingMessages())
+                .slowEvents(slowConsumerGuard.getSlowEvents())
+                .dropped(slowConsumerGuard.getDropped())
+                .coalesced(slowConsumerGuard.getCoalesced())
+                .disconnected(slowConsumerGuard.getDisconnected())
+                .sessionsByEncoding(sessionEncoding.sessionsByEncoding())
+                .transcoded(sessionEncoding.getTranscoded())
+                .transcodeReused(sessionEncoding.getReused())
+                .encodingDowngrades(sessionEncoding.getDowngraded())
+                .encodingFailures(sessionEncoding.getFailed());
+
+        SubProtocolWebSocketHandler.Stats sessions = brokerStats.getWebSocketSessionStats();
+        if (sessions != null) {
+            result.totalSessions(sessions.getTotalSessions())
+                    .webSocketSessions(sessions.getWebSocketSessions())
+                    .httpStreamingSessions(sessions.getHttpStreamingSessions())
+                    .httpPollingSessions(sessions.getHttpPollingSessions())
+                    .limitExceededSessions(sessions.getLimitExceededSessions())
+                    .transportErrorSessions(sessions.getTransportErrorSessions());
+        } else {
+            result.totalSessions(slowConsumerGuard.getSessions());
+        }
+        return result.build();
+    }
+
+    private static MetricsDTO.ExecutorMetricsDTO executorMetrics(ThreadPoolTaskExecutor executor) {
+        return MetricsDTO.ExecutorMetricsDTO.builder()
+                .corePoolSize(executor.getCorePoolSize())
+                .maxPoolSize(executor.getMaxPoolSize())
+                .poolSize(executor.getPoolSize())
+                .activeThreads(executor.getActiveCount())
+                .queueDepth(executor.getQueueSize())
+                .queueCapacity(executor.getQueueCapacity())
+                .completedTasks(executor.getThreadPoolExecutor().getCompletedTaskCount())
+                .build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.constants;
+
+/**
+ * Constante pentru generatorul de ID-uri comun tuturor entităților.
+ *
+ * Toate entitățile folosesc același generator de tip tabel cu optimizator
+ * "pooled" (hi/lo): fiecare instanță rezervă un bloc de BLOCK_SIZE ID-uri
+ * printr-o singură actualizare în tabelul id_blocks și le distribuie apoi
+ * din memorie. Spre deosebire de IDENTITY, ID-ul este cunoscut înainte de
+ * INSERT, deci Hibernate poate grupa inserările în loturi JDBC.
+ */
+public final class IdGeneration {
+
+    public static final String GENERATOR = "pooled_entity_ids";
+    public static final String TABLE = "id_blocks";
+    public static final String NAME_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final String SEGMENT = "entity_ids";
+    public static final int BLOCK_SIZE = 50;
+
+    private IdGeneration() {
+    }
+}
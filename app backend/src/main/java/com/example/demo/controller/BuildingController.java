@@ -1,5 +1,7 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.BuildingDTO;
+import com.example.demo.dto.CursorPageDTO;
 import com.example.demo.model.Building;
 import com.example.demo.service.BuildingService;
 import org.springframework.web.bind.annotation.*;
@@ -21,6 +23,13 @@ public class BuildingController {
         return buildingService.getAllBuildings();
     }
 
+    @GetMapping("/scroll")
+    public CursorPageDTO<Building> getBuildingsPage(@RequestParam(defaultValue = "id") String sort,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "20") int size) {
+        return buildingService.getBuildingsPage(sort, cursor, size);
+    }
+
     @GetMapping("/{id}")
     public Building getBuildingById(@PathVariable Long id) {
         return buildingService.getBuildingById(id);
@@ -41,4 +50,11 @@ public class BuildingController {
     public void deleteBuilding(@PathVariable Long id) {
         buildingService.deleteBuilding(id);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/nearest")
+    public List<BuildingDTO.MapDTO> getNearestBuildings(@RequestParam Double lat,
+                                                        @RequestParam Double lng,
+                                                        @RequestParam(defaultValue = "10") int k) {
+        return buildingService.getNearestBuildings(lat, lng, k);
+    }
+}
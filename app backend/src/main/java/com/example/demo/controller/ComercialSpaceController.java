@@ -1,25 +1,45 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.ComercialSpaceDTO;
+import com.example.demo.dto.CursorPageDTO;
+import com.example.demo.dto.NotificationDTO;
 import com.example.demo.model.ComercialSpace;
 import com.example.demo.model.Building;
 import com.example.demo.service.ComercialSpaceService;
 import com.example.demo.service.BuildingService;
+import com.example.demo.service.SpaceExportService;
+import com.example.demo.service.SpaceTopics;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/spaces")
 @CrossOrigin(origins = "http://localhost:3000")
 public class ComercialSpaceController {
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final ComercialSpaceService spaceService;
     private final BuildingService buildingService;
+    private final SpaceExportService exportService;
+    private final SpaceTopics spaceTopics;
 
-    public ComercialSpaceController(ComercialSpaceService spaceService, BuildingService buildingService) {
+    public ComercialSpaceController(ComercialSpaceService spaceService, BuildingService buildingService,
+                                    SpaceExportService exportService, SpaceTopics spaceTopics) {
         this.spaceService = spaceService;
         this.buildingService = buildingService;
+        this.exportService = exportService;
+        this.spaceTopics = spaceTopics;
     }
 
     @PostMapping("/delete/{id}")
@@ -72,23 +92,119 @@ public class ComercialSpaceController {
         return spaceService.getAllSpaces();
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportSpaces(@RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024)) {
+                    exportService.exportSpaces(compressed);
+                }
+            } else {
+                exportService.exportSpaces(out);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(NDJSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @GetMapping("/scroll")
+    public CursorPageDTO<ComercialSpace> getSpacesPage(@RequestParam(defaultValue = "id") String sort,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "20") int size) {
+        return spaceService.getSpacesPage(sort, cursor, size);
+    }
+
     @GetMapping("/available")
-    public List<ComercialSpace> getAvailableSpaces() {
-        return spaceService.getAvailableSpaces();
+    public Page<ComercialSpaceDTO.ListDTO> getAvailableSpaces(@PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        return spaceService.getAvailableSpaces(pageable);
     }
 
     @GetMapping("/type/{spaceType}")
-    public List<ComercialSpace> getSpacesByType(@PathVariable String spaceType) {
-        return spaceService.getSpacesByType(spaceType);
+    public Page<ComercialSpaceDTO.ListDTO> getSpacesByType(@PathVariable String spaceType,
+                                                           @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        return spaceService.getSpacesByType(spaceType, pageable);
     }
 
     @GetMapping("/owner/{ownerId}")
-    public List<ComercialSpace> getSpacesByOwner(@PathVariable Long ownerId) {
-        return spaceService.getSpacesByOwner(ownerId);
+    public Page<ComercialSpaceDTO.ListDTO> getSpacesByOwner(@PathVariable Long ownerId,
+                                                            @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        return spaceService.getSpacesByOwner(ownerId, pageable);
+    }
+
+    @GetMapping("/owner/{ownerId}/summary")
+    public Page<ComercialSpaceDTO.SummaryDTO> getSpaceSummariesByOwner(@PathVariable Long ownerId,
+                                                                       @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        return spaceService.getSpaceSummariesByOwner(ownerId, pageable);
     }
 
     @GetMapping("/building/{buildingId}")
-    public List<ComercialSpace> getSpacesByBuilding(@PathVariable Long buildingId) {
-        return spaceService.getSpacesByBuilding(buildingId);
+    public Page<ComercialSpaceDTO.ListDTO> getSpacesByBuilding(@PathVariable Long buildingId,
+                                                               @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        return spaceService.getSpacesByBuilding(buildingId, pageable);
+    }
+
+    @PostMapping("/filter")
+    public Page<ComercialSpace> searchSpaces(@RequestBody ComercialSpaceDTO.SearchDTO criteria,
+                                             @PageableDefault(size = 20) Pageable pageable) {
+        return spaceService.searchSpaces(criteria, pageable);
+    }
+
+    @PostMapping("/filter/faceted")
+    public ComercialSpaceDTO.FacetedSearchDTO searchSpacesWithFacets(@RequestBody ComercialSpaceDTO.SearchDTO criteria,
+                                                                     @PageableDefault(size = 20) Pageable pageable) {
+        return spaceService.searchSpacesWithFacets(criteria, pageable);
+    }
+
+    @GetMapping("/search")
+    public Page<ComercialSpace> searchSpacesByText(@RequestParam("q") String query,
+                                                   @PageableDefault(size = 20) Pageable pageable) {
+        return spaceService.searchSpacesByText(query, pageable);
+    }
+
+    @GetMapping("/top/price-per-sqm")
+    public List<ComercialSpace> getTopSpacesByPricePerSquareMeter(@RequestParam(defaultValue = "desc") String order,
+                                                                  @RequestParam(defaultValue = "10") int limit) {
+        return spaceService.getTopSpacesByPricePerSquareMeter(limit, !"asc".equalsIgnoreCase(order));
+    }
+
+    @GetMapping("/top/amenities")
+    public List<ComercialSpace> getSpacesWithMostAmenities(@RequestParam(defaultValue = "10") int limit) {
+        return spaceService.getSpacesWithMostAmenities(limit);
+    }
+
+    @GetMapping("/viewport")
+    public List<ComercialSpaceDTO.MapDTO> getSpacesInViewport(@RequestParam Double minLat,
+                                                              @RequestParam Double maxLat,
+                                                              @RequestParam Double minLng,
+                                                              @RequestParam Double maxLng,
+                                                              @RequestParam(defaultValue = "500") int limit) {
+        return spaceService.getSpacesInArea(minLat, maxLat, minLng, maxLng, limit);
+    }
+
+    @GetMapping("/nearest")
+    public List<ComercialSpaceDTO.MapDTO> getNearestSpaces(@RequestParam Double lat,
+                                                           @RequestParam Double lng,
+                                                           @RequestParam(defaultValue = "10") int k) {
+        return spaceService.getNearestSpaces(lat, lng, k);
+    }
+
+    @GetMapping("/map")
+    public ComercialSpaceDTO.MapViewDTO getMapView(@RequestParam Double minLat,
+                                                   @RequestParam Double maxLat,
+                                                   @RequestParam Double minLng,
+                                                   @RequestParam Double maxLng,
+                                                   @RequestParam int zoom) {
+        return spaceService.getMapView(minLat, maxLat, minLng, maxLng, zoom);
+    }
+
+    @GetMapping("/geo-cells")
+    public NotificationDTO.GeoCellsDTO getGeoCells(@RequestParam Double minLat,
+                                                   @RequestParam Double maxLat,
+                                                   @RequestParam Double minLng,
+                                                   @RequestParam Double maxLng) {
+        return spaceTopics.cellsFor(minLat, maxLat, minLng, maxLng);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,51 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.ImportDTO;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.service.ImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/import")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ImportController {
+    private static final String TEXT_CSV = "text/csv";
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private final ImportService importService;
+
+    public ImportController(ImportService importService) {
+        this.importService = importService;
+    }
+
+    // The body is read as a stream, so files larger than memory can be imported
+    @PostMapping(value = "/buildings", consumes = {TEXT_CSV, APPLICATION_NDJSON})
+    public ImportDTO importBuildings(HttpServletRequest request) throws IOException {
+        return importService.importBuildings(request.getInputStream(), formatOf(request));
+    }
+
+    @PostMapping(value = "/spaces", consumes = {TEXT_CSV, APPLICATION_NDJSON})
+    public ImportDTO importSpaces(HttpServletRequest request) throws IOException {
+        return importService.importSpaces(request.getInputStream(), formatOf(request));
+    }
+
+    @PostMapping(value = "/parkings", consumes = {TEXT_CSV, APPLICATION_NDJSON})
+    public ImportDTO importParkings(HttpServletRequest request) throws IOException {
+        return importService.importParkings(request.getInputStream(), formatOf(request));
+    }
+
+    private static ImportDTO.Format formatOf(HttpServletRequest request) {
+        MediaType type = MediaType.parseMediaType(request.getContentType());
+        if (type.isCompatibleWith(MediaType.parseMediaType(TEXT_CSV))) {
+            return ImportDTO.Format.CSV;
+        }
+        if (type.isCompatibleWith(MediaType.parseMediaType(APPLICATION_NDJSON))) {
+            return ImportDTO.Format.NDJSON;
+        }
+        throw new BadRequestException("Unsupported import format: " + request.getContentType());
+    }
+}
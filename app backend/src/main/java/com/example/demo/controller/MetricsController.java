@@ -0,0 +1,66 @@
+package com.example.demo.controller;
+
+import com.example.demo.config.WebSocketMetrics;
+import com.example.demo.dto.MetricsDTO;
+import com.example.demo.service.ClusterRelay;
+import com.example.demo.service.NotificationCoalescer;
+import com.example.demo.service.NotificationDispatcher;
+import com.example.demo.service.NotificationInbox;
+import com.example.demo.service.SpaceLockManager;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/metrics")
+@CrossOrigin(origins = "http://localhost:3000")
+public class MetricsController {
+    private final SpaceLockManager spaceLockManager;
+    private final NotificationDispatcher notificationDispatcher;
+    private final NotificationCoalescer notificationCoalescer;
+    private final NotificationInbox notificationInbox;
+    private final WebSocketMetrics webSocketMetrics;
+    private final ClusterRelay clusterRelay;
+
+    public MetricsController(SpaceLockManager spaceLockManager,
+                             NotificationDispatcher notificationDispatcher,
+                             NotificationCoalescer notificationCoalescer,
+                             NotificationInbox notificationInbox,
+                             WebSocketMetrics webSocketMetrics,
+                             ClusterRelay clusterRelay) {
+        this.spaceLockManager = spaceLockManager;
+        this.notificationDispatcher = notificationDispatcher;
+        this.notificationCoalescer = notificationCoalescer;
+        this.notificationInbox = notificationInbox;
+        this.webSocketMetrics = webSocketMetrics;
+        this.clusterRelay = clusterRelay;
+    }
+
+    @GetMapping("/space-locks")
+    public MetricsDTO.LockMetricsDTO getSpaceLockMetrics() {
+        return spaceLockManager.metrics();
+    }
+
+    @GetMapping("/notifications")
+    public MetricsDTO.QueueMetricsDTO getNotificationQueueMetrics() {
+        return notificationDispatcher.metrics();
+    }
+
+    @GetMapping("/notifications/coalescing")
+    public MetricsDTO.CoalescingMetricsDTO getNotificationCoalescingMetrics() {
+        return notificationCoalescer.metrics();
+    }
+
+    @GetMapping("/notifications/inbox")
+    public MetricsDTO.InboxMetricsDTO getNotificationInboxMetrics() {
+        return notificationInbox.metrics();
+    }
+
+    @GetMapping("/websocket")
+    public MetricsDTO.WebSocketMetricsDTO getWebSocketMetrics() {
+        return webSocketMetrics.metrics();
+    }
+
+    @GetMapping("/cluster")
+    public MetricsDTO.RelayMetricsDTO getClusterRelayMetrics() {
+        return clusterRelay.metrics();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.NotificationDTO;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.service.NotificationInbox;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/notifications")
+@CrossOrigin(origins = "http://localhost:3000")
+public class NotificationInboxController {
+    private final NotificationInbox notificationInbox;
+
+    public NotificationInboxController(NotificationInbox notificationInbox) {
+        this.notificationInbox = notificationInbox;
+    }
+
+    // Replays the user's direct notifications after the last sequence the client has seen
+    @GetMapping("/inbox/{userId}")
+    public NotificationDTO.InboxDTO getInbox(@PathVariable String userId,
+                                             @RequestParam(defaultValue = "0") long after,
+                                             @RequestParam(required = false) Long epoch) {
+        if (after < 0) {
+            throw new BadRequestException("Sequence cannot be negative");
+        }
+        return notificationInbox.replay(userId, after, epoch);
+    }
+}
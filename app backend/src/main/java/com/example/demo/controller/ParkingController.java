@@ -0,0 +1,33 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.ParkingDTO;
+import com.example.demo.service.ParkingReservationService;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/parkings")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ParkingController {
+    private final ParkingReservationService reservationService;
+
+    public ParkingController(ParkingReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    @GetMapping("/{id}/availability")
+    public ParkingDTO.ReservationDTO getAvailability(@PathVariable Long id) {
+        return reservationService.getAvailability(id);
+    }
+
+    @PostMapping("/{id}/reserve")
+    public ParkingDTO.ReservationDTO reserveSpots(@PathVariable Long id,
+                                                  @RequestParam(defaultValue = "1") int spots) {
+        return reservationService.reserveSpots(id, spots);
+    }
+
+    @PostMapping("/{id}/release")
+    public ParkingDTO.ReservationDTO releaseSpots(@PathVariable Long id,
+                                                  @RequestParam(defaultValue = "1") int spots) {
+        return reservationService.releaseSpots(id, spots);
+    }
+}
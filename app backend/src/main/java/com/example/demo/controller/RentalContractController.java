@@ -1,5 +1,6 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.CursorPageDTO;
 import com.example.demo.model.RentalContract;
 import com.example.demo.service.RentalContractService;
 import org.springframework.http.ResponseEntity;
@@ -27,6 +28,13 @@ public class RentalContractController {
         return contractService.getAllContracts();
     }
 
+    @GetMapping("/scroll")
+    public CursorPageDTO<RentalContract> getContractsPage(@RequestParam(defaultValue = "id") String sort,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "20") int size) {
+        return contractService.getContractsPage(sort, cursor, size);
+    }
+
     @GetMapping("/{id}")
     public RentalContract getContractById(@PathVariable("id") Long id) {
         return contractService.getContractById(id);
@@ -1,5 +1,6 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.CursorPageDTO;
 import com.example.demo.model.RentalContract;
 import com.example.demo.model.User;
 import com.example.demo.service.UserService;
@@ -47,6 +48,13 @@ public class UserController {
         return List.of();
     }
 
+    @GetMapping("/scroll")
+    public CursorPageDTO<User> getUsersPage(@RequestParam(defaultValue = "id") String sort,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "20") int size) {
+        return userService.getUsersPage(sort, cursor, size);
+    }
+
     @GetMapping("/{id}")
     public User getUserById(@PathVariable("id") Long id) {
         return userService.getUserById(id);
@@ -260,6 +260,7 @@ public class BuildingDTO {
         private Integer totalSpaces;
         private Double occupancyRate;
         private Integer qualityScore;
+        private Double distanceKm; // completat doar pentru căutările de proximitate
     }
 
     /**
@@ -7,6 +7,7 @@ import lombok.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DTO pentru entitatea ComercialSpace.
@@ -320,6 +321,98 @@ public class ComercialSpaceDTO {
         private String buildingName;
         private String address;
         private Integer qualityScore;
+        private Double distanceKm; // completat doar pentru căutările de proximitate
+    }
+
+    /**
+     * DTO pentru un cluster de spații afișat pe hartă la zoom redus.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ClusterDTO {
+        private Double latitude;
+        private Double longitude;
+        private Integer count;
+        private Double averagePrice;
+        private SpaceType dominantSpaceType;
+    }
+
+    /**
+     * DTO pentru răspunsul hărții: clustere la zoom redus, spații individuale la zoom mare.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class MapViewDTO {
+        private Integer zoom;
+        private List<ClusterDTO> clusters;
+        private List<MapDTO> spaces;
+    }
+
+    /**
+     * DTO pentru exportul catalogului (o linie NDJSON per spațiu).
+     * Conține doar câmpuri simple și ID-urile relațiilor, fără a încărca entitățile asociate.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ExportDTO {
+        private Long id;
+        private String name;
+        private String description;
+        private Double area;
+        private Double pricePerMonth;
+        private String address;
+        private Double latitude;
+        private Double longitude;
+        private SpaceType spaceType;
+        private Boolean available;
+        private Long ownerId;
+        private Long buildingId;
+        private List<String> amenities;
+        private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+    }
+
+    /**
+     * DTO pentru numărătorile pe fațete ale rezultatelor unei căutări.
+     * Cheile intervalelor de preț și suprafață au forma "min-max", ultimul interval "min+".
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class FacetsDTO {
+        private Map<SpaceType, Long> spaceTypes;
+        private Map<String, Long> priceRanges;
+        private Map<String, Long> areaRanges;
+        private Map<String, Long> amenities;
+        private Long available;
+        private Long unavailable;
+    }
+
+    /**
+     * DTO pentru rezultatele unei căutări împreună cu fațetele calculate pe toate potrivirile.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class FacetedSearchDTO {
+        private List<ComercialSpace> content;
+        private Integer page;
+        private Integer size;
+        private Long totalElements;
+        private FacetsDTO facets;
     }
 
     /**
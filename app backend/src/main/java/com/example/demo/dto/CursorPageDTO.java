@@ -0,0 +1,56 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * DTO pentru o pagină obținută prin paginare keyset (cu cursor).
+ *
+ * Clientul primește elementele paginii și un cursor opac (nextCursor) pe care îl
+ * trimite înapoi pentru pagina următoare. Fiecare pagină este citită cu o
+ * interogare de tip "după ultima cheie văzută", deci pagina 10.000 costă la fel
+ * ca prima pagină.
+ *
+ * @param <T> tipul elementelor din pagină
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPageDTO<T> {
+
+    /** Dimensiunea maximă a unei pagini. */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private List<T> items;
+
+    private Integer size;
+
+    private Boolean hasMore;
+
+    private String nextCursor;
+
+    /**
+     * Construiește pagina din rândurile citite cu un rând în plus față de dimensiunea cerută.
+     * Rândul suplimentar indică existența paginii următoare și nu este returnat.
+     *
+     * @param rows rândurile citite (cel mult size + 1)
+     * @param size dimensiunea cerută a paginii
+     * @param cursorOf construiește cursorul pornind de la ultimul element al paginii
+     * @return pagina, cu cursorul pentru pagina următoare dacă aceasta există
+     */
+    public static <T> CursorPageDTO<T> of(List<T> rows, int size, Function<T, KeysetCursor> cursorOf) {
+        boolean hasMore = rows.size() > size;
+        List<T> items = hasMore ? rows.subList(0, size) : rows;
+        return CursorPageDTO.<T>builder()
+                .items(items)
+                .size(items.size())
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? cursorOf.apply(items.get(items.size() - 1)).encode() : null)
+                .build();
+    }
+}
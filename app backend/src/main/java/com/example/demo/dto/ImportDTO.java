@@ -0,0 +1,72 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO pentru rezultatul unui import în masă (clădiri, spații sau parcări).
+ *
+ * Conține numărătorile rândurilor procesate, importate și respinse, plus
+ * primele erori de validare, fiecare cu numărul liniei din fișierul sursă.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportDTO {
+
+    // Numărul maxim de erori raportate; restul sunt doar numărate
+    public static final int MAX_REPORTED_ERRORS = 100;
+
+    private Kind kind;
+    private Format format;
+    private long processed;
+    private long imported;
+    private long failed;
+    private long durationMs;
+
+    @Builder.Default
+    private List<RowErrorDTO> errors = new ArrayList<>();
+
+    /**
+     * Înregistrează un rând respins.
+     *
+     * @param line numărul liniei din fișierul sursă
+     * @param message motivul respingerii
+     */
+    public void reject(long line, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowErrorDTO(line, message));
+        }
+    }
+
+    /**
+     * Tipul entităților importate.
+     */
+    public enum Kind {
+        BUILDINGS, SPACES, PARKINGS
+    }
+
+    /**
+     * Formatul fișierului importat.
+     */
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    /**
+     * DTO pentru eroarea unui rând din import.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowErrorDTO {
+        private long line;
+        private String message;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo.dto;
+
+import com.example.demo.exception.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Poziția din care continuă paginarea keyset: cheia de sortare, valoarea ei
+ * pentru ultimul element trimis și ID-ul acestuia (pentru egalități).
+ *
+ * Este transmis clientului ca token opac (Base64 URL-safe), ca formatul intern
+ * să poată fi schimbat fără a afecta clienții.
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private final String sortKey;
+    private final Long lastId;
+    private final String lastValue;
+
+    /**
+     * Limita interogării pentru o pagină: un rând în plus față de dimensiunea cerută,
+     * ca să știm dacă mai urmează o pagină.
+     *
+     * @param size dimensiunea cerută a paginii
+     * @return limita pentru interogarea keyset
+     * @throws BadRequestException dacă dimensiunea este în afara intervalului permis
+     */
+    public static Pageable fetchLimit(int size) {
+        if (size <= 0 || size > CursorPageDTO.MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + CursorPageDTO.MAX_PAGE_SIZE);
+        }
+        return PageRequest.of(0, size + 1);
+    }
+
+    /**
+     * Convertește valoarea cheii de sortare la tipul coloanei.
+     *
+     * @param parser conversia din text (ex. Double::valueOf, LocalDate::parse)
+     * @return valoarea convertită
+     * @throws BadRequestException dacă valoarea din cursor nu poate fi convertită
+     */
+    public <T> T getLastValue(Function<String, T> parser) {
+        try {
+            return parser.apply(lastValue);
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid pagination cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = sortKey + SEPARATOR + lastId + SEPARATOR + (lastValue != null ? lastValue : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifică un cursor primit de la client și verifică dacă a fost emis pentru aceeași sortare.
+     *
+     * @param token cursorul opac
+     * @param expectedSortKey cheia de sortare a cererii curente
+     * @return cursorul decodificat
+     * @throws BadRequestException dacă tokenul este invalid sau aparține altei sortări
+     */
+    public static KeysetCursor decode(String token, String expectedSortKey) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 3);
+            if (parts.length != 3 || !parts[0].equals(expectedSortKey)) {
+                throw new BadRequestException("Cursor does not match the requested sort order");
+            }
+            return new KeysetCursor(parts[0], Long.valueOf(parts[1]), parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid pagination cursor");
+        }
+    }
+}
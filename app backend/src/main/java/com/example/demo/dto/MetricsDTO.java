@@ -0,0 +1,171 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.Map;
+
+/**
+ * DTO-uri pentru metricile interne ale aplicației (expuse prin /metrics).
+ */
+public class MetricsDTO {
+
+    /**
+     * DTO pentru timpii de așteptare la lock-urile pe spații.
+     * waitHistogram[i] numără așteptările sub waitBucketsMicros[i]; ultimul element le numără pe cele mai lungi.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class LockMetricsDTO {
+        private int stripes;
+        private long acquisitions;
+        private long contended;
+        private long timeouts;
+        private long totalWaitMs;
+        private long averageWaitMicros;
+        private long maxWaitMicros;
+        private long[] waitBucketsMicros;
+        private long[] waitHistogram;
+    }
+
+    /**
+     * DTO pentru starea cozii de notificări (adâncime, mesaje trimise și pierdute).
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class QueueMetricsDTO {
+        private String policy;
+        private int capacity;
+        private int depth;
+        private int maxDepth;
+        private long enqueued;
+        private long sent;
+        private long dropped;
+        private long failed;
+        private long batches;
+        private double averageBatchSize;
+        private long serialized;
+        private long bytesSerialized;
+        private long bytesSent;
+        private double averageMessageBytes;
+    }
+
+    /**
+     * DTO pentru etapa de comasare a notificărilor (câte au fost înlocuite înainte de trimitere).
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class CoalescingMetricsDTO {
+        private long windowMs;
+        private int pending;
+        private long received;
+        private long merged;
+        private long flushed;
+    }
+
+    /**
+     * DTO pentru inbox-urile de notificări ale utilizatorilor.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class InboxMetricsDTO {
+        private int capacity;
+        private int users;
+        private long appended;
+        private long replayed;
+        private long replayedFromStore;
+        private long storeFailures;
+        private int pendingWrites;
+        private long compactions;
+        // Sent to the owning instance / received, already numbered, from it
+        private long forwarded;
+        private long mirrored;
+    }
+
+    /**
+     * DTO pentru transportul WebSocket: sesiuni, cozile canalelor și clienții lenți.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class WebSocketMetricsDTO {
+        private int totalSessions;
+        private int webSocketSessions;
+        private int httpStreamingSessions;
+        private int httpPollingSessions;
+        private int limitExceededSessions;
+        private int transportErrorSessions;
+        private ExecutorMetricsDTO inbound;
+        private ExecutorMetricsDTO outbound;
+        private String slowConsumerPolicy;
+        private int slowSessions;
+        private int pendingCoalesced;
+        private long slowEvents;
+        private long dropped;
+        private long coalesced;
+        private long disconnected;
+        private Map<String, Integer> sessionsByEncoding;
+        private long transcoded;
+        private long transcodeReused;
+        private long encodingDowngrades;
+        private long encodingFailures;
+    }
+
+    /**
+     * DTO pentru un pool de fire cu coadă (ex. canalele de intrare/ieșire WebSocket).
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ExecutorMetricsDTO {
+        private int corePoolSize;
+        private int maxPoolSize;
+        private int poolSize;
+        private int activeThreads;
+        private int queueDepth;
+        private int queueCapacity;
+        private long completedTasks;
+    }
+
+    /**
+     * DTO pentru relay-ul de notificări între instanțe.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class RelayMetricsDTO {
+        private String relay;
+        private String instanceId;
+        private Integer peers;
+        private Long published;
+        private Long datagramsSent;
+        private Long received;
+        private Long ignoredOwn;
+        private Long oversize;
+        private Long failed;
+        private Long malformed;
+        private Long inboxForwarded;
+        private Long inboxReplicated;
+        private Long indexChanges;
+        // Inbox or index messages received before their listener was registered
+        private Long unhandled;
+    }
+}
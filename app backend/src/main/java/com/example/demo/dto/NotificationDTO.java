@@ -0,0 +1,141 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.ComercialSpace;
+import com.example.demo.model.Notification;
+import com.example.demo.model.RentalContract;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO-uri compacte pentru conținutul notificărilor WebSocket (câmpul Notification.data).
+ *
+ * În locul entității complete (cu proprietar, clădire și contracte încărcate leneș),
+ * o notificare poartă doar ID-ul entității, versiunea ei și câmpurile modificate.
+ */
+public class NotificationDTO {
+
+    /** Versiunea formatului; se incrementează la schimbări incompatibile ale conținutului. */
+    public static final int SCHEMA_VERSION = 1;
+
+    /**
+     * DTO pentru modificarea unei entități: ID, versiune (momentul ultimei modificări,
+     * în milisecunde epoch) și doar câmpurile care s-au schimbat.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class DeltaDTO {
+        private int schema;
+        private String entity;
+        private Long id;
+        private Long version;
+        private Map<String, Object> changes;
+    }
+
+    /**
+     * DTO pentru reluarea inbox-ului unui utilizator: notificările de după ultima
+     * secvență văzută, epoca inbox-ului și ultima secvență alocată în ea.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class InboxDTO {
+        private String userId;
+        private Long epoch;
+        private Long lastSequence;
+        // true when part of the requested range is no longer stored; the client should reload its lists
+        private Boolean truncated;
+        private List<Notification> notifications;
+    }
+
+    /**
+     * DTO pentru abonarea la evenimentele din viewport: celulele grilei și topicurile lor.
+     * Fără celule (viewport prea mare), topics conține doar topicul general.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class GeoCellsDTO {
+        private Double cellDegrees;
+        private List<String> cells;
+        private List<String> topics;
+    }
+
+    /**
+     * Toate câmpurile de listare ale unui spațiu nou.
+     */
+    public static DeltaDTO newSpace(ComercialSpace space) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        put(changes, "name", space.getName());
+        put(changes, "spaceType", space.getSpaceType());
+        put(changes, "pricePerMonth", space.getPricePerMonth());
+        put(changes, "area", space.getArea());
+        put(changes, "available", space.getAvailable());
+        put(changes, "address", space.getAddress());
+        put(changes, "latitude", space.getLatitude());
+        put(changes, "longitude", space.getLongitude());
+        // getId() on a lazy proxy returns the foreign key without loading the owner or building
+        put(changes, "ownerId", space.getOwner() != null ? space.getOwner().getId() : null);
+        put(changes, "buildingId", space.getBuilding() != null ? space.getBuilding().getId() : null);
+        return delta("space", space.getId(), space.getUpdatedAt(), changes);
+    }
+
+    /**
+     * Doar disponibilitatea spațiului.
+     */
+    public static DeltaDTO spaceStatus(ComercialSpace space) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        put(changes, "available", space.getAvailable());
+        return delta("space", space.getId(), space.getUpdatedAt(), changes);
+    }
+
+    /**
+     * Câmpurile de rezumat ale unui contract nou.
+     */
+    public static DeltaDTO newContract(RentalContract contract) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        put(changes, "contractNumber", contract.getContractNumber());
+        put(changes, "status", contract.getStatus());
+        put(changes, "spaceId", contract.getSpace() != null ? contract.getSpace().getId() : null);
+        put(changes, "tenantId", contract.getTenant() != null ? contract.getTenant().getId() : null);
+        put(changes, "startDate", contract.getStartDate());
+        put(changes, "endDate", contract.getEndDate());
+        put(changes, "monthlyRent", contract.getMonthlyRent());
+        return delta("contract", contract.getId(), contract.getUpdatedAt(), changes);
+    }
+
+    /**
+     * Statusul și perioada unui contract modificat.
+     */
+    public static DeltaDTO contractStatus(RentalContract contract) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        put(changes, "status", contract.getStatus());
+        put(changes, "endDate", contract.getEndDate());
+        return delta("contract", contract.getId(), contract.getUpdatedAt(), changes);
+    }
+
+    private static DeltaDTO delta(String entity, Long id, LocalDateTime updatedAt, Map<String, Object> changes) {
+        long version = updatedAt != null
+                ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+        return new DeltaDTO(SCHEMA_VERSION, entity, id, version, changes);
+    }
+
+    private static void put(Map<String, Object> changes, String field, Object value) {
+        if (value != null) {
+            changes.put(field, value);
+        }
+    }
+}
@@ -266,4 +266,19 @@ public class ParkingDTO {
         private Boolean hasElectricCharging;
         private Boolean isSecured;
     }
-}
\ No newline at end of file
+
+    /**
+     * DTO pentru starea locurilor unei parcări după o rezervare sau eliberare.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ReservationDTO {
+        private Long parkingId;
+        private Integer numberOfSpots;
+        private Integer reservedSpots;
+        private Integer availableSpots;
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.demo.index;
+
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Index inversat din memorie pentru căutarea full-text a spațiilor comerciale.
+ *
+ * Indexează numele, descrierea, adresa și facilitățile fiecărui spațiu.
+ * Textul este normalizat (litere mici, diacriticele românești ă/â/î/ș/ț,
+ * inclusiv variantele cu sedilă ş/ţ, sunt reduse la litera de bază) și
+ * împărțit în termeni. Rezultatele sunt ordonate după scorul BM25, cu
+ * ponderi diferite pe câmpuri (numele contează mai mult decât descrierea).
+ */
+@Component
+public class FullTextIndex implements SpaceChangeListener {
+
+    // Parametrii standard BM25
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float AMENITY_WEIGHT = 2.0f;
+    private static final float ADDRESS_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "si", "de", "la", "in", "cu", "pe", "din", "un", "o", "al", "a", "ale", "care", "pentru",
+            "the", "and", "of", "for", "with", "an");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** termen -> (ID spațiu -> frecvența ponderată a termenului în document) */
+    private final Map<String, Map<Long, Float>> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private double totalLength;
+
+    @Override
+    public void onSpaceSaved(SpaceSnapshot space) {
+        Map<String, Float> frequencies = new HashMap<>();
+        addField(frequencies, space.getName(), NAME_WEIGHT);
+        addField(frequencies, space.getDescription(), DESCRIPTION_WEIGHT);
+        addField(frequencies, space.getAddress(), ADDRESS_WEIGHT);
+        for (String amenity : space.getAmenities()) {
+            addField(frequencies, amenity, AMENITY_WEIGHT);
+        }
+        float length = 0;
+        for (float tf : frequencies.values()) {
+            length += tf;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(space.getId());
+            for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(space.getId(), entry.getValue());
+            }
+            documents.put(space.getId(), new Document(frequencies.keySet().toArray(new String[0]), length));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onSpaceDeleted(Long spaceId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(spaceId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Caută spațiile relevante pentru textul dat, ordonate după scorul BM25.
+     *
+     * @param query textul căutat
+     * @param offset poziția primului rezultat
+     * @param limit numărul maxim de rezultate
+     * @return pagina de ID-uri și numărul total de documente care conțin cel puțin un termen
+     */
+    public IndexPage search(String query, long offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            if (terms.isEmpty() || documentCount == 0) {
+                return new IndexPage(List.of(), 0);
+            }
+            double averageLength = totalLength / documentCount;
+
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<Long, Float> docs = postings.get(term);
+                if (docs == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - docs.size() + 0.5) / (docs.size() + 0.5));
+                for (Map.Entry<Long, Float> posting : docs.entrySet()) {
+                    double tf = posting.getValue();
+                    double length = documents.get(posting.getKey()).length;
+                    double score = idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+                    scores.merge(posting.getKey(), score, Double::sum);
+                }
+            }
+
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort((a, b) -> {
+                int cmp = Double.compare(b.getValue(), a.getValue());
+                return cmp != 0 ? cmp : Long.compare(a.getKey(), b.getKey());
+            });
+
+            List<Long> page = new ArrayList<>();
+            for (long i = offset; i < ranked.size() && page.size() < limit; i++) {
+                page.add(ranked.get((int) i).getKey());
+            }
+            return new IndexPage(page, ranked.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Împarte textul în termeni normalizați (fără diacritice, litere mici, fără cuvinte de legătură).
+     *
+     * @param text textul de împărțit
+     * @return lista termenilor, în ordinea apariției
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        for (String token : NON_ALPHANUMERIC.split(folded.toLowerCase(Locale.ROOT))) {
+            if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static void addField(Map<String, Float> frequencies, String text, float weight) {
+        for (String token : tokenize(text)) {
+            frequencies.merge(token, weight, Float::sum);
+        }
+    }
+
+    private void removeUnlocked(Long spaceId) {
+        Document old = documents.remove(spaceId);
+        if (old == null) {
+            return;
+        }
+        totalLength -= old.length;
+        for (String term : old.terms) {
+            Map<Long, Float> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(spaceId);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * Termenii distincți ai unui document și lungimea lui ponderată.
+     */
+    private static final class Document {
+        final String[] terms;
+        final float length;
+
+        Document(String[] terms, float length) {
+            this.terms = terms;
+            this.length = length;
+        }
+    }
+}
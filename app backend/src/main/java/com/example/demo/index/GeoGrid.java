@@ -0,0 +1,303 @@
+package com.example.demo.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Grilă geografică uniformă (celule de latitudine/longitudine) pentru puncte identificate prin ID.
+ *
+ * Răspunde la interogări de tip viewport (dreptunghi) vizitând doar celulele
+ * acoperite și la interogări "cei mai apropiați K" prin expandarea inelelor de
+ * celule în jurul punctului, ordonând rezultatele după distanța haversine.
+ */
+public class GeoGrid {
+
+    /** Raza medie a Pământului în kilometri. */
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180.0;
+
+    private final double cellSize;
+    private final int lngCells;
+    private final int latCells;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, double[]> pointById = new HashMap<>();
+    private final Map<Long, Set<Long>> idsByCell = new HashMap<>();
+
+    /**
+     * @param cellSize latura unei celule, în grade
+     */
+    public GeoGrid(double cellSize) {
+        this.cellSize = cellSize;
+        this.lngCells = (int) Math.ceil(360.0 / cellSize) + 1;
+        this.latCells = (int) Math.ceil(180.0 / cellSize) + 1;
+    }
+
+    /**
+     * Adaugă sau mută un punct. Un punct fără coordonate este eliminat.
+     */
+    public void put(Long id, Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            remove(id);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+            pointById.put(id, new double[]{latitude, longitude});
+            idsByCell.computeIfAbsent(cellKey(latIndex(latitude), lngIndex(longitude)), k -> new HashSet<>()).add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            pointById.clear();
+            idsByCell.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return pointById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returnează ID-urile punctelor din dreptunghiul dat (limite inclusive).
+     *
+     * @param limit numărul maxim de ID-uri returnate
+     */
+    public List<Long> withinBox(double minLat, double maxLat, double minLng, double maxLng, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Long> result = new ArrayList<>();
+            int fromLat = latIndex(minLat);
+            int toLat = latIndex(maxLat);
+            int fromLng = lngIndex(minLng);
+            int toLng = lngIndex(maxLng);
+            long cellCount = (long) (toLat - fromLat + 1) * (toLng - fromLng + 1);
+
+            if (cellCount > pointById.size()) {
+                // Viewport foarte mare: mai ieftin să parcurgem punctele direct
+                for (Map.Entry<Long, double[]> entry : pointById.entrySet()) {
+                    if (result.size() >= limit) break;
+                    if (inBox(entry.getValue(), minLat, maxLat, minLng, maxLng)) {
+                        result.add(entry.getKey());
+                    }
+                }
+                return result;
+            }
+
+            for (int la = fromLat; la <= toLat; la++) {
+                for (int ln = fromLng; ln <= toLng; ln++) {
+                    Set<Long> ids = idsByCell.get(cellKey(la, ln));
+                    if (ids == null) continue;
+                    for (Long id : ids) {
+                        if (result.size() >= limit) return result;
+                        if (inBox(pointById.get(id), minLat, maxLat, minLng, maxLng)) {
+                            result.add(id);
+                        }
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returnează cei mai apropiați k vecini ai punctului, ordonați crescător după distanța haversine.
+     */
+    public List<Hit> nearest(double latitude, double longitude, int k) {
+        lock.readLock().lock();
+        try {
+            List<Hit> result = new ArrayList<>();
+            if (k <= 0 || pointById.isEmpty()) {
+                return result;
+            }
+
+            // Max-heap cu cei mai buni k candidați găsiți până acum
+            PriorityQueue<Hit> best = new PriorityQueue<>(Comparator.comparingDouble(Hit::getDistanceKm).reversed());
+            int centerLat = latIndex(latitude);
+            int centerLng = lngIndex(longitude);
+            int visited = 0;
+            int maxRing = Math.max(latCells, lngCells);
+
+            for (int ring = 0; ring <= maxRing && visited < pointById.size(); ring++) {
+                if (best.size() == k && ringLowerBoundKm(latitude, ring) > best.peek().getDistanceKm()) {
+                    break;
+                }
+                for (int la = centerLat - ring; la <= centerLat + ring; la++) {
+                    if (la < 0 || la >= latCells) continue;
+                    boolean edgeRow = la == centerLat - ring || la == centerLat + ring;
+                    int step = edgeRow ? 1 : Math.max(1, 2 * ring);
+                    for (int ln = centerLng - ring; ln <= centerLng + ring; ln += step) {
+                        if (ln < 0 || ln >= lngCells) continue;
+                        Set<Long> ids = idsByCell.get(cellKey(la, ln));
+                        if (ids == null) continue;
+                        for (Long id : ids) {
+                            visited++;
+                            double[] p = pointById.get(id);
+                            double distance = haversineKm(latitude, longitude, p[0], p[1]);
+                            if (best.size() < k) {
+                                best.add(new Hit(id, distance));
+                            } else if (distance < best.peek().getDistanceKm()) {
+                                best.poll();
+                                best.add(new Hit(id, distance));
+                            }
+                        }
+                    }
+                }
+            }
+
+            result.addAll(best);
+            result.sort(Comparator.comparingDouble(Hit::getDistanceKm));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Distanța haversine dintre două puncte, în kilometri.
+     */
+    public static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Limita inferioară a distanței până la orice punct aflat la inelul dat sau mai departe.
+     * Folosește latura de longitudine, care se micșorează spre poli, deci este conservatoare.
+     */
+    private double ringLowerBoundKm(double latitude, int ring) {
+        if (ring <= 0) {
+            return 0.0;
+        }
+        double farthestLat = Math.min(89.9, Math.abs(latitude) + (ring + 1) * cellSize);
+        return (ring - 1) * cellSize * KM_PER_DEGREE * Math.cos(Math.toRadians(farthestLat));
+    }
+
+    private void removeUnlocked(Long id) {
+        double[] old = pointById.remove(id);
+        if (old != null) {
+            long key = cellKey(latIndex(old[0]), lngIndex(old[1]));
+            Set<Long> ids = idsByCell.get(key);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    idsByCell.remove(key);
+                }
+            }
+        }
+    }
+
+    private static boolean inBox(double[] p, double minLat, double maxLat, double minLng, double maxLng) {
+        return p[0] >= minLat && p[0] <= maxLat && p[1] >= minLng && p[1] <= maxLng;
+    }
+
+    private int latIndex(double latitude) {
+        return latIndex(latitude, cellSize);
+    }
+
+    private int lngIndex(double longitude) {
+        return lngIndex(longitude, cellSize);
+    }
+
+    /**
+     * Numele celulei care conține punctul, în forma "{indexLatitudine}_{indexLongitudine}".
+     * Pentru aceeași latură de celulă, numele este același pe server și în client.
+     *
+     * @param cellSize latura celulei, în grade
+     */
+    public static String cellName(double latitude, double longitude, double cellSize) {
+        return cellName(latIndex(latitude, cellSize), lngIndex(longitude, cellSize));
+    }
+
+    /**
+     * Numele tuturor celulelor acoperite de dreptunghiul dat (limite inclusive).
+     *
+     * @param cellSize latura celulei, în grade
+     * @param maxCells numărul maxim de celule acceptat
+     * @return celulele, sau null dacă dreptunghiul acoperă mai mult de maxCells celule
+     */
+    public static List<String> cellNames(double minLat, double maxLat, double minLng, double maxLng,
+                                         double cellSize, int maxCells) {
+        int minLatIdx = latIndex(minLat, cellSize);
+        int maxLatIdx = latIndex(maxLat, cellSize);
+        int minLngIdx = lngIndex(minLng, cellSize);
+        int maxLngIdx = lngIndex(maxLng, cellSize);
+        long count = (long) (maxLatIdx - minLatIdx + 1) * (maxLngIdx - minLngIdx + 1);
+        if (count > maxCells) {
+            return null;
+        }
+        List<String> names = new ArrayList<>((int) count);
+        for (int lat = minLatIdx; lat <= maxLatIdx; lat++) {
+            for (int lng = minLngIdx; lng <= maxLngIdx; lng++) {
+                names.add(cellName(lat, lng));
+            }
+        }
+        return names;
+    }
+
+    private static String cellName(int latIdx, int lngIdx) {
+        return latIdx + "_" + lngIdx;
+    }
+
+    private static int latIndex(double latitude, double cellSize) {
+        double clamped = Math.max(-90.0, Math.min(90.0, latitude));
+        return (int) Math.floor((clamped + 90.0) / cellSize);
+    }
+
+    private static int lngIndex(double longitude, double cellSize) {
+        double clamped = Math.max(-180.0, Math.min(180.0, longitude));
+        return (int) Math.floor((clamped + 180.0) / cellSize);
+    }
+
+    private long cellKey(int latIdx, int lngIdx) {
+        return (long) latIdx * lngCells + lngIdx;
+    }
+
+    /**
+     * Un rezultat al căutării de vecini: ID-ul punctului și distanța până la el.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Hit {
+        private final long id;
+        private final double distanceKm;
+    }
+}
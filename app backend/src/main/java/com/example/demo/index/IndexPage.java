@@ -0,0 +1,24 @@
+package com.example.demo.index;
+
+import com.example.demo.dto.ComercialSpaceDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * O pagină de rezultate returnată de un index din memorie:
+ * ID-urile spațiilor din pagina cerută, în ordinea finală, și totalul potrivirilor.
+ * Fațetele sunt completate doar dacă au fost cerute.
+ */
+@Getter
+@AllArgsConstructor
+public class IndexPage {
+    private final List<Long> ids;
+    private final long total;
+    private final ComercialSpaceDTO.FacetsDTO facets;
+
+    public IndexPage(List<Long> ids, long total) {
+        this(ids, total, null);
+    }
+}
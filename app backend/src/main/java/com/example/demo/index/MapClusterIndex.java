@@ -0,0 +1,260 @@
+package com.example.demo.index;
+
+import com.example.demo.constants.SpaceType;
+import com.example.demo.dto.ComercialSpaceDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Quadtree cu agregate pentru gruparea (clustering) spațiilor pe hartă.
+ *
+ * Fiecare nod păstrează numărul de spații, suma prețurilor, suma coordonatelor
+ * (pentru centroid) și numărul de spații pe fiecare SpaceType. Agregatele sunt
+ * actualizate incremental pe drumul rădăcină-frunză la fiecare inserare sau
+ * ștergere, astfel încât o cerere de hartă doar citește nodurile de la adâncimea
+ * corespunzătoare nivelului de zoom.
+ */
+@Component
+public class MapClusterIndex implements SpaceChangeListener {
+
+    private static final int LEAF_CAPACITY = 32;
+    private static final int MAX_DEPTH = 24;
+
+    /** Un nivel de zoom al hărții corespunde aproximativ adâncimii zoom + 2 (celule de ~64px). */
+    private static final int ZOOM_TO_DEPTH_OFFSET = 2;
+
+    private static final SpaceType[] TYPES = SpaceType.values();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private Node root = newRoot();
+
+    @Override
+    public void onSpaceSaved(SpaceSnapshot space) {
+        lock.writeLock().lock();
+        try {
+            Entry old = entries.remove(space.getId());
+            if (old != null) {
+                root.remove(old);
+            }
+            if (!space.hasCoordinates()) {
+                return;
+            }
+            Entry entry = new Entry(space.getId(), space.getLatitude(), space.getLongitude(),
+                    space.getPricePerMonth() != null ? space.getPricePerMonth() : 0.0,
+                    space.getSpaceType());
+            entries.put(entry.id, entry);
+            root.insert(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onSpaceDeleted(Long spaceId) {
+        lock.writeLock().lock();
+        try {
+            Entry old = entries.remove(spaceId);
+            if (old != null) {
+                root.remove(old);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            root = newRoot();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returnează clusterele din zona vizibilă pentru nivelul de zoom dat.
+     *
+     * @param zoom nivelul de zoom al hărții (0 = lumea întreagă)
+     * @return lista clusterelor nevide care intersectează zona
+     */
+    public List<ComercialSpaceDTO.ClusterDTO> clusters(double minLat, double maxLat,
+                                                       double minLng, double maxLng, int zoom) {
+        int depth = Math.max(0, Math.min(MAX_DEPTH, zoom + ZOOM_TO_DEPTH_OFFSET));
+        lock.readLock().lock();
+        try {
+            List<ComercialSpaceDTO.ClusterDTO> result = new ArrayList<>();
+            collect(root, minLat, maxLat, minLng, maxLng, depth, result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void collect(Node node, double minLat, double maxLat, double minLng, double maxLng,
+                         int depth, List<ComercialSpaceDTO.ClusterDTO> out) {
+        if (node.count == 0 || !node.intersects(minLat, maxLat, minLng, maxLng)) {
+            return;
+        }
+        if (node.depth >= depth || node.children == null) {
+            out.add(node.toCluster());
+            return;
+        }
+        for (Node child : node.children) {
+            collect(child, minLat, maxLat, minLng, maxLng, depth, out);
+        }
+    }
+
+    private static Node newRoot() {
+        return new Node(-90.0, 90.0, -180.0, 180.0, 0);
+    }
+
+    /**
+     * Un spațiu indexat: poziția, prețul și tipul lui.
+     */
+    private static final class Entry {
+        final long id;
+        final double lat;
+        final double lng;
+        final double price;
+        final SpaceType type;
+
+        Entry(long id, double lat, double lng, double price, SpaceType type) {
+            this.id = id;
+            this.lat = lat;
+            this.lng = lng;
+            this.price = price;
+            this.type = type;
+        }
+    }
+
+    /**
+     * Nod al quadtree-ului. Frunzele conțin spațiile, toate nodurile conțin agregatele subarborelui.
+     */
+    private static final class Node {
+        final double minLat;
+        final double maxLat;
+        final double minLng;
+        final double maxLng;
+        final int depth;
+
+        int count;
+        double sumPrice;
+        double sumLat;
+        double sumLng;
+        final int[] typeCounts = new int[TYPES.length];
+
+        Node[] children;
+        List<Entry> points = new ArrayList<>();
+
+        Node(double minLat, double maxLat, double minLng, double maxLng, int depth) {
+            this.minLat = minLat;
+            this.maxLat = maxLat;
+            this.minLng = minLng;
+            this.maxLng = maxLng;
+            this.depth = depth;
+        }
+
+        void insert(Entry entry) {
+            aggregate(entry, 1);
+            if (children != null) {
+                childFor(entry).insert(entry);
+                return;
+            }
+            points.add(entry);
+            if (points.size() > LEAF_CAPACITY && depth < MAX_DEPTH) {
+                split();
+            }
+        }
+
+        void remove(Entry entry) {
+            aggregate(entry, -1);
+            if (children != null) {
+                childFor(entry).remove(entry);
+                if (count <= LEAF_CAPACITY / 2) {
+                    merge();
+                }
+                return;
+            }
+            points.removeIf(p -> p.id == entry.id);
+        }
+
+        private void aggregate(Entry entry, int sign) {
+            count += sign;
+            sumPrice += sign * entry.price;
+            sumLat += sign * entry.lat;
+            sumLng += sign * entry.lng;
+            if (entry.type != null) {
+                typeCounts[entry.type.ordinal()] += sign;
+            }
+        }
+
+        private void split() {
+            double midLat = (minLat + maxLat) / 2;
+            double midLng = (minLng + maxLng) / 2;
+            children = new Node[]{
+                    new Node(minLat, midLat, minLng, midLng, depth + 1),
+                    new Node(minLat, midLat, midLng, maxLng, depth + 1),
+                    new Node(midLat, maxLat, minLng, midLng, depth + 1),
+                    new Node(midLat, maxLat, midLng, maxLng, depth + 1)
+            };
+            List<Entry> moved = points;
+            points = null;
+            for (Entry entry : moved) {
+                // Agregatele acestui nod includ deja punctele mutate; le adăugăm doar în copii
+                childFor(entry).insert(entry);
+            }
+        }
+
+        private void merge() {
+            List<Entry> gathered = new ArrayList<>(count);
+            gather(this, gathered);
+            children = null;
+            points = gathered;
+        }
+
+        private static void gather(Node node, List<Entry> out) {
+            if (node.children == null) {
+                out.addAll(node.points);
+                return;
+            }
+            for (Node child : node.children) {
+                gather(child, out);
+            }
+        }
+
+        private Node childFor(Entry entry) {
+            double midLat = (minLat + maxLat) / 2;
+            double midLng = (minLng + maxLng) / 2;
+            int index = (entry.lat >= midLat ? 2 : 0) + (entry.lng >= midLng ? 1 : 0);
+            return children[index];
+        }
+
+        boolean intersects(double qMinLat, double qMaxLat, double qMinLng, double qMaxLng) {
+            return minLat <= qMaxLat && maxLat >= qMinLat && minLng <= qMaxLng && maxLng >= qMinLng;
+        }
+
+        ComercialSpaceDTO.ClusterDTO toCluster() {
+            int dominant = 0;
+            for (int i = 1; i < typeCounts.length; i++) {
+                if (typeCounts[i] > typeCounts[dominant]) {
+                    dominant = i;
+                }
+            }
+            return ComercialSpaceDTO.ClusterDTO.builder()
+                    .latitude(sumLat / count)
+                    .longitude(sumLng / count)
+                    .count(count)
+                    .averagePrice(sumPrice / count)
+                    .dominantSpaceType(typeCounts[dominant] > 0 ? TYPES[dominant] : null)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.demo.index;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Bitmap comprimat pentru mulțimi de ordinale (întregi nenegativi), în stilul Roaring.
+ *
+ * Ordinalele sunt împărțite în blocuri de câte 65536 după cei 16 biți superiori.
+ * Un bloc cu puține elemente este ținut ca tablou sortat de char (2 octeți pe
+ * element), iar unul dens ca bitmap de 1024 de long-uri (8 KB). Containerul se
+ * schimbă automat la pragul de 4096 de elemente, unde cele două reprezentări au
+ * aceeași dimensiune.
+ *
+ * Clasa nu este sincronizată; indexul care o deține se ocupă de lock-uri.
+ */
+public class RoaringBitmap {
+
+    private static final int ARRAY_MAX_SIZE = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    // Cheile blocurilor (biții superiori), sortate, și containerele corespunzătoare
+    private char[] keys = new char[0];
+    private Container[] containers = new Container[0];
+    private int blockCount;
+
+    public void add(int ordinal) {
+        char key = (char) (ordinal >>> 16);
+        int i = blockIndex(key);
+        if (i < 0) {
+            i = -i - 1;
+            insertBlock(i, key, new ArrayContainer());
+        }
+        containers[i] = containers[i].add((char) ordinal);
+    }
+
+    public void remove(int ordinal) {
+        int i = blockIndex((char) (ordinal >>> 16));
+        if (i < 0) {
+            return;
+        }
+        containers[i] = containers[i].remove((char) ordinal);
+        if (containers[i].cardinality() == 0) {
+            removeBlock(i);
+        }
+    }
+
+    public boolean contains(int ordinal) {
+        int i = blockIndex((char) (ordinal >>> 16));
+        return i >= 0 && containers[i].contains((char) ordinal);
+    }
+
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < blockCount; i++) {
+            total += containers[i].cardinality();
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return blockCount == 0;
+    }
+
+    public void clear() {
+        keys = new char[0];
+        containers = new Container[0];
+        blockCount = 0;
+    }
+
+    /**
+     * Păstrează în mulțimea dată doar ordinalele prezente și în acest bitmap.
+     * Blocurile care lipsesc din bitmap sunt șterse dintr-o singură operație.
+     *
+     * @param target mulțimea de filtrat (modificată pe loc)
+     */
+    public void andInto(BitSet target) {
+        int from = 0;
+        for (int i = 0; i < blockCount; i++) {
+            int base = keys[i] << 16;
+            if (base > from) {
+                target.clear(from, base);
+            }
+            containers[i].andInto(target, base);
+            from = base + 65536;
+        }
+        int end = target.length();
+        if (end > from) {
+            target.clear(from, end);
+        }
+    }
+
+    private int blockIndex(char key) {
+        return Arrays.binarySearch(keys, 0, blockCount, key);
+    }
+
+    private void insertBlock(int i, char key, Container container) {
+        if (blockCount == keys.length) {
+            int capacity = Math.max(4, blockCount * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+        }
+        System.arraycopy(keys, i, keys, i + 1, blockCount - i);
+        System.arraycopy(containers, i, containers, i + 1, blockCount - i);
+        keys[i] = key;
+        containers[i] = container;
+        blockCount++;
+    }
+
+    private void removeBlock(int i) {
+        System.arraycopy(keys, i + 1, keys, i, blockCount - i - 1);
+        System.arraycopy(containers, i + 1, containers, i, blockCount - i - 1);
+        blockCount--;
+        containers[blockCount] = null;
+    }
+
+    /**
+     * Containerul unui bloc de 65536 de ordinale. Operațiile de modificare pot
+     * returna un container nou când se trece pragul dintre reprezentări.
+     */
+    private interface Container {
+        Container add(char low);
+
+        Container remove(char low);
+
+        boolean contains(char low);
+
+        int cardinality();
+
+        void andInto(BitSet target, int base);
+    }
+
+    /**
+     * Bloc rar: valorile sortate într-un tablou de char.
+     */
+    private static final class ArrayContainer implements Container {
+        private char[] values = new char[4];
+        private int size;
+
+        @Override
+        public Container add(char low) {
+            int i = Arrays.binarySearch(values, 0, size, low);
+            if (i >= 0) {
+                return this;
+            }
+            if (size == ARRAY_MAX_SIZE) {
+                return toBitmap().add(low);
+            }
+            i = -i - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX_SIZE, size * 2));
+            }
+            System.arraycopy(values, i, values, i + 1, size - i);
+            values[i] = low;
+            size++;
+            return this;
+        }
+
+        @Override
+        public Container remove(char low) {
+            int i = Arrays.binarySearch(values, 0, size, low);
+            if (i >= 0) {
+                System.arraycopy(values, i + 1, values, i, size - i - 1);
+                size--;
+            }
+            return this;
+        }
+
+        @Override
+        public boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, size, low) >= 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return size;
+        }
+
+        @Override
+        public void andInto(BitSet target, int base) {
+            // Parcurgem blocul din țintă și păstrăm doar valorile din tablou
+            int j = 0;
+            for (int bit = target.nextSetBit(base); bit >= 0 && bit < base + 65536; bit = target.nextSetBit(bit + 1)) {
+                char low = (char) (bit - base);
+                while (j < size && values[j] < low) {
+                    j++;
+                }
+                if (j == size || values[j] != low) {
+                    target.clear(bit);
+                }
+            }
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < size; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    /**
+     * Bloc dens: 65536 de biți în 1024 de long-uri.
+     */
+    private static final class BitmapContainer implements Container {
+        private final long[] words = new long[BITMAP_WORDS];
+        private int cardinality;
+
+        @Override
+        public Container add(char low) {
+            long mask = 1L << low;
+            int w = low >>> 6;
+            if ((words[w] & mask) == 0) {
+                words[w] |= mask;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        public Container remove(char low) {
+            long mask = 1L << low;
+            int w = low >>> 6;
+            if ((words[w] & mask) != 0) {
+                words[w] &= ~mask;
+                cardinality--;
+            }
+            return cardinality <= ARRAY_MAX_SIZE ? toArray() : this;
+        }
+
+        @Override
+        public boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public void andInto(BitSet target, int base) {
+            for (int bit = target.nextSetBit(base); bit >= 0 && bit < base + 65536; bit = target.nextSetBit(bit + 1)) {
+                if (!contains((char) (bit - base))) {
+                    target.clear(bit);
+                }
+            }
+        }
+
+        private Container toArray() {
+            ArrayContainer array = new ArrayContainer();
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    array.add((char) ((w << 6) + Long.numberOfTrailingZeros(word)));
+                    word &= word - 1;
+                }
+            }
+            return array;
+        }
+    }
+}
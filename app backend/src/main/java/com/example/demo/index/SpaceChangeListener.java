@@ -0,0 +1,35 @@
+package com.example.demo.index;
+
+/**
+ * Contract pentru structurile de căutare din memorie care trebuie ținute
+ * sincronizate cu tabela comercial_spaces.
+ *
+ * Fiecare index (căutare pe criterii, spațial, text, etc.) implementează
+ * această interfață și este notificat de SpaceIndexCoordinator la fiecare
+ * creare, actualizare sau ștergere a unui spațiu.
+ *
+ * Principii SOLID respectate:
+ * - Open/Closed: un index nou se adaugă fără modificarea serviciilor
+ * - Dependency Inversion: serviciile depind de această abstracțiune
+ */
+public interface SpaceChangeListener {
+
+    /**
+     * Apelată după ce un spațiu a fost creat sau actualizat.
+     *
+     * @param space copia spațiului salvat, luată înainte de commit
+     */
+    void onSpaceSaved(SpaceSnapshot space);
+
+    /**
+     * Apelată după ce un spațiu a fost șters.
+     *
+     * @param spaceId ID-ul spațiului șters
+     */
+    void onSpaceDeleted(Long spaceId);
+
+    /**
+     * Golește indexul înaintea unei reconstrucții complete.
+     */
+    void clear();
+}
@@ -0,0 +1,258 @@
+package com.example.demo.index;
+
+import com.example.demo.model.Building;
+import com.example.demo.model.ComercialSpace;
+import com.example.demo.repository.BuildingRepository;
+import com.example.demo.repository.ComercialSpaceRepository;
+import com.example.demo.service.ClusterRelay;
+import com.example.demo.service.ClusterRelay.IndexedEntity;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Coordonează toate indexurile din memorie pentru spațiile comerciale.
+ *
+ * La pornirea aplicației încarcă o singură dată spațiile existente, în loturi
+ * ordonate după ID, și le distribuie tuturor indexurilor; apoi propagă fiecare
+ * modificare venită din servicii către toți ascultătorii înregistrați.
+ *
+ * Ascultătorii primesc o copie imutabilă (SpaceSnapshot), nu entitatea. Dacă
+ * modificarea are loc într-o tranzacție, copia este luată imediat, iar indexurile
+ * sunt actualizate abia după commit, astfel încât un rollback nu le desincronizează
+ * de baza de date.
+ *
+ * După commit, fiecare modificare a unui spațiu sau a unei clădiri este anunțată
+ * celorlalte instanțe prin ClusterRelay. O instanță care primește anunțul recitește
+ * entitatea din baza de date (pe un fir separat, în ordinea sosirii) și își
+ * actualizează indexurile; ștergerile sunt aplicate direct.
+ */
+@Slf4j
+@Component
+public class SpaceIndexCoordinator {
+    private static final int CHUNK_SIZE = 1000;
+
+    private final ComercialSpaceRepository spaceRepository;
+    private final BuildingRepository buildingRepository;
+    private final EntityManager entityManager;
+    private final List<SpaceChangeListener> listeners;
+    private final SpatialIndex spatialIndex;
+    private final ClusterRelay clusterRelay;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    // Changes from other instances: read from the database off the relay's receiver thread, one at a time
+    private final ExecutorService remoteChanges = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "space-index-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public SpaceIndexCoordinator(ComercialSpaceRepository spaceRepository,
+                                 BuildingRepository buildingRepository,
+                                 EntityManager entityManager,
+                                 List<SpaceChangeListener> listeners,
+                                 SpatialIndex spatialIndex,
+                                 ClusterRelay clusterRelay,
+                                 PlatformTransactionManager transactionManager) {
+        this.spaceRepository = spaceRepository;
+        this.buildingRepository = buildingRepository;
+        this.entityManager = entityManager;
+        this.listeners = listeners;
+        this.spatialIndex = spatialIndex;
+        this.clusterRelay = clusterRelay;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @PostConstruct
+    public void listenToOtherInstances() {
+        clusterRelay.setIndexListener((entity, id, deleted) -> remoteChanges.execute(() -> applyRemoteChange(entity, id, deleted)));
+    }
+
+    @PreDestroy
+    public void stop() {
+        remoteChanges.shutdownNow();
+    }
+
+    /**
+     * Reconstruiește toate indexurile din baza de date.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        listeners.forEach(SpaceChangeListener::clear);
+        Pageable limit = PageRequest.of(0, CHUNK_SIZE);
+
+        // Keyset chunks, as in the export: the persistence context never holds more than one chunk
+        List<ComercialSpace> chunk = spaceRepository.findAllByOrderByIdAsc(limit);
+        while (!chunk.isEmpty()) {
+            Long lastId = chunk.get(chunk.size() - 1).getId();
+            // Read-only load: index directly instead of waiting for the commit
+            for (SpaceSnapshot space : snapshots(chunk)) {
+                listeners.forEach(listener -> listener.onSpaceSaved(space));
+            }
+            entityManager.clear();
+            chunk = chunk.size() < CHUNK_SIZE
+                    ? List.of()
+                    : spaceRepository.findByIdGreaterThanOrderByIdAsc(lastId, limit);
+        }
+    }
+
+    /**
+     * Propagă salvarea unui spațiu către toate indexurile, după commit-ul tranzacției curente.
+     *
+     * @param space spațiul salvat
+     */
+    public void spaceSaved(ComercialSpace space) {
+        if (space == null || space.getId() == null) {
+            return;
+        }
+        // Taken now, while the entity is still attached; the callback runs after the session is gone
+        SpaceSnapshot snapshot = SpaceSnapshot.of(space);
+        afterCommit(() -> {
+            for (SpaceChangeListener listener : listeners) {
+                listener.onSpaceSaved(snapshot);
+            }
+            clusterRelay.publishIndexChange(IndexedEntity.SPACE, snapshot.getId(), false);
+        });
+    }
+
+    /**
+     * Propagă ștergerea unui spațiu către toate indexurile, după commit-ul tranzacției curente.
+     *
+     * @param spaceId ID-ul spațiului șters
+     */
+    public void spaceDeleted(Long spaceId) {
+        if (spaceId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            for (SpaceChangeListener listener : listeners) {
+                listener.onSpaceDeleted(spaceId);
+            }
+            clusterRelay.publishIndexChange(IndexedEntity.SPACE, spaceId, true);
+        });
+    }
+
+    /**
+     * Actualizează poziția unei clădiri în indexul spațial și o anunță celorlalte instanțe după commit.
+     *
+     * @param building clădirea salvată
+     */
+    public void buildingSaved(Building building) {
+        if (building == null || building.getId() == null) {
+            return;
+        }
+        spatialIndex.onBuildingSaved(building);
+        Long buildingId = building.getId();
+        afterCommit(() -> clusterRelay.publishIndexChange(IndexedEntity.BUILDING, buildingId, false));
+    }
+
+    /**
+     * Elimină o clădire din indexul spațial și anunță ștergerea celorlalte instanțe după commit.
+     *
+     * @param buildingId ID-ul clădirii șterse
+     */
+    public void buildingDeleted(Long buildingId) {
+        if (buildingId == null) {
+            return;
+        }
+        spatialIndex.onBuildingDeleted(buildingId);
+        afterCommit(() -> clusterRelay.publishIndexChange(IndexedEntity.BUILDING, buildingId, true));
+    }
+
+    /**
+     * Aplică o modificare făcută pe altă instanță, cu starea curentă din baza de date
+     * (o entitate care nu mai există este scoasă din index).
+     */
+    private void applyRemoteChange(IndexedEntity entity, Long id, boolean deleted) {
+        try {
+            if (entity == IndexedEntity.BUILDING) {
+                Building building = deleted ? null : buildingRepository.findById(id).orElse(null);
+                if (building != null) {
+                    spatialIndex.onBuildingSaved(building);
+                } else {
+                    spatialIndex.onBuildingDeleted(id);
+                }
+                return;
+            }
+            SpaceSnapshot snapshot = deleted ? null : readOnlyTransactionTemplate.execute(status ->
+                    spaceRepository.findById(id).map(SpaceSnapshot::of).orElse(null));
+            for (SpaceChangeListener listener : listeners) {
+                if (snapshot != null) {
+                    listener.onSpaceSaved(snapshot);
+                } else {
+                    listener.onSpaceDeleted(id);
+                }
+            }
+        } catch (RuntimeException e) {
+            // This instance keeps the old entry until the next change of the same entity or a restart
+            log.warn("Could not apply a {} {} change from another instance", entity, id, e);
+        }
+    }
+
+    /**
+     * Copiile unui lot de spații, cu facilitățile și coordonatele clădirilor încărcate
+     * în câte o singură interogare pentru tot lotul (nu câte una per spațiu).
+     */
+    private List<SpaceSnapshot> snapshots(List<ComercialSpace> chunk) {
+        List<Long> ids = chunk.stream().map(ComercialSpace::getId).collect(Collectors.toList());
+        Map<Long, List<String>> amenities = new HashMap<>();
+        for (Object[] row : spaceRepository.findAmenitiesBySpaceIds(ids)) {
+            amenities.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((String) row[1]);
+        }
+        List<Long> withoutCoordinates = chunk.stream()
+                .filter(space -> !space.hasCoordinates())
+                .map(ComercialSpace::getId)
+                .collect(Collectors.toList());
+        Map<Long, Double[]> buildingCoordinates = new HashMap<>();
+        if (!withoutCoordinates.isEmpty()) {
+            for (Object[] row : spaceRepository.findBuildingCoordinatesBySpaceIds(withoutCoordinates)) {
+                buildingCoordinates.put((Long) row[0], new Double[]{(Double) row[1], (Double) row[2]});
+            }
+        }
+
+        List<SpaceSnapshot> result = new ArrayList<>(chunk.size());
+        for (ComercialSpace space : chunk) {
+            result.add(SpaceSnapshot.of(space, amenities.getOrDefault(space.getId(), List.of()),
+                    buildingCoordinates.get(space.getId())));
+        }
+        return result;
+    }
+
+    /**
+     * Execută acțiunea după commit-ul tranzacției curente sau imediat, dacă nu există tranzacție.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
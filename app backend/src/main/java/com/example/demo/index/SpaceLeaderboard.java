@@ -0,0 +1,159 @@
+package com.example.demo.index;
+
+import com.example.demo.repository.ComercialSpaceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Clasamente din memorie pentru spațiile comerciale (top-K).
+ *
+ * Fiecare clasament ține spațiile ordonate după scor într-un arbore echilibrat,
+ * actualizat incremental (O(log N)) la fiecare modificare. Un "top K" citește
+ * doar primele K elemente de la capătul cerut, în O(K), fără să sorteze toate
+ * spațiile la fiecare cerere.
+ */
+@Component
+public class SpaceLeaderboard implements SpaceChangeListener {
+
+    private final ComercialSpaceRepository spaceRepository;
+    private final Ranking pricePerSquareMeter = new Ranking();
+    private final Ranking amenityCount = new Ranking();
+
+    @Autowired
+    public SpaceLeaderboard(ComercialSpaceRepository spaceRepository) {
+        this.spaceRepository = spaceRepository;
+    }
+
+    @Override
+    public void onSpaceSaved(SpaceSnapshot space) {
+        if (space.getPricePerMonth() != null && space.getArea() != null && space.getArea() > 0) {
+            pricePerSquareMeter.put(space.getId(), space.calculatePricePerSquareMeter());
+        } else {
+            pricePerSquareMeter.remove(space.getId());
+        }
+        amenityCount.put(space.getId(), space.getAmenities().size());
+    }
+
+    @Override
+    public void onSpaceDeleted(Long spaceId) {
+        pricePerSquareMeter.remove(spaceId);
+        amenityCount.remove(spaceId);
+    }
+
+    @Override
+    public void clear() {
+        pricePerSquareMeter.clear();
+        amenityCount.clear();
+    }
+
+    /**
+     * Completează coloanele derivate (price_per_sqm, amenity_count) pentru spațiile
+     * salvate înainte ca acestea să existe, ca proiecțiile SQL să le includă.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillDerivedColumns() {
+        spaceRepository.backfillPricePerSquareMeter();
+        spaceRepository.backfillAmenityCount();
+    }
+
+    public List<Long> highestPricePerSquareMeter(int k) {
+        return pricePerSquareMeter.top(k, true);
+    }
+
+    public List<Long> lowestPricePerSquareMeter(int k) {
+        return pricePerSquareMeter.top(k, false);
+    }
+
+    public List<Long> mostAmenities(int k) {
+        return amenityCount.top(k, true);
+    }
+
+    /**
+     * Un clasament: spațiile ordonate după scor, apoi după ID.
+     */
+    private static final class Ranking {
+        private static final Comparator<Entry> ORDER = Comparator
+                .comparingDouble((Entry e) -> e.score)
+                .thenComparingLong(e -> e.id);
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final NavigableSet<Entry> ordered = new TreeSet<>(ORDER);
+        private final Map<Long, Entry> byId = new HashMap<>();
+
+        void put(Long id, double score) {
+            lock.writeLock().lock();
+            try {
+                Entry old = byId.get(id);
+                if (old != null) {
+                    if (old.score == score) {
+                        return;
+                    }
+                    ordered.remove(old);
+                }
+                Entry entry = new Entry(id, score);
+                byId.put(id, entry);
+                ordered.add(entry);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Long id) {
+            lock.writeLock().lock();
+            try {
+                Entry old = byId.remove(id);
+                if (old != null) {
+                    ordered.remove(old);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void clear() {
+            lock.writeLock().lock();
+            try {
+                ordered.clear();
+                byId.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<Long> top(int k, boolean highest) {
+            lock.readLock().lock();
+            try {
+                List<Long> result = new ArrayList<>(Math.min(k, ordered.size()));
+                Iterator<Entry> it = highest ? ordered.descendingIterator() : ordered.iterator();
+                while (it.hasNext() && result.size() < k) {
+                    result.add(it.next().id);
+                }
+                return result;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    private static final class Entry {
+        final long id;
+        final double score;
+
+        Entry(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,560 @@
+package com.example.demo.index;
+
+import com.example.demo.constants.SpaceType;
+import com.example.demo.dto.ComercialSpaceDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index columnar din memorie pentru căutarea spațiilor comerciale după criterii.
+ *
+ * Fiecare spațiu primește un ordinal (poziție în coloane). Prețul și suprafața
+ * sunt ținute în coloane primitive double[], iar predicatele booleene și tipul
+ * spațiului în BitSet-uri, astfel încât un SearchDTO se evaluează prin operații
+ * pe biți și o singură trecere peste candidații rămași, fără interogări MySQL.
+ *
+ * Facilitățile sunt codificate printr-un dicționar (fiecare facilitate distinctă
+ * primește un cod întreg) și au câte un RoaringBitmap peste ordinale, astfel
+ * încât filtrul requiredAmenities devine o intersecție de bitmap-uri în loc de
+ * câte un JOIN pe space_amenities pentru fiecare facilitate.
+ *
+ * Fațetele (tip, interval de preț, interval de suprafață, facilități,
+ * disponibilitate) sunt numărate într-o singură trecere peste potriviri, în
+ * locul câte unei interogări COUNT pentru fiecare valoare.
+ *
+ * Ordinalele eliberate la ștergere sunt refolosite, deci pot fi folosite și de
+ * alte indexuri ca identificator compact al spațiului.
+ */
+@Component
+public class SpaceSearchIndex implements SpaceChangeListener {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final SpaceType[] TYPES = SpaceType.values();
+
+    // Limitele superioare (exclusive) ale intervalelor pentru fațete; ultimul interval este deschis
+    private static final double[] PRICE_RANGES = {500, 1000, 2500, 5000, 10000};
+    private static final double[] AREA_RANGES = {50, 100, 250, 500, 1000};
+    private static final String[] PRICE_RANGE_LABELS = rangeLabels(PRICE_RANGES);
+    private static final String[] AREA_RANGE_LABELS = rangeLabels(AREA_RANGES);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> ordinalById = new HashMap<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private int size;
+
+    // Coloanele indexului, adresate prin ordinal
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private double[] areas = new double[INITIAL_CAPACITY];
+    private String[] addresses = new String[INITIAL_CAPACITY];
+    private SpaceType[] types = new SpaceType[INITIAL_CAPACITY];
+    private int[][] amenityCodes = new int[INITIAL_CAPACITY][];
+
+    private final BitSet live = new BitSet();
+    private final BitSet available = new BitSet();
+    private final BitSet furnished = new BitSet();
+    private final BitSet airConditioning = new BitSet();
+    private final BitSet parking = new BitSet();
+    private final Map<SpaceType, BitSet> byType = new EnumMap<>(SpaceType.class);
+
+    // Dicționarul facilităților: nume normalizat -> cod, cod -> bitmap de ordinale
+    private final Map<String, Integer> amenityDictionary = new HashMap<>();
+    private final List<String> amenityVocabulary = new ArrayList<>();
+    private final List<RoaringBitmap> amenityBitmaps = new ArrayList<>();
+
+    public SpaceSearchIndex() {
+        for (SpaceType type : SpaceType.values()) {
+            byType.put(type, new BitSet());
+        }
+    }
+
+    @Override
+    public void onSpaceSaved(SpaceSnapshot space) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalById.get(space.getId());
+            if (ordinal == null) {
+                ordinal = allocateOrdinal();
+                ordinalById.put(space.getId(), ordinal);
+            }
+            write(ordinal, space);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onSpaceDeleted(Long spaceId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalById.remove(spaceId);
+            if (ordinal != null) {
+                clearBits(ordinal);
+                addresses[ordinal] = null;
+                freeOrdinals.push(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ordinalById.clear();
+            freeOrdinals.clear();
+            size = 0;
+            live.clear();
+            available.clear();
+            furnished.clear();
+            airConditioning.clear();
+            parking.clear();
+            byType.values().forEach(BitSet::clear);
+            Arrays.fill(addresses, null);
+            Arrays.fill(amenityCodes, null);
+            amenityBitmaps.forEach(RoaringBitmap::clear);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Caută spațiile care îndeplinesc criteriile și returnează o pagină de ID-uri.
+     *
+     * @param criteria criteriile de căutare (câmpurile null sunt ignorate)
+     * @param offset poziția primului rezultat
+     * @param limit numărul maxim de rezultate
+     * @return ID-urile din pagina cerută și numărul total de potriviri
+     */
+    public IndexPage search(ComercialSpaceDTO.SearchDTO criteria, long offset, int limit) {
+        return search(criteria, offset, limit, false);
+    }
+
+    /**
+     * Caută spațiile care îndeplinesc criteriile și, la cerere, numără fațetele
+     * tuturor potrivirilor (nu doar ale paginii), în aceeași trecere de citire.
+     *
+     * @param criteria criteriile de căutare (câmpurile null sunt ignorate)
+     * @param offset poziția primului rezultat
+     * @param limit numărul maxim de rezultate
+     * @param withFacets true pentru a calcula și fațetele
+     * @return ID-urile din pagina cerută, numărul total de potriviri și fațetele
+     */
+    public IndexPage search(ComercialSpaceDTO.SearchDTO criteria, long offset, int limit, boolean withFacets) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = match(criteria);
+            int total = matches.cardinality();
+
+            int[] ordinals = new int[total];
+            int n = 0;
+            for (int ord = matches.nextSetBit(0); ord >= 0; ord = matches.nextSetBit(ord + 1)) {
+                ordinals[n++] = ord;
+            }
+            sort(ordinals, sortKey(criteria), "desc".equalsIgnoreCase(criteria.getSortOrder()));
+
+            List<Long> page = new ArrayList<>(Math.max(0, Math.min(limit, total)));
+            for (long i = offset; i < total && page.size() < limit; i++) {
+                page.add(ids[ordinals[(int) i]]);
+            }
+            return new IndexPage(page, total, withFacets ? countFacets(matches) : null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Evaluează criteriile și returnează mulțimea ordinalelor potrivite.
+     * Apelantul trebuie să dețină lock-ul de citire.
+     */
+    BitSet match(ComercialSpaceDTO.SearchDTO criteria) {
+        BitSet result = (BitSet) live.clone();
+        if (criteria.getSpaceType() != null) {
+            result.and(byType.get(criteria.getSpaceType()));
+        }
+        applyFlag(result, available, criteria.getAvailable());
+        applyFlag(result, furnished, criteria.getFurnished());
+        applyFlag(result, airConditioning, criteria.getAirConditioning());
+        applyFlag(result, parking, criteria.getHasParking());
+        if (!applyAmenities(result, criteria.getRequiredAmenities())) {
+            result.clear();
+            return result;
+        }
+
+        boolean hasRange = criteria.getMinPrice() != null || criteria.getMaxPrice() != null
+                || criteria.getMinArea() != null || criteria.getMaxArea() != null;
+        String location = criteria.getLocation() != null && !criteria.getLocation().isBlank()
+                ? criteria.getLocation().toLowerCase(Locale.ROOT) : null;
+        if (!hasRange && location == null) {
+            return result;
+        }
+
+        double minPrice = criteria.getMinPrice() != null ? criteria.getMinPrice() : Double.NEGATIVE_INFINITY;
+        double maxPrice = criteria.getMaxPrice() != null ? criteria.getMaxPrice() : Double.POSITIVE_INFINITY;
+        double minArea = criteria.getMinArea() != null ? criteria.getMinArea() : Double.NEGATIVE_INFINITY;
+        double maxArea = criteria.getMaxArea() != null ? criteria.getMaxArea() : Double.POSITIVE_INFINITY;
+        for (int ord = result.nextSetBit(0); ord >= 0; ord = result.nextSetBit(ord + 1)) {
+            double price = prices[ord];
+            double area = areas[ord];
+            boolean keep = price >= minPrice && price <= maxPrice && area >= minArea && area <= maxArea
+                    && (location == null || (addresses[ord] != null && addresses[ord].contains(location)));
+            if (!keep) {
+                result.clear(ord);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returnează ordinalul unui spațiu sau -1 dacă nu este indexat.
+     */
+    int ordinalOf(Long spaceId) {
+        Integer ordinal = ordinalById.get(spaceId);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    long idAt(int ordinal) {
+        return ids[ordinal];
+    }
+
+    double priceAt(int ordinal) {
+        return prices[ordinal];
+    }
+
+    double areaAt(int ordinal) {
+        return areas[ordinal];
+    }
+
+    /**
+     * Returnează bitmap-ul facilității date sau null dacă nu există în dicționar.
+     * Apelantul trebuie să dețină lock-ul de citire.
+     */
+    RoaringBitmap amenityBitmap(String amenity) {
+        Integer code = amenityDictionary.get(normalizeAmenity(amenity));
+        return code != null ? amenityBitmaps.get(code) : null;
+    }
+
+    /**
+     * Vocabularul facilităților, indexat după cod.
+     * Apelantul trebuie să dețină lock-ul de citire.
+     */
+    List<String> amenityVocabulary() {
+        return amenityVocabulary;
+    }
+
+    RoaringBitmap amenityBitmapAt(int code) {
+        return amenityBitmaps.get(code);
+    }
+
+    ReentrantReadWriteLock.ReadLock readLock() {
+        return lock.readLock();
+    }
+
+    /**
+     * Numărul de spații indexate.
+     *
+     * @return numărul de spații
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int allocateOrdinal() {
+        if (!freeOrdinals.isEmpty()) {
+            return freeOrdinals.pop();
+        }
+        if (size == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            areas = Arrays.copyOf(areas, capacity);
+            addresses = Arrays.copyOf(addresses, capacity);
+            amenityCodes = Arrays.copyOf(amenityCodes, capacity);
+            types = Arrays.copyOf(types, capacity);
+        }
+        return size++;
+    }
+
+    private void write(int ordinal, SpaceSnapshot space) {
+        clearBits(ordinal);
+        ids[ordinal] = space.getId();
+        prices[ordinal] = space.getPricePerMonth() != null ? space.getPricePerMonth() : 0.0;
+        areas[ordinal] = space.getArea() != null ? space.getArea() : 0.0;
+        addresses[ordinal] = space.getAddress() != null ? space.getAddress().toLowerCase(Locale.ROOT) : null;
+        types[ordinal] = space.getSpaceType();
+
+        live.set(ordinal);
+        available.set(ordinal, Boolean.TRUE.equals(space.getAvailable()));
+        furnished.set(ordinal, Boolean.TRUE.equals(space.getFurnished()));
+        airConditioning.set(ordinal, Boolean.TRUE.equals(space.getAirConditioning()));
+        parking.set(ordinal, space.hasParking());
+        if (space.getSpaceType() != null) {
+            byType.get(space.getSpaceType()).set(ordinal);
+        }
+
+        if (space.getAmenities() != null && !space.getAmenities().isEmpty()) {
+            int[] codes = space.getAmenities().stream()
+                    .filter(amenity -> amenity != null && !amenity.isBlank())
+                    .mapToInt(this::encodeAmenity)
+                    .distinct()
+                    .toArray();
+            for (int code : codes) {
+                amenityBitmaps.get(code).add(ordinal);
+            }
+            amenityCodes[ordinal] = codes;
+        }
+    }
+
+    private void clearBits(int ordinal) {
+        types[ordinal] = null;
+        live.clear(ordinal);
+        available.clear(ordinal);
+        furnished.clear(ordinal);
+        airConditioning.clear(ordinal);
+        parking.clear(ordinal);
+        byType.values().forEach(bits -> bits.clear(ordinal));
+        if (amenityCodes[ordinal] != null) {
+            for (int code : amenityCodes[ordinal]) {
+                amenityBitmaps.get(code).remove(ordinal);
+            }
+            amenityCodes[ordinal] = null;
+        }
+    }
+
+    private int encodeAmenity(String amenity) {
+        String key = normalizeAmenity(amenity);
+        Integer code = amenityDictionary.get(key);
+        if (code == null) {
+            code = amenityVocabulary.size();
+            amenityDictionary.put(key, code);
+            amenityVocabulary.add(key);
+            amenityBitmaps.add(new RoaringBitmap());
+        }
+        return code;
+    }
+
+    private static String normalizeAmenity(String amenity) {
+        return amenity.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Intersectează rezultatul cu bitmap-urile facilităților cerute, începând cu
+     * cea mai rară, ca mulțimea de candidați să scadă cât mai repede.
+     *
+     * @return false dacă una dintre facilități nu apare la niciun spațiu
+     */
+    private boolean applyAmenities(BitSet result, List<String> requiredAmenities) {
+        if (requiredAmenities == null || requiredAmenities.isEmpty()) {
+            return true;
+        }
+        List<RoaringBitmap> bitmaps = new ArrayList<>(requiredAmenities.size());
+        for (String amenity : requiredAmenities) {
+            if (amenity == null || amenity.isBlank()) {
+                continue;
+            }
+            RoaringBitmap bitmap = amenityBitmap(amenity);
+            if (bitmap == null || bitmap.isEmpty()) {
+                return false;
+            }
+            bitmaps.add(bitmap);
+        }
+        bitmaps.sort(Comparator.comparingInt(RoaringBitmap::cardinality));
+        for (RoaringBitmap bitmap : bitmaps) {
+            bitmap.andInto(result);
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    private static void applyFlag(BitSet result, BitSet flag, Boolean expected) {
+        if (expected == null) {
+            return;
+        }
+        if (expected) {
+            result.and(flag);
+        } else {
+            result.andNot(flag);
+        }
+    }
+
+    /**
+     * Numără toate fațetele într-o singură trecere peste ordinalele potrivite,
+     * folosind direct coloanele indexului.
+     */
+    private ComercialSpaceDTO.FacetsDTO countFacets(BitSet matches) {
+        long[] typeCounts = new long[TYPES.length];
+        long[] priceCounts = new long[PRICE_RANGES.length + 1];
+        long[] areaCounts = new long[AREA_RANGES.length + 1];
+        long[] amenityCounts = new long[amenityVocabulary.size()];
+        long availableCount = 0;
+        long total = 0;
+
+        for (int ord = matches.nextSetBit(0); ord >= 0; ord = matches.nextSetBit(ord + 1)) {
+            total++;
+            if (types[ord] != null) {
+                typeCounts[types[ord].ordinal()]++;
+            }
+            priceCounts[rangeOf(PRICE_RANGES, prices[ord])]++;
+            areaCounts[rangeOf(AREA_RANGES, areas[ord])]++;
+            if (available.get(ord)) {
+                availableCount++;
+            }
+            if (amenityCodes[ord] != null) {
+                for (int code : amenityCodes[ord]) {
+                    amenityCounts[code]++;
+                }
+            }
+        }
+
+        Map<SpaceType, Long> spaceTypes = new EnumMap<>(SpaceType.class);
+        for (SpaceType type : TYPES) {
+            if (typeCounts[type.ordinal()] > 0) {
+                spaceTypes.put(type, typeCounts[type.ordinal()]);
+            }
+        }
+
+        // Facilitățile sunt ordonate descrescător după număr, cele mai frecvente primele
+        List<Integer> amenityOrder = new ArrayList<>();
+        for (int code = 0; code < amenityCounts.length; code++) {
+            if (amenityCounts[code] > 0) {
+                amenityOrder.add(code);
+            }
+        }
+        amenityOrder.sort((a, b) -> Long.compare(amenityCounts[b], amenityCounts[a]));
+        Map<String, Long> amenities = new LinkedHashMap<>();
+        for (int code : amenityOrder) {
+            amenities.put(amenityVocabulary.get(code), amenityCounts[code]);
+        }
+
+        return ComercialSpaceDTO.FacetsDTO.builder()
+                .spaceTypes(spaceTypes)
+                .priceRanges(rangeCounts(PRICE_RANGE_LABELS, priceCounts))
+                .areaRanges(rangeCounts(AREA_RANGE_LABELS, areaCounts))
+                .amenities(amenities)
+                .available(availableCount)
+                .unavailable(total - availableCount)
+                .build();
+    }
+
+    private static int rangeOf(double[] limits, double value) {
+        int i = 0;
+        while (i < limits.length && value >= limits[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private static Map<String, Long> rangeCounts(String[] labels, long[] counts) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < labels.length; i++) {
+            result.put(labels[i], counts[i]);
+        }
+        return result;
+    }
+
+    private static String[] rangeLabels(double[] limits) {
+        String[] labels = new String[limits.length + 1];
+        double lower = 0;
+        for (int i = 0; i < limits.length; i++) {
+            labels[i] = (long) lower + "-" + (long) limits[i];
+            lower = limits[i];
+        }
+        labels[limits.length] = (long) lower + "+";
+        return labels;
+    }
+
+    private double[] sortKey(ComercialSpaceDTO.SearchDTO criteria) {
+        String sortBy = criteria.getSortBy();
+        if ("price".equalsIgnoreCase(sortBy)) {
+            return prices;
+        }
+        if ("area".equalsIgnoreCase(sortBy)) {
+            return areas;
+        }
+        if ("pricePerSqm".equalsIgnoreCase(sortBy)) {
+            double[] key = new double[size];
+            for (int i = 0; i < size; i++) {
+                key[i] = areas[i] > 0 ? prices[i] / areas[i] : 0.0;
+            }
+            return key;
+        }
+        return null;
+    }
+
+    /**
+     * Sortează ordinalele după coloana dată (sau după ID), fără boxing.
+     */
+    private void sort(int[] ordinals, double[] key, boolean descending) {
+        quickSort(ordinals, 0, ordinals.length - 1, key, descending);
+    }
+
+    private void quickSort(int[] a, int lo, int hi, double[] key, boolean desc) {
+        while (lo < hi) {
+            if (hi - lo < 16) {
+                for (int i = lo + 1; i <= hi; i++) {
+                    int v = a[i];
+                    int j = i - 1;
+                    while (j >= lo && compare(a[j], v, key, desc) > 0) {
+                        a[j + 1] = a[j];
+                        j--;
+                    }
+                    a[j + 1] = v;
+                }
+                return;
+            }
+            int pivot = a[(lo + hi) >>> 1];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (compare(a[i], pivot, key, desc) < 0) i++;
+                while (compare(a[j], pivot, key, desc) > 0) j--;
+                if (i <= j) {
+                    int tmp = a[i];
+                    a[i] = a[j];
+                    a[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            // Recursivitate pe partea mai mică pentru a limita adâncimea stivei
+            if (j - lo < hi - i) {
+                quickSort(a, lo, j, key, desc);
+                lo = i;
+            } else {
+                quickSort(a, i, hi, key, desc);
+                hi = j;
+            }
+        }
+    }
+
+    private int compare(int a, int b, double[] key, boolean desc) {
+        int cmp = key != null ? Double.compare(key[a], key[b]) : 0;
+        if (cmp == 0) {
+            cmp = Long.compare(ids[a], ids[b]);
+        }
+        return desc ? -cmp : cmp;
+    }
+}
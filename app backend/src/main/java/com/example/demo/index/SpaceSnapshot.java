@@ -0,0 +1,108 @@
+package com.example.demo.index;
+
+import com.example.demo.constants.SpaceType;
+import com.example.demo.model.Building;
+import com.example.demo.model.ComercialSpace;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Copie imutabilă a câmpurilor unui spațiu de care au nevoie indexurile din memorie.
+ *
+ * Este luată cât timp entitatea este încă atașată sesiunii (înainte de commit, sau în
+ * bucla de reconstruire), așa că ascultătorii rulați după commit nu ating niciodată
+ * asocieri leneșe (facilități, clădire) fără sesiune.
+ */
+@Getter
+public final class SpaceSnapshot {
+
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final String address;
+    private final Double latitude;
+    private final Double longitude;
+    /** Coordonatele clădirii, folosite când spațiul nu are coordonate proprii */
+    private final Double buildingLatitude;
+    private final Double buildingLongitude;
+    private final Double pricePerMonth;
+    private final Double area;
+    private final SpaceType spaceType;
+    private final Boolean available;
+    private final Boolean furnished;
+    private final Boolean airConditioning;
+    @Getter(AccessLevel.NONE)
+    private final boolean parking;
+    private final List<String> amenities;
+
+    private SpaceSnapshot(ComercialSpace space, List<String> amenities, Double buildingLatitude, Double buildingLongitude) {
+        this.id = space.getId();
+        this.name = space.getName();
+        this.description = space.getDescription();
+        this.address = space.getAddress();
+        this.latitude = space.getLatitude();
+        this.longitude = space.getLongitude();
+        this.buildingLatitude = buildingLatitude;
+        this.buildingLongitude = buildingLongitude;
+        this.pricePerMonth = space.getPricePerMonth();
+        this.area = space.getArea();
+        this.spaceType = space.getSpaceType();
+        this.available = space.getAvailable();
+        this.furnished = space.getFurnished();
+        this.airConditioning = space.getAirConditioning();
+        // Owning side of the relation: a lazy proxy is enough, nothing is loaded
+        this.parking = space.getParking() != null;
+        this.amenities = amenities != null ? Collections.unmodifiableList(new ArrayList<>(amenities)) : List.of();
+    }
+
+    /**
+     * Copie a unui spațiu atașat sesiunii; încarcă facilitățile și clădirea dacă sunt leneșe.
+     *
+     * @param space spațiul salvat
+     * @return copia
+     */
+    public static SpaceSnapshot of(ComercialSpace space) {
+        Building building = space.hasCoordinates() ? null : space.getBuilding();
+        return new SpaceSnapshot(space, space.getAmenities(),
+                building != null ? building.getLatitude() : null,
+                building != null ? building.getLongitude() : null);
+    }
+
+    /**
+     * Copie a unui spațiu cu facilitățile și coordonatele clădirii încărcate separat
+     * (pentru un lot întreg, la reconstruire).
+     *
+     * @param space spațiul
+     * @param amenities facilitățile lui
+     * @param buildingCoordinates [latitudine, longitudine] ale clădirii, sau null
+     * @return copia
+     */
+    public static SpaceSnapshot of(ComercialSpace space, List<String> amenities, Double[] buildingCoordinates) {
+        return new SpaceSnapshot(space, amenities,
+                buildingCoordinates != null ? buildingCoordinates[0] : null,
+                buildingCoordinates != null ? buildingCoordinates[1] : null);
+    }
+
+    public boolean hasCoordinates() {
+        return latitude != null && longitude != null;
+    }
+
+    public boolean hasBuildingCoordinates() {
+        return buildingLatitude != null && buildingLongitude != null;
+    }
+
+    public boolean hasParking() {
+        return parking;
+    }
+
+    /**
+     * Prețul pe metru pătrat, calculat ca în ComercialSpace.
+     */
+    public double calculatePricePerSquareMeter() {
+        return area != null && area > 0 ? pricePerMonth / area : 0.0;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.demo.index;
+
+import com.example.demo.model.Building;
+import com.example.demo.repository.BuildingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Index spațial din memorie pentru spațiile comerciale și clădiri.
+ *
+ * Înlocuiește interogările BETWEEN pe latitudine/longitudine (findSpacesInArea,
+ * findBuildingsInArea) cu o grilă geografică, și oferă căutarea celor mai
+ * apropiate K spații sau clădiri față de un punct.
+ *
+ * Spațiile fără coordonate proprii sunt poziționate la coordonatele clădirii.
+ */
+@Component
+public class SpatialIndex implements SpaceChangeListener {
+
+    /** Latura unei celule: 0.05 grade, aproximativ 5.5 km pe latitudine. */
+    private static final double CELL_SIZE_DEGREES = 0.05;
+
+    private final BuildingRepository buildingRepository;
+    private final GeoGrid spaces = new GeoGrid(CELL_SIZE_DEGREES);
+    private final GeoGrid buildings = new GeoGrid(CELL_SIZE_DEGREES);
+
+    @Autowired
+    public SpatialIndex(BuildingRepository buildingRepository) {
+        this.buildingRepository = buildingRepository;
+    }
+
+    @Override
+    public void onSpaceSaved(SpaceSnapshot space) {
+        Double latitude = space.getLatitude();
+        Double longitude = space.getLongitude();
+        if (!space.hasCoordinates() && space.hasBuildingCoordinates()) {
+            latitude = space.getBuildingLatitude();
+            longitude = space.getBuildingLongitude();
+        }
+        spaces.put(space.getId(), latitude, longitude);
+    }
+
+    @Override
+    public void onSpaceDeleted(Long spaceId) {
+        spaces.remove(spaceId);
+    }
+
+    @Override
+    public void clear() {
+        spaces.clear();
+    }
+
+    /**
+     * Încarcă clădirile existente la pornirea aplicației.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadBuildings() {
+        buildings.clear();
+        buildingRepository.findAll().forEach(this::onBuildingSaved);
+    }
+
+    /**
+     * Actualizează poziția unei clădiri în index.
+     *
+     * @param building clădirea salvată
+     */
+    public void onBuildingSaved(Building building) {
+        if (building != null && building.getId() != null) {
+            buildings.put(building.getId(), building.getLatitude(), building.getLongitude());
+        }
+    }
+
+    /**
+     * Elimină o clădire din index.
+     *
+     * @param buildingId ID-ul clădirii șterse
+     */
+    public void onBuildingDeleted(Long buildingId) {
+        if (buildingId != null) {
+            buildings.remove(buildingId);
+        }
+    }
+
+    /**
+     * Caută ID-urile spațiilor din zona vizibilă pe hartă.
+     */
+    public List<Long> findSpacesInArea(double minLat, double maxLat, double minLng, double maxLng, int limit) {
+        return spaces.withinBox(minLat, maxLat, minLng, maxLng, limit);
+    }
+
+    /**
+     * Caută cele mai apropiate k spații de punctul dat, ordonate după distanță.
+     */
+    public List<GeoGrid.Hit> findNearestSpaces(double latitude, double longitude, int k) {
+        return spaces.nearest(latitude, longitude, k);
+    }
+
+    /**
+     * Caută ID-urile clădirilor din zona vizibilă pe hartă.
+     */
+    public List<Long> findBuildingsInArea(double minLat, double maxLat, double minLng, double maxLng, int limit) {
+        return buildings.withinBox(minLat, maxLat, minLng, maxLng, limit);
+    }
+
+    /**
+     * Caută cele mai apropiate k clădiri de punctul dat, ordonate după distanță.
+     */
+    public List<GeoGrid.Hit> findNearestBuildings(double latitude, double longitude, int k) {
+        return buildings.nearest(latitude, longitude, k);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.model;
 
+import com.example.demo.constants.IdGeneration;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
@@ -26,18 +27,20 @@ import java.util.List;
  * - Open/Closed: poate fi extinsă cu noi proprietăți fără modificare
  */
 @Entity
-@Table(name = "buildings")
+@Table(name = "buildings", indexes = {
+        @Index(name = "idx_building_name", columnList = "name")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @ToString(exclude = {"spaces"}) // Excludem lista pentru a evita referințele circulare
-@EqualsAndHashCode(of = {"id", "name", "address"})
-public class Building {
+@EqualsAndHashCode(callSuper = false, of = {"id", "name", "address"})
+public class Building extends PooledIdEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGeneration.GENERATOR)
     @Column(name = "id")
     private Long id;
 
@@ -1,6 +1,7 @@
 package com.example.demo.model;
 
 import jakarta.persistence.*;
+import com.example.demo.constants.IdGeneration;
 import com.example.demo.constants.SpaceType;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -42,11 +43,11 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @ToString(exclude = {"contracts", "amenities"}) // Excludem colecțiile pentru a evita referințele circulare
-@EqualsAndHashCode(of = {"id", "name"})
-public class ComercialSpace {
+@EqualsAndHashCode(callSuper = false, of = {"id", "name"})
+public class ComercialSpace extends PooledIdEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGeneration.GENERATOR)
     @Column(name = "id")
     private Long id;
 
@@ -79,6 +80,13 @@ public class ComercialSpace {
     @Column(name = "longitude", precision = 10, scale = 6)
     private Double longitude;
 
+    // Valori derivate, persistate pentru proiecțiile SQL (ListDTO, scorul de calitate)
+    @Column(name = "price_per_sqm", precision = 10, scale = 2)
+    private Double pricePerSquareMeter;
+
+    @Column(name = "amenity_count")
+    private Integer amenityCount;
+
     @NotNull(message = "Tipul spațiului este obligatoriu")
     @Enumerated(EnumType.STRING)
     @Column(name = "space_type", nullable = false)
@@ -258,6 +266,7 @@ public class ComercialSpace {
         if (!amenities.contains(amenity)) {
             amenities.add(amenity);
         }
+        this.amenityCount = amenities.size();
     }
 
     /**
@@ -269,6 +278,18 @@ public class ComercialSpace {
         if (amenities != null) {
             amenities.remove(amenity);
         }
+        this.amenityCount = amenities != null ? amenities.size() : 0;
+    }
+
+    /**
+     * Setează facilitățile și actualizează amenity_count.
+     * Necesar deoarece @PreUpdate nu rulează când se modifică doar colecția de facilități.
+     *
+     * @param amenities lista de facilități
+     */
+    public void setAmenities(List<String> amenities) {
+        this.amenities = amenities;
+        this.amenityCount = amenities != null ? amenities.size() : 0;
     }
 
     /**
@@ -298,10 +319,21 @@ public class ComercialSpace {
      *
      * @return prețul pe metru pătrat
      */
-    public double getPricePerSquareMeter() {
+    public double calculatePricePerSquareMeter() {
         return area != null && area > 0 ? pricePerMonth / area : 0.0;
     }
 
+    /**
+     * Metoda executată înainte de salvarea entității.
+     * Recalculează coloanele derivate folosite de clasamente.
+     */
+    @PrePersist
+    @PreUpdate
+    public void updateDerivedColumns() {
+        this.pricePerSquareMeter = pricePerMonth != null ? calculatePricePerSquareMeter() : null;
+        this.amenityCount = amenities != null ? amenities.size() : 0;
+    }
+
     /**
      * Verifică dacă spațiul are coordonate geografice.
      *
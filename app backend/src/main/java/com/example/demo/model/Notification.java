@@ -1,5 +1,8 @@
 package com.example.demo.model;
 
+import com.example.demo.util.SnowflakeIdGenerator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.LocalDateTime;
 
 public class Notification {
@@ -9,10 +12,17 @@ public class Notification {
     private LocalDateTime timestamp;
     private Object data;
     private String recipientId;
+    // Position in the recipient's inbox; set only for notifications addressed to a single user
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long sequence;
+    // Inbox generation the sequence belongs to; a new epoch restarts the sequence at 1
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long epoch;
 
     public Notification() {
         this.timestamp = LocalDateTime.now();
-        this.id = java.util.UUID.randomUUID().toString();
+        // Time-ordered numeric ID: shorter than a UUID and sent as a plain number in binary encodings
+        this.id = Long.toString(SnowflakeIdGenerator.notifications().nextId());
     }
 
     public Notification(String type, String message, Object data, String recipientId) {
@@ -23,6 +33,17 @@ public class Notification {
         this.recipientId = recipientId;
     }
 
+    /**
+     * Copie cu același ID și conținut, dar fără secvență și epocă: numerotarea
+     * inbox-ului este privată destinatarului și nu pleacă pe topicuri comune.
+     */
+    public Notification withoutSequence() {
+        Notification copy = new Notification(type, message, data, recipientId);
+        copy.id = id;
+        copy.timestamp = timestamp;
+        return copy;
+    }
+
     // Getters and setters
     public String getId() {
         return id;
@@ -71,4 +92,20 @@ public class Notification {
     public void setRecipientId(String recipientId) {
         this.recipientId = recipientId;
     }
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+
+    public Long getEpoch() {
+        return epoch;
+    }
+
+    public void setEpoch(Long epoch) {
+        this.epoch = epoch;
+    }
 }
\ No newline at end of file
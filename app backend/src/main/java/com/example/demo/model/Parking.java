@@ -1,5 +1,6 @@
 package com.example.demo.model;
 
+import com.example.demo.constants.IdGeneration;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
@@ -30,11 +31,11 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @ToString(exclude = {"space"}) // Excludem referința pentru a evita referințele circulare
-@EqualsAndHashCode(of = {"id"})
-public class Parking {
+@EqualsAndHashCode(callSuper = false, of = {"id"})
+public class Parking extends PooledIdEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGeneration.GENERATOR)
     @Column(name = "id")
     private Long id;
 
@@ -55,7 +56,8 @@ public class Parking {
     @Column(name = "parking_type")
     private ParkingType parkingType;
 
-    @Column(name = "reserved_spots")
+    // Scris doar de ParkingReservationService (write-behind prin JDBC), deci un merge JPA nu suprascrie registrul
+    @Column(name = "reserved_spots", updatable = false)
     @Builder.Default
     private Integer reservedSpots = 0;
 
@@ -208,34 +210,4 @@ public class Parking {
 
         return Math.min(100, score);
     }
-
-    /**
-     * Rezervă un număr de locuri de parcare.
-     *
-     * @param spotsToReserve numărul de locuri de rezervat
-     * @return true dacă rezervarea a fost posibilă
-     */
-    public boolean reserveSpots(int spotsToReserve) {
-        if (spotsToReserve <= 0 || spotsToReserve > getAvailableSpots()) {
-            return false;
-        }
-
-        this.reservedSpots = (this.reservedSpots == null ? 0 : this.reservedSpots) + spotsToReserve;
-        return true;
-    }
-
-    /**
-     * Eliberează un număr de locuri de parcare rezervate.
-     *
-     * @param spotsToRelease numărul de locuri de eliberat
-     * @return true dacă eliberarea a fost posibilă
-     */
-    public boolean releaseSpots(int spotsToRelease) {
-        if (spotsToRelease <= 0 || this.reservedSpots == null || spotsToRelease > this.reservedSpots) {
-            return false;
-        }
-
-        this.reservedSpots -= spotsToRelease;
-        return true;
-    }
 }
\ No newline at end of file
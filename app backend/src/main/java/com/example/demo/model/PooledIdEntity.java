@@ -0,0 +1,24 @@
+package com.example.demo.model;
+
+import com.example.demo.constants.IdGeneration;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.TableGenerator;
+
+/**
+ * Superclasa entităților care primesc ID-uri din generatorul comun de tip tabel.
+ *
+ * Declară o singură dată generatorul IdGeneration.GENERATOR, pentru ca toate
+ * entitățile să folosească aceeași definiție. Nu conține câmpuri: fiecare entitate
+ * își păstrează câmpul id și îl leagă de generator prin @GeneratedValue.
+ */
+@MappedSuperclass
+@TableGenerator(
+        name = IdGeneration.GENERATOR,
+        table = IdGeneration.TABLE,
+        pkColumnName = IdGeneration.NAME_COLUMN,
+        valueColumnName = IdGeneration.VALUE_COLUMN,
+        pkColumnValue = IdGeneration.SEGMENT,
+        allocationSize = IdGeneration.BLOCK_SIZE
+)
+public abstract class PooledIdEntity {
+}
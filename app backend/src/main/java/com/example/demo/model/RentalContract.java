@@ -1,5 +1,7 @@
 package com.example.demo.model;
 
+import com.example.demo.constants.IdGeneration;
+import com.example.demo.util.ContractNumberGenerator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -11,7 +13,6 @@ import org.springframework.format.annotation.DateTimeFormat;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 /**
  * Entitatea RentalContract - reprezintă un contract de închiriere între un proprietar și un chiriaș.
@@ -40,11 +41,11 @@ import java.util.UUID;
 @AllArgsConstructor
 @Builder
 @ToString(exclude = {"space", "tenant"}) // Excludem referințele pentru a evita referințele circulare
-@EqualsAndHashCode(of = {"id", "contractNumber"})
-public class RentalContract {
+@EqualsAndHashCode(callSuper = false, of = {"id", "contractNumber"})
+public class RentalContract extends PooledIdEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGeneration.GENERATOR)
     @Column(name = "id")
     private Long id;
 
@@ -212,9 +213,7 @@ public class RentalContract {
      * Generează un număr unic pentru contract.
      */
     private void generateContractNumber() {
-        String timestamp = String.valueOf(System.currentTimeMillis());
-        String uuid = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        this.contractNumber = "RENT-" + timestamp + "-" + uuid;
+        this.contractNumber = ContractNumberGenerator.getInstance().nextContractNumber();
     }
 
     /**
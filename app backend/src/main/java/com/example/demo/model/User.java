@@ -1,5 +1,6 @@
 package com.example.demo.model;
 
+import com.example.demo.constants.IdGeneration;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -22,7 +23,9 @@ import java.time.LocalDateTime;
  * - Liskov Substitution: subclasele pot fi folosite în locul acestei clase
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_user_name", columnList = "name")
+})
 @Inheritance(strategy = InheritanceType.JOINED)
 @DiscriminatorColumn(name = "user_type", discriminatorType = DiscriminatorType.STRING)
 @Getter
@@ -31,11 +34,11 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @ToString(exclude = {"password"}) // Excludem parola din toString pentru securitate
-@EqualsAndHashCode(of = {"id", "username"}) // Folosim doar câmpurile unice pentru equals/hashCode
-public class User {
+@EqualsAndHashCode(callSuper = false, of = {"id", "username"}) // Folosim doar câmpurile unice pentru equals/hashCode
+public class User extends PooledIdEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGeneration.GENERATOR)
     @Column(name = "id")
     private Long id;
 
@@ -1,6 +1,7 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.Building;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -275,4 +276,53 @@ public interface BuildingRepository extends JpaRepository<Building, Long> {
      */
     @Query("SELECT AVG(b.yearBuilt) FROM Building b WHERE b.yearBuilt IS NOT NULL")
     Double getAverageYearBuilt();
-}
\ No newline at end of file
+
+    /**
+     * Paginare keyset după ID: prima pagină.
+     *
+     * @param pageable numărul maxim de rezultate
+     * @return clădirile ordonate după ID
+     */
+    List<Building> findAllByOrderByIdAsc(Pageable pageable);
+
+    /**
+     * Paginare keyset după ID: pagina care urmează după ultimul ID trimis.
+     *
+     * @param id ultimul ID din pagina anterioară
+     * @param pageable numărul maxim de rezultate
+     * @return clădirile cu ID mai mare, ordonate după ID
+     */
+    List<Building> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Paginare keyset după nume: prima pagină.
+     *
+     * @param pageable numărul maxim de rezultate
+     * @return clădirile ordonate după nume, apoi după ID
+     */
+    List<Building> findAllByOrderByNameAscIdAsc(Pageable pageable);
+
+    /**
+     * Paginare keyset după nume: pagina care urmează după perechea (nume, ID) trimisă.
+     *
+     * @param name numele ultimului element din pagina anterioară
+     * @param id ID-ul ultimului element din pagina anterioară
+     * @param pageable numărul maxim de rezultate
+     * @return clădirile următoare, ordonate după nume, apoi după ID
+     */
+    @Query("SELECT b FROM Building b WHERE b.name > :name " +
+            "OR (b.name = :name AND b.id > :id) ORDER BY b.name ASC, b.id ASC")
+    List<Building> findPageAfterName(@Param("name") String name,
+                                  @Param("id") Long id,
+                                  Pageable pageable);
+
+    /**
+     * Datele minime ale tuturor clădirilor (ID, nume, latitudine, longitudine),
+     * folosite ca tabel de căutare în memorie la importul în masă al spațiilor.
+     *
+     * @return rânduri [id, name, latitude, longitude]
+     */
+    @Query("SELECT b.id, b.name, b.latitude, b.longitude FROM Building b")
+    List<Object[]> findLookupRows();
+
+}
@@ -2,11 +2,17 @@ package com.example.demo.repository;
 
 import com.example.demo.model.ComercialSpace;
 import com.example.demo.constants.SpaceType;
+import com.example.demo.dto.ComercialSpaceDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -22,6 +28,47 @@ import java.util.List;
 @Repository
 public interface ComercialSpaceRepository extends JpaRepository<ComercialSpace, Long> {
 
+    /**
+     * Scorul de calitate calculat în SQL, după aceleași reguli ca ComercialSpaceDTO.getQualityScore(),
+     * fără a încărca parcarea sau facilitățile (folosește coloana amenity_count).
+     */
+    String QUALITY_SCORE = "LEAST(100, 50" +
+            " + CASE WHEN s.furnished = true THEN 10 ELSE 0 END" +
+            " + CASE WHEN s.airConditioning = true THEN 10 ELSE 0 END" +
+            " + CASE WHEN s.heating = true THEN 5 ELSE 0 END" +
+            " + CASE WHEN s.internetReady = true THEN 10 ELSE 0 END" +
+            " + CASE WHEN s.kitchenFacilities = true THEN 5 ELSE 0 END" +
+            " + CASE WHEN s.parking IS NOT NULL THEN 10 ELSE 0 END" +
+            " + LEAST(COALESCE(s.amenityCount, 0) * 2, 20))";
+
+    /**
+     * Proiecția pentru ListDTO: doar coloanele afișate în liste, cu proprietarul și clădirea prin LEFT JOIN.
+     */
+    String LIST_PROJECTION = "SELECT new com.example.demo.dto.ComercialSpaceDTO$ListDTO(" +
+            "s.id, s.name, s.area, s.pricePerMonth, s.pricePerSquareMeter, s.spaceType, s.available, " +
+            "o.name, b.name, s.address, CASE WHEN s.parking IS NOT NULL THEN true ELSE false END, " +
+            QUALITY_SCORE + ") " +
+            "FROM ComercialSpace s LEFT JOIN s.owner o LEFT JOIN s.building b ";
+
+    /**
+     * Proiecția pentru MapDTO (distanța este completată de apelant pentru căutările de proximitate).
+     */
+    String MAP_PROJECTION = "SELECT new com.example.demo.dto.ComercialSpaceDTO$MapDTO(" +
+            "s.id, s.name, s.area, s.pricePerMonth, s.latitude, s.longitude, s.spaceType, s.available, " +
+            "b.name, s.address, " + QUALITY_SCORE + ", CAST(NULL AS Double)) " +
+            "FROM ComercialSpace s LEFT JOIN s.building b ";
+
+    /**
+     * Proiecția pentru SummaryDTO: indicatorul de contract activ și data ultimului contract
+     * sunt agregate prin subinterogări, fără a încărca lista de contracte.
+     */
+    String SUMMARY_PROJECTION = "SELECT new com.example.demo.dto.ComercialSpaceDTO$SummaryDTO(" +
+            "s.id, s.name, s.area, s.pricePerMonth, s.spaceType, s.available, s.address, " +
+            "CASE WHEN EXISTS (SELECT 1 FROM RentalContract c WHERE c.space = s AND c.status = 'ACTIVE') " +
+            "THEN true ELSE false END, " +
+            "(SELECT MAX(c.createdAt) FROM RentalContract c WHERE c.space = s)) " +
+            "FROM ComercialSpace s ";
+
     /**
      * Caută spații comerciale disponibile.
      *
@@ -54,6 +101,42 @@ public interface ComercialSpaceRepository extends JpaRepository<ComercialSpace,
      */
     List<ComercialSpace> findByBuildingId(Long buildingId);
 
+    /**
+     * Caută paginat spații comerciale după disponibilitate (folosește idx_space_available).
+     *
+     * @param available statusul de disponibilitate
+     * @param pageable informațiile de paginare
+     * @return pagina de spații cu statusul specificat
+     */
+    Page<ComercialSpace> findByAvailable(Boolean available, Pageable pageable);
+
+    /**
+     * Caută paginat spații comerciale după tip (folosește idx_space_type).
+     *
+     * @param spaceType tipul de spațiu căutat
+     * @param pageable informațiile de paginare
+     * @return pagina de spații de tipul specificat
+     */
+    Page<ComercialSpace> findBySpaceType(SpaceType spaceType, Pageable pageable);
+
+    /**
+     * Caută paginat spații comerciale după proprietar (folosește idx_space_owner).
+     *
+     * @param ownerId ID-ul proprietarului
+     * @param pageable informațiile de paginare
+     * @return pagina de spații ale proprietarului specificat
+     */
+    Page<ComercialSpace> findByOwnerId(Long ownerId, Pageable pageable);
+
+    /**
+     * Caută paginat spații comerciale după clădire (folosește idx_space_building).
+     *
+     * @param buildingId ID-ul clădirii
+     * @param pageable informațiile de paginare
+     * @return pagina de spații din clădirea specificată
+     */
+    Page<ComercialSpace> findByBuildingId(Long buildingId, Pageable pageable);
+
     /**
      * Caută spații comerciale în intervalul de preț specificat.
      *
@@ -170,24 +253,6 @@ public interface ComercialSpaceRepository extends JpaRepository<ComercialSpace,
                                               @Param("maxArea") Double maxArea,
                                               @Param("available") Boolean available);
 
-    /**
-     * Caută spațiile cu cel mai mare preț pe metru pătrat.
-     *
-     * @param limit numărul maxim de rezultate
-     * @return lista spațiilor ordonată după prețul pe mp
-     */
-    @Query("SELECT s FROM ComercialSpace s ORDER BY (s.pricePerMonth / s.area) DESC")
-    List<ComercialSpace> findSpacesWithHighestPricePerSquareMeter(@Param("limit") int limit);
-
-    /**
-     * Caută spațiile cu cel mai mic preț pe metru pătrat.
-     *
-     * @param limit numărul maxim de rezultate
-     * @return lista spațiilor ordonată după prețul pe mp (crescător)
-     */
-    @Query("SELECT s FROM ComercialSpace s ORDER BY (s.pricePerMonth / s.area) ASC")
-    List<ComercialSpace> findSpacesWithLowestPricePerSquareMeter(@Param("limit") int limit);
-
     /**
      * Caută spații comerciale într-o anumită zonă geografică.
      *
@@ -249,13 +314,40 @@ public interface ComercialSpaceRepository extends JpaRepository<ComercialSpace,
     List<ComercialSpace> findSpacesByAmenity(@Param("amenity") String amenity);
 
     /**
-     * Caută spațiile cu cele mai multe facilități.
+     * Completează prețul pe mp pentru rândurile salvate înainte de apariția coloanei.
      *
-     * @param limit numărul maxim de rezultate
-     * @return lista spațiilor ordonată după numărul de facilități
+     * @return numărul de rânduri actualizate
      */
-    @Query("SELECT s FROM ComercialSpace s ORDER BY SIZE(s.amenities) DESC")
-    List<ComercialSpace> findSpacesWithMostAmenities(@Param("limit") int limit);
+    @Modifying
+    @Transactional
+    @Query("UPDATE ComercialSpace s SET s.pricePerSquareMeter = s.pricePerMonth / s.area " +
+            "WHERE s.pricePerSquareMeter IS NULL AND s.area > 0")
+    int backfillPricePerSquareMeter();
+
+    /**
+     * Completează numărul de facilități pentru rândurile salvate înainte de apariția coloanei.
+     *
+     * @return numărul de rânduri actualizate
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ComercialSpace s SET s.amenityCount = SIZE(s.amenities) WHERE s.amenityCount IS NULL")
+    int backfillAmenityCount();
+
+    /**
+     * Rezervă atomic un spațiu: îl marchează ca indisponibil doar dacă este încă disponibil.
+     *
+     * Verificarea și scrierea se fac într-o singură instrucțiune UPDATE, deci din mai multe
+     * rezervări simultane pentru același spațiu exact una actualizează rândul.
+     *
+     * @param id ID-ul spațiului
+     * @return 1 dacă rezervarea a reușit, 0 dacă spațiul nu există sau era deja ocupat
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE ComercialSpace s SET s.available = false, s.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE s.id = :id AND s.available = true")
+    int reserveIfAvailable(@Param("id") Long id);
 
     /**
      * Statistici - prețul mediu per metru pătrat.
@@ -283,4 +375,134 @@ public interface ComercialSpaceRepository extends JpaRepository<ComercialSpace,
             "WHERE c.status = 'ACTIVE' AND c.endDate <= CURRENT_DATE + :daysUntilExpiration")
     List<ComercialSpace> findSpacesWithExpiringContracts(@Param("daysUntilExpiration") int daysUntilExpiration);
 
-}
\ No newline at end of file
+    /**
+     * Paginare keyset după ID: prima pagină.
+     *
+     * @param pageable numărul maxim de rezultate
+     * @return spațiile ordonate după ID
+     */
+    List<ComercialSpace> findAllByOrderByIdAsc(Pageable pageable);
+
+    /**
+     * Paginare keyset după ID: pagina care urmează după ultimul ID trimis.
+     *
+     * @param id ultimul ID din pagina anterioară
+     * @param pageable numărul maxim de rezultate
+     * @return spațiile cu ID mai mare, ordonate după ID
+     */
+    List<ComercialSpace> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Paginare keyset după preț: prima pagină.
+     *
+     * @param pageable numărul maxim de rezultate
+     * @return spațiile ordonate după preț, apoi după ID
+     */
+    List<ComercialSpace> findAllByOrderByPricePerMonthAscIdAsc(Pageable pageable);
+
+    /**
+     * Paginare keyset după preț: pagina care urmează după perechea (preț, ID) trimisă.
+     * Folosește indexul idx_space_price (InnoDB adaugă implicit cheia primară la index).
+     *
+     * @param price prețul ultimului spațiu din pagina anterioară
+     * @param id ID-ul ultimului spațiu din pagina anterioară
+     * @param pageable numărul maxim de rezultate
+     * @return spațiile următoare, ordonate după preț, apoi după ID
+     */
+    @Query("SELECT s FROM ComercialSpace s WHERE s.pricePerMonth > :price " +
+            "OR (s.pricePerMonth = :price AND s.id > :id) ORDER BY s.pricePerMonth ASC, s.id ASC")
+    List<ComercialSpace> findPageAfterPrice(@Param("price") Double price,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+
+    /**
+     * Încarcă facilitățile unui grup de spații într-o singură interogare.
+     *
+     * @param ids ID-urile spațiilor
+     * @return perechi [ID spațiu, facilitate]
+     */
+    @Query("SELECT s.id, a FROM ComercialSpace s JOIN s.amenities a WHERE s.id IN :ids")
+    List<Object[]> findAmenitiesBySpaceIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Încarcă coordonatele clădirilor unui grup de spații într-o singură interogare.
+     *
+     * @param ids ID-urile spațiilor
+     * @return triplete [ID spațiu, latitudine, longitudine] ale clădirii
+     */
+    @Query("SELECT s.id, b.latitude, b.longitude FROM ComercialSpace s JOIN s.building b WHERE s.id IN :ids")
+    List<Object[]> findBuildingCoordinatesBySpaceIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Pagină de ListDTO pentru spațiile disponibile (sau indisponibile), într-o singură interogare.
+     *
+     * @param available statusul de disponibilitate
+     * @param pageable pagina cerută
+     * @return pagina de ListDTO
+     */
+    @Query(value = LIST_PROJECTION + "WHERE s.available = :available",
+            countQuery = "SELECT COUNT(s) FROM ComercialSpace s WHERE s.available = :available")
+    Page<ComercialSpaceDTO.ListDTO> findListByAvailable(@Param("available") Boolean available, Pageable pageable);
+
+    /**
+     * Pagină de ListDTO pentru un tip de spațiu, într-o singură interogare.
+     *
+     * @param spaceType tipul de spațiu
+     * @param pageable pagina cerută
+     * @return pagina de ListDTO
+     */
+    @Query(value = LIST_PROJECTION + "WHERE s.spaceType = :spaceType",
+            countQuery = "SELECT COUNT(s) FROM ComercialSpace s WHERE s.spaceType = :spaceType")
+    Page<ComercialSpaceDTO.ListDTO> findListBySpaceType(@Param("spaceType") SpaceType spaceType, Pageable pageable);
+
+    /**
+     * Pagină de ListDTO pentru spațiile unui proprietar, într-o singură interogare.
+     *
+     * @param ownerId ID-ul proprietarului
+     * @param pageable pagina cerută
+     * @return pagina de ListDTO
+     */
+    @Query(value = LIST_PROJECTION + "WHERE s.owner.id = :ownerId",
+            countQuery = "SELECT COUNT(s) FROM ComercialSpace s WHERE s.owner.id = :ownerId")
+    Page<ComercialSpaceDTO.ListDTO> findListByOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    /**
+     * Pagină de ListDTO pentru spațiile dintr-o clădire, într-o singură interogare.
+     *
+     * @param buildingId ID-ul clădirii
+     * @param pageable pagina cerută
+     * @return pagina de ListDTO
+     */
+    @Query(value = LIST_PROJECTION + "WHERE s.building.id = :buildingId",
+            countQuery = "SELECT COUNT(s) FROM ComercialSpace s WHERE s.building.id = :buildingId")
+    Page<ComercialSpaceDTO.ListDTO> findListByBuildingId(@Param("buildingId") Long buildingId, Pageable pageable);
+
+    /**
+     * MapDTO-uri pentru un set de ID-uri (rezultatul unui index spațial), într-o singură interogare.
+     *
+     * @param ids ID-urile spațiilor
+     * @return MapDTO-urile găsite, în ordine arbitrară
+     */
+    @Query(MAP_PROJECTION + "WHERE s.id IN :ids")
+    List<ComercialSpaceDTO.MapDTO> findMapViewsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Pagină de SummaryDTO pentru spațiile unui proprietar, într-o singură interogare.
+     *
+     * @param ownerId ID-ul proprietarului
+     * @param pageable pagina cerută
+     * @return pagina de SummaryDTO
+     */
+    @Query(value = SUMMARY_PROJECTION + "WHERE s.owner.id = :ownerId",
+            countQuery = "SELECT COUNT(s) FROM ComercialSpace s WHERE s.owner.id = :ownerId")
+    Page<ComercialSpaceDTO.SummaryDTO> findSummariesByOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    /**
+     * ID-urile spațiilor care nu au încă o parcare asociată (pentru importul în masă al parcărilor).
+     *
+     * @return lista ID-urilor
+     */
+    @Query("SELECT s.id FROM ComercialSpace s WHERE s.parking IS NULL")
+    List<Long> findIdsWithoutParking();
+
+}
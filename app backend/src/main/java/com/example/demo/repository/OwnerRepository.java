@@ -187,4 +187,13 @@ public interface OwnerRepository extends JpaRepository<Owner, Long> {
      */
     @Query("SELECT o FROM Owner o WHERE SIZE(o.spaces) = 0")
     List<Owner> findOwnersWithoutSpaces();
-}
\ No newline at end of file
+
+    /**
+     * ID-urile tuturor proprietarilor, folosite ca tabel de căutare la importul în masă.
+     *
+     * @return lista ID-urilor
+     */
+    @Query("SELECT o.id FROM Owner o")
+    List<Long> findAllIds();
+
+}
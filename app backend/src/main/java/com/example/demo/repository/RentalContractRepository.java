@@ -1,6 +1,7 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.RentalContract;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -302,4 +303,44 @@ public interface RentalContractRepository extends JpaRepository<RentalContract,
     @Query("SELECT COUNT(c) FROM RentalContract c WHERE " +
             "YEAR(c.dateCreated) = :year AND MONTH(c.dateCreated) = :month")
     long countContractsCreatedInMonth(@Param("year") int year, @Param("month") int month);
-}
\ No newline at end of file
+
+    /**
+     * Paginare keyset după ID: prima pagină.
+     *
+     * @param pageable numărul maxim de rezultate
+     * @return contractele ordonate după ID
+     */
+    List<RentalContract> findAllByOrderByIdAsc(Pageable pageable);
+
+    /**
+     * Paginare keyset după ID: pagina care urmează după ultimul ID trimis.
+     *
+     * @param id ultimul ID din pagina anterioară
+     * @param pageable numărul maxim de rezultate
+     * @return contractele cu ID mai mare, ordonate după ID
+     */
+    List<RentalContract> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Paginare keyset după data de început: prima pagină.
+     *
+     * @param pageable numărul maxim de rezultate
+     * @return contractele ordonate după data de început, apoi după ID
+     */
+    List<RentalContract> findAllByOrderByStartDateAscIdAsc(Pageable pageable);
+
+    /**
+     * Paginare keyset după data de început: pagina care urmează după perechea (dată, ID) trimisă.
+     *
+     * @param startDate data de început a ultimului contract din pagina anterioară
+     * @param id ID-ul ultimului contract din pagina anterioară
+     * @param pageable numărul maxim de rezultate
+     * @return contractele următoare, ordonate după data de început, apoi după ID
+     */
+    @Query("SELECT c FROM RentalContract c WHERE c.startDate > :startDate " +
+            "OR (c.startDate = :startDate AND c.id > :id) ORDER BY c.startDate ASC, c.id ASC")
+    List<RentalContract> findPageAfterStartDate(@Param("startDate") LocalDate startDate,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
+
+}
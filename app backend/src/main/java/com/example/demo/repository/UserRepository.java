@@ -1,6 +1,7 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -172,4 +173,44 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     @Query("DELETE FROM User u WHERE u.active = false AND u.createdAt < :date")
     int deleteInactiveUsersBefore(@Param("date") LocalDateTime date);
-}
\ No newline at end of file
+
+    /**
+     * Paginare keyset după ID: prima pagină.
+     *
+     * @param pageable numărul maxim de rezultate
+     * @return utilizatorii ordonate după ID
+     */
+    List<User> findAllByOrderByIdAsc(Pageable pageable);
+
+    /**
+     * Paginare keyset după ID: pagina care urmează după ultimul ID trimis.
+     *
+     * @param id ultimul ID din pagina anterioară
+     * @param pageable numărul maxim de rezultate
+     * @return utilizatorii cu ID mai mare, ordonate după ID
+     */
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Paginare keyset după nume: prima pagină.
+     *
+     * @param pageable numărul maxim de rezultate
+     * @return utilizatorii ordonate după nume, apoi după ID
+     */
+    List<User> findAllByOrderByNameAscIdAsc(Pageable pageable);
+
+    /**
+     * Paginare keyset după nume: pagina care urmează după perechea (nume, ID) trimisă.
+     *
+     * @param name numele ultimului element din pagina anterioară
+     * @param id ID-ul ultimului element din pagina anterioară
+     * @param pageable numărul maxim de rezultate
+     * @return utilizatorii următoare, ordonate după nume, apoi după ID
+     */
+    @Query("SELECT u FROM User u WHERE u.name > :name " +
+            "OR (u.name = :name AND u.id > :id) ORDER BY u.name ASC, u.id ASC")
+    List<User> findPageAfterName(@Param("name") String name,
+                                  @Param("id") Long id,
+                                  Pageable pageable);
+
+}
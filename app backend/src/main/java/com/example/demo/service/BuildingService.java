@@ -1,12 +1,16 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.BuildingDTO;
+import com.example.demo.dto.CursorPageDTO;
 import com.example.demo.model.Building;
 import java.util.List;
 
 public interface BuildingService {
     Building addBuilding(Building building);
     List<Building> getAllBuildings();
+    CursorPageDTO<Building> getBuildingsPage(String sort, String cursor, int size);
     Building getBuildingById(Long id);
     Building updateBuilding(Building building);
     void deleteBuilding(Long id);
+    List<BuildingDTO.MapDTO> getNearestBuildings(Double latitude, Double longitude, int k);
 }
\ No newline at end of file
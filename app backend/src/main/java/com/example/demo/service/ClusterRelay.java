@@ -0,0 +1,86 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.MetricsDTO;
+
+/**
+ * Retransmite notificările și modificările de stare către celelalte instanțe ale aplicației.
+ *
+ * Brokerul STOMP este în memorie, deci un mesaj trimis pe o instanță ajunge doar la
+ * clienții conectați la ea. După trimiterea locală, NotificationDispatcher publică
+ * mesajul (deja serializat) prin relay; fiecare instanță care îl primește îl trimite
+ * doar clienților ei, fără să-l mai publice mai departe.
+ *
+ * Inbox-ul fiecărui utilizator are o singură instanță proprietar, aleasă de relay
+ * după ID-ul utilizatorului, aceeași pe toate instanțele. Doar proprietarul numerotează
+ * notificările utilizatorului: celelalte instanțe îi trimit notificările nenumerotate,
+ * iar el le replică, numerotate, tuturor instanțelor (vezi NotificationInbox).
+ *
+ * Modificările spațiilor și clădirilor sunt anunțate celorlalte instanțe, care își
+ * actualizează indexurile din memorie din baza de date (vezi SpaceIndexCoordinator).
+ */
+public interface ClusterRelay {
+
+    /**
+     * Primește mesajele de pe topicuri venite de la celelalte instanțe.
+     */
+    interface Listener {
+        void deliver(String[] destinations, byte[] body);
+    }
+
+    /**
+     * Primește notificările pentru inbox-urile utilizatorilor.
+     */
+    interface InboxListener {
+        /** Notificare nenumerotată, primită pentru că această instanță deține inbox-ul destinatarului. */
+        void forwarded(String userId, byte[] notification);
+
+        /** Notificare numerotată de proprietarul inbox-ului, pentru copia locală și clienții locali. */
+        void replicated(String userId, byte[] notification);
+    }
+
+    /**
+     * Primește modificările entităților indexate în memorie, făcute pe alte instanțe.
+     */
+    interface IndexListener {
+        void changed(IndexedEntity entity, Long id, boolean deleted);
+    }
+
+    enum IndexedEntity {
+        SPACE, BUILDING
+    }
+
+    void start(Listener listener);
+
+    void publish(String[] destinations, byte[] body);
+
+    /**
+     * @return true dacă această instanță numerotează inbox-ul utilizatorului; exact una o face
+     */
+    boolean ownsInbox(String userId);
+
+    /**
+     * Trimite o notificare nenumerotată instanței care deține inbox-ul utilizatorului.
+     */
+    void forwardToInboxOwner(String userId, byte[] notification);
+
+    /**
+     * Trimite tuturor celorlalte instanțe o notificare numerotată de această instanță.
+     */
+    void replicateInbox(String userId, byte[] notification);
+
+    void setInboxListener(InboxListener listener);
+
+    /**
+     * Anunță celelalte instanțe că o entitate indexată a fost salvată sau ștearsă.
+     */
+    void publishIndexChange(IndexedEntity entity, Long id, boolean deleted);
+
+    void setIndexListener(IndexListener listener);
+
+    /**
+     * @return true dacă mai rulează și alte instanțe, deci starea comună trebuie ținută în baza de date
+     */
+    boolean isClustered();
+
+    MetricsDTO.RelayMetricsDTO metrics();
+}
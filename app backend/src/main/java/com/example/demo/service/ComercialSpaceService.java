@@ -1,16 +1,31 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.ComercialSpaceDTO;
+import com.example.demo.dto.CursorPageDTO;
 import com.example.demo.model.ComercialSpace;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
 import java.util.List;
 
 public interface ComercialSpaceService {
     ComercialSpace addSpace(ComercialSpace space);
     List<ComercialSpace> getAllSpaces();
+    CursorPageDTO<ComercialSpace> getSpacesPage(String sort, String cursor, int size);
     ComercialSpace getSpaceById(Long id);
     ComercialSpace updateSpace(ComercialSpace space);
     void deleteSpace(Long id);
-    List<ComercialSpace> getAvailableSpaces();
-    List<ComercialSpace> getSpacesByType(String spaceType);
-    List<ComercialSpace> getSpacesByOwner(Long ownerId);
-    List<ComercialSpace> getSpacesByBuilding(Long buildingId);
+    Page<ComercialSpaceDTO.ListDTO> getAvailableSpaces(Pageable pageable);
+    Page<ComercialSpaceDTO.ListDTO> getSpacesByType(String spaceType, Pageable pageable);
+    Page<ComercialSpaceDTO.ListDTO> getSpacesByOwner(Long ownerId, Pageable pageable);
+    Page<ComercialSpaceDTO.SummaryDTO> getSpaceSummariesByOwner(Long ownerId, Pageable pageable);
+    Page<ComercialSpaceDTO.ListDTO> getSpacesByBuilding(Long buildingId, Pageable pageable);
+    Page<ComercialSpace> searchSpaces(ComercialSpaceDTO.SearchDTO criteria, Pageable pageable);
+    ComercialSpaceDTO.FacetedSearchDTO searchSpacesWithFacets(ComercialSpaceDTO.SearchDTO criteria, Pageable pageable);
+    Page<ComercialSpace> searchSpacesByText(String query, Pageable pageable);
+    List<ComercialSpace> getTopSpacesByPricePerSquareMeter(int limit, boolean highest);
+    List<ComercialSpace> getSpacesWithMostAmenities(int limit);
+    List<ComercialSpaceDTO.MapDTO> getSpacesInArea(Double minLat, Double maxLat, Double minLng, Double maxLng, int limit);
+    List<ComercialSpaceDTO.MapDTO> getNearestSpaces(Double latitude, Double longitude, int k);
+    ComercialSpaceDTO.MapViewDTO getMapView(Double minLat, Double maxLat, Double minLng, Double maxLng, int zoom);
 }
\ No newline at end of file
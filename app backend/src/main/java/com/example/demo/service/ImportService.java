@@ -0,0 +1,14 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ImportDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ImportService {
+    ImportDTO importBuildings(InputStream in, ImportDTO.Format format) throws IOException;
+
+    ImportDTO importSpaces(InputStream in, ImportDTO.Format format) throws IOException;
+
+    ImportDTO importParkings(InputStream in, ImportDTO.Format format) throws IOException;
+}
@@ -0,0 +1,115 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.MetricsDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Comasează rafalele de notificări pentru același spațiu.
+ *
+ * Notificările primite într-o fereastră de app.notifications.coalesce-window-ms sunt
+ * ținute pe cheie (ID-ul spațiului); o notificare nouă o înlocuiește pe cea în
+ * așteptare, deci la fiecare golire periodică se trimite doar ultima stare a fiecărui
+ * spațiu. Traficul către broker crește astfel cu numărul de spații modificate, nu cu
+ * numărul de evenimente. O fereastră de 0 trimite notificările imediat.
+ */
+@Component
+public class NotificationCoalescer {
+
+    private final NotificationDispatcher dispatcher;
+    private final long windowMillis;
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "notification-coalescer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder merged = new LongAdder();
+    private final LongAdder flushed = new LongAdder();
+
+    @Autowired
+    public NotificationCoalescer(NotificationDispatcher dispatcher,
+                                 @Value("${app.notifications.coalesce-window-ms:250}") long windowMillis) {
+        this.dispatcher = dispatcher;
+        this.windowMillis = windowMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (windowMillis > 0) {
+            flusher.scheduleWithFixedDelay(this::flush, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdown();
+        flush();
+    }
+
+    /**
+     * Programează o notificare pentru un spațiu, înlocuind-o pe cea încă netrimisă pentru același spațiu.
+     * În interiorul unei tranzacții, notificarea este luată în considerare după commit.
+     *
+     * @param spaceId cheia de comasare
+     * @param payload conținutul mesajului
+     * @param destinations destinațiile STOMP
+     */
+    public void submit(Long spaceId, Object payload, String... destinations) {
+        if (windowMillis <= 0 || spaceId == null) {
+            dispatcher.dispatch(payload, destinations);
+            return;
+        }
+        NotificationDispatcher.afterCommit(() -> {
+            received.increment();
+            if (pending.put(spaceId, new Pending(destinations, payload)) != null) {
+                merged.increment();
+            }
+        });
+    }
+
+    /**
+     * Trimite ultima stare a fiecărui spațiu în așteptare.
+     */
+    public void flush() {
+        for (Long spaceId : pending.keySet()) {
+            Pending latest = pending.remove(spaceId);
+            if (latest != null) {
+                dispatcher.dispatch(latest.payload, latest.destinations);
+                flushed.increment();
+            }
+        }
+    }
+
+    public MetricsDTO.CoalescingMetricsDTO metrics() {
+        return MetricsDTO.CoalescingMetricsDTO.builder()
+                .windowMs(windowMillis)
+                .pending(pending.size())
+                .received(received.sum())
+                .merged(merged.sum())
+                .flushed(flushed.sum())
+                .build();
+    }
+
+    private static final class Pending {
+        final String[] destinations;
+        final Object payload;
+
+        Pending(String[] destinations, Object payload) {
+            this.destinations = destinations;
+            this.payload = payload;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.MetricsDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Trimite notificările WebSocket asincron, în afara firului cererii HTTP (outbox în memorie).
+ *
+ * Serviciile pun notificările într-o coadă mărginită (mai mulți producători, un singur
+ * consumator), iar un fir dedicat le scoate în loturi și le trimite brokerului. Dacă
+ * există o tranzacție activă, notificarea intră în coadă abia după commit, deci un
+ * rollback nu trimite nimic. Când coada este plină se aplică politica configurată:
+ * DROP_NEWEST (notificarea nouă este ignorată), DROP_OLDEST (cea mai veche este
+ * înlocuită) sau BLOCK (producătorul așteaptă, cel mult app.notifications.block-timeout-ms).
+ *
+ * Fiecare notificare este serializată JSON o singură dată, pe firul dedicat; același
+ * tablou de octeți este trimis tuturor destinațiilor ei, iar brokerul îl livrează
+ * abonaților fără o nouă conversie. După trimiterea locală, mesajul este publicat prin
+ * ClusterRelay către celelalte instanțe; mesajele venite de la ele trec prin aceeași
+ * coadă, dar sunt trimise doar local. Cozile utilizatorilor (/queue/...) nu trec pe
+ * aici prin relay: NotificationInbox le numerotează pe instanța care deține inbox-ul
+ * și le replică el însuși celorlalte instanțe.
+ */
+@Slf4j
+@Component
+public class NotificationDispatcher {
+
+    public enum OverflowPolicy {
+        DROP_NEWEST, DROP_OLDEST, BLOCK
+    }
+
+    private static final String USER_QUEUE_PREFIX = "/queue/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final ClusterRelay clusterRelay;
+    private final BlockingQueue<Outgoing> queue;
+    private final int capacity;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutMillis;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder serialized = new LongAdder();
+    private final LongAdder bytesSerialized = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final AtomicInteger maxDepth = new AtomicInteger();
+
+    @Autowired
+    public NotificationDispatcher(SimpMessagingTemplate messagingTemplate,
+                                  ObjectMapper objectMapper,
+                                  ClusterRelay clusterRelay,
+                                  @Value("${app.notifications.queue-capacity:10000}") int capacity,
+                                  @Value("${app.notifications.batch-size:100}") int batchSize,
+                                  @Value("${app.notifications.overflow-policy:DROP_OLDEST}") OverflowPolicy overflowPolicy,
+                                  @Value("${app.notifications.block-timeout-ms:100}") long blockTimeoutMillis) {
+        if (capacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Notification queue capacity and batch size must be positive");
+        }
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.clusterRelay = clusterRelay;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutMillis = blockTimeoutMillis;
+        this.worker = new Thread(this::drainLoop, "notification-dispatcher");
+        this.worker.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        clusterRelay.start(this::deliverRemote);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Programează trimiterea unui mesaj către o destinație STOMP.
+     * În interiorul unei tranzacții, mesajul intră în coadă după commit.
+     *
+     * @param destination destinația (ex. /topic/spaces)
+     * @param payload conținutul mesajului
+     */
+    public void dispatch(String destination, Object payload) {
+        dispatch(payload, destination);
+    }
+
+    /**
+     * Programează trimiterea aceluiași mesaj către mai multe destinații STOMP.
+     * Conținutul este serializat o singură dată pentru toate.
+     *
+     * @param payload conținutul mesajului
+     * @param destinations destinațiile (ex. /queue/user.1, /topic/contracts)
+     */
+    public void dispatch(Object payload, String... destinations) {
+        Outgoing outgoing = new Outgoing(destinations, payload, null);
+        afterCommit(() -> enqueue(outgoing));
+    }
+
+    /**
+     * Pune mesajul în coadă imediat, fără să aștepte commit-ul. Folosit de apelanți
+     * care rulează deja după commit (ex. din callback-ul afterCommit al inbox-ului).
+     */
+    void dispatchNow(Object payload, String... destinations) {
+        enqueue(new Outgoing(destinations, payload, null));
+    }
+
+    /**
+     * Pune în coadă un mesaj deja serializat, primit de la altă instanță.
+     * Este trimis doar clienților locali, nu și mai departe prin relay.
+     */
+    void deliverRemote(String[] destinations, byte[] body) {
+        String[] relayed = relayed(destinations);
+        if (relayed.length > 0) {
+            enqueue(new Outgoing(relayed, null, body));
+        }
+    }
+
+    // Topics only: user queues are replicated by NotificationInbox, already numbered by the owning instance
+    private static String[] relayed(String[] destinations) {
+        return Arrays.stream(destinations)
+                .filter(destination -> !destination.startsWith(USER_QUEUE_PREFIX))
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Execută acțiunea după commit-ul tranzacției curente sau imediat, dacă nu există tranzacție.
+     */
+    static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    public MetricsDTO.QueueMetricsDTO metrics() {
+        long batchCount = batches.sum();
+        long sentCount = sent.sum();
+        long serializedCount = serialized.sum();
+        return MetricsDTO.QueueMetricsDTO.builder()
+                .policy(overflowPolicy.name())
+                .capacity(capacity)
+                .depth(queue.size())
+                .maxDepth(maxDepth.get())
+                .enqueued(enqueued.sum())
+                .sent(sentCount)
+                .dropped(dropped.sum())
+                .failed(failed.sum())
+                .batches(batchCount)
+                .averageBatchSize(batchCount > 0 ? (double) (sentCount + failed.sum()) / batchCount : 0)
+                .serialized(serializedCount)
+                .bytesSerialized(bytesSerialized.sum())
+                .bytesSent(bytesSent.sum())
+                .averageMessageBytes(serializedCount > 0 ? (double) bytesSerialized.sum() / serializedCount : 0)
+                .build();
+    }
+
+    private void enqueue(Outgoing outgoing) {
+        boolean accepted;
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    accepted = queue.offer(outgoing, blockTimeoutMillis, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    accepted = false;
+                }
+                break;
+            case DROP_OLDEST:
+                accepted = queue.offer(outgoing);
+                while (!accepted) {
+                    if (queue.poll() != null) {
+                        dropped.increment();
+                    }
+                    accepted = queue.offer(outgoing);
+                }
+                break;
+            default:
+                accepted = queue.offer(outgoing);
+        }
+
+        if (accepted) {
+            enqueued.increment();
+            maxDepth.accumulateAndGet(queue.size(), Math::max);
+        } else {
+            dropped.increment();
+        }
+    }
+
+    private void drainLoop() {
+        List<Outgoing> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Outgoing first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+            } catch (InterruptedException e) {
+                // On shutdown: send what is already queued, then exit
+                queue.drainTo(batch);
+                running = false;
+            }
+            sendBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void sendBatch(List<Outgoing> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batches.increment();
+        for (Outgoing outgoing : batch) {
+            boolean remote = outgoing.body != null;
+            byte[] body = outgoing.body;
+            if (!remote) {
+                try {
+                    body = objectMapper.writeValueAsBytes(outgoing.payload);
+                } catch (JsonProcessingException | RuntimeException e) {
+                    // One bad message (e.g. a payload that cannot be serialized) must not stop the worker
+                    log.warn("Could not serialize {} for {}", payloadType(outgoing), String.join(", ", outgoing.destinations), e);
+                    failed.add(outgoing.destinations.length);
+                    continue;
+                }
+                serialized.increment();
+                bytesSerialized.add(body.length);
+            }
+
+            for (String destination : outgoing.destinations) {
+                try {
+                    messagingTemplate.send(destination, toMessage(body));
+                    sent.increment();
+                    bytesSent.add(body.length);
+                } catch (RuntimeException e) {
+                    log.warn("Could not send {} to {}", payloadType(outgoing), destination, e);
+                    failed.increment();
+                }
+            }
+            String[] relayed = remote ? new String[0] : relayed(outgoing.destinations);
+            if (relayed.length > 0) {
+                try {
+                    clusterRelay.publish(relayed, body);
+                } catch (RuntimeException e) {
+                    // Local clients already have it; other instances miss this one message
+                    log.warn("Could not relay {} to the other instances", payloadType(outgoing), e);
+                    failed.increment();
+                }
+            }
+        }
+    }
+
+    private static String payloadType(Outgoing outgoing) {
+        return outgoing.payload != null ? outgoing.payload.getClass().getSimpleName() : "relayed message";
+    }
+
+    private static Message<byte[]> toMessage(byte[] body) {
+        // Pre-serialized body: the template sends it as-is instead of running its message converters
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(body, accessor.getMessageHeaders());
+    }
+
+    private static final class Outgoing {
+        final String[] destinations;
+        final Object payload;
+        // Already serialized body; set only for messages relayed from another instance
+        final byte[] body;
+
+        Outgoing(String[] destinations, Object payload, byte[] body) {
+            this.destinations = destinations;
+            this.payload = payload;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,610 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.MetricsDTO;
+import com.example.demo.dto.NotificationDTO;
+import com.example.demo.model.Notification;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Inbox-ul de notificări al fiecărui utilizator, cu reluare la reconectare.
+ *
+ * Fiecare notificare trimisă pe /queue/user.{id} primește un număr de secvență
+ * crescător (per utilizator) și este păstrată într-un buffer circular din memorie
+ * (ultimele app.notifications.inbox.capacity) și într-un fișier append-only. La
+ * reconectare clientul cere doar notificările de după ultima secvență văzută; ele
+ * vin din buffer sau, dacă sunt mai vechi, din fișier.
+ *
+ * Fișierul este scris de un fir dedicat, nu de firul cererii, și este citit fără lock
+ * (se scrie doar la final, iar compactarea îl înlocuiește atomic). La pornire este recitit
+ * (secvențele continuă de unde au rămas), iar la pornire și după fiecare
+ * app.notifications.inbox.compact-after linii scrise este compactat la ultimele
+ * app.notifications.inbox.retained notificări ale fiecărui utilizator.
+ *
+ * Fiecare inbox are o epocă, aleasă la crearea lui. Dacă fișierul se pierde, secvențele
+ * o iau de la 1 într-o epocă nouă; clientul care vine cu altă epocă sau cu o secvență
+ * mai mare decât ultima alocată primește truncated=true și își resetează contorul.
+ *
+ * Cu mai multe instanțe, doar instanța care deține inbox-ul (vezi ClusterRelay) alocă
+ * secvențe. Celelalte îi trimit notificările nenumerotate; proprietarul le numerotează
+ * și le replică tuturor instanțelor, care le păstrează într-o copie locală a inbox-ului
+ * și le trimit clienților conectați la ele. Reluarea funcționează astfel pe orice
+ * instanță; dacă o replică s-a pierdut, reluarea are o gaură și răspunde cu truncated=true.
+ */
+@Slf4j
+@Component
+public class NotificationInbox {
+
+    private static final String USER_QUEUE_PREFIX = "/queue/user.";
+
+    private final NotificationDispatcher dispatcher;
+    private final ClusterRelay clusterRelay;
+    private final ObjectMapper objectMapper;
+    private final int capacity;
+    private final int retained;
+    private final long compactAfter;
+    private final Path storePath;
+    private final Map<String, UserInbox> inboxes = new ConcurrentHashMap<>();
+    // Entries waiting for the writer thread, in delivery order
+    private final BlockingQueue<StoredEntry> pending;
+    private final Thread writer;
+    private volatile boolean running = true;
+    // Owned by the writer thread once it has started
+    private BufferedWriter store;
+    private long linesSinceCompaction;
+    // Held while running, so two instances cannot share one store file
+    private FileChannel storeLockFile;
+
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder replayedFromStore = new LongAdder();
+    private final LongAdder storeFailures = new LongAdder();
+    private final LongAdder compactions = new LongAdder();
+    private final LongAdder forwarded = new LongAdder();
+    private final LongAdder mirrored = new LongAdder();
+
+    @Autowired
+    public NotificationInbox(NotificationDispatcher dispatcher,
+                             ClusterRelay clusterRelay,
+                             ObjectMapper objectMapper,
+                             @Value("${app.notifications.inbox.capacity:256}") int capacity,
+                             @Value("${app.notifications.inbox.retained:1024}") int retained,
+                             @Value("${app.notifications.inbox.compact-after:100000}") long compactAfter,
+                             @Value("${app.notifications.inbox.write-queue-capacity:10000}") int writeQueueCapacity,
+                             @Value("${app.notifications.inbox.path:data/notification-inbox-${app.node-id:0}.log}") String storePath) {
+        if (capacity <= 0 || retained < capacity || compactAfter <= 0 || writeQueueCapacity <= 0) {
+            throw new IllegalArgumentException(
+                    "Notification inbox capacity must be positive, retained at least the capacity, and the store limits positive");
+        }
+        this.dispatcher = dispatcher;
+        this.clusterRelay = clusterRelay;
+        this.objectMapper = objectMapper;
+        this.capacity = capacity;
+        this.retained = retained;
+        this.compactAfter = compactAfter;
+        this.storePath = Paths.get(storePath);
+        this.pending = new ArrayBlockingQueue<>(writeQueueCapacity);
+        this.writer = new Thread(this::writeLoop, "notification-inbox-writer");
+        this.writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (storePath.getParent() != null) {
+            Files.createDirectories(storePath.getParent());
+        }
+        lockStore();
+        if (Files.exists(storePath)) {
+            try (BufferedReader reader = Files.newBufferedReader(storePath, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    StoredEntry entry = parse(line);
+                    if (entry != null) {
+                        Long epoch = entry.notification.getEpoch();
+                        inboxes.computeIfAbsent(entry.userId, id -> new UserInbox(capacity, epoch != null ? epoch : newEpoch()))
+                                .restore(entry.notification);
+                    }
+                }
+            }
+            compact();
+        }
+        store = openStore();
+        writer.start();
+        clusterRelay.setInboxListener(new RelayedNotifications());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        if (storeLockFile != null) {
+            try {
+                storeLockFile.close();
+            } catch (IOException e) {
+                log.warn("Could not release the notification inbox store lock", e);
+            }
+        }
+    }
+
+    /**
+     * Livrează o notificare în inbox-ul unui utilizator și pe coada lui STOMP.
+     * În interiorul unei tranzacții, secvența se alocă și mesajul pleacă după commit.
+     *
+     * @param userId destinatarul
+     * @param notification notificarea (primește numărul de secvență pe instanța care deține inbox-ul)
+     * @param alsoTo destinații suplimentare (ex. /topic/contracts); primesc o copie fără secvență și epocă
+     */
+    public void deliver(String userId, Notification notification, String... alsoTo) {
+        NotificationDispatcher.afterCommit(() -> {
+            // Copied before the inbox stamps the original: other subscribers must not see the user's numbering
+            Notification shared = alsoTo.length > 0 ? notification.withoutSequence() : null;
+            if (clusterRelay.ownsInbox(userId)) {
+                append(userId, notification);
+            } else {
+                // One sequence per user: the owning instance numbers it and replicates it back to every instance
+                byte[] body = serialize(notification);
+                if (body != null) {
+                    clusterRelay.forwardToInboxOwner(userId, body);
+                    forwarded.increment();
+                }
+            }
+            if (shared != null) {
+                dispatcher.dispatchNow(shared, alsoTo);
+            }
+        });
+    }
+
+    /**
+     * Notificările utilizatorului cu secvența mai mare decât cea dată, în ordine.
+     *
+     * Dacă epoca diferă sau secvența depășește ultima alocată, contorul clientului nu mai
+     * corespunde inbox-ului: se întoarce tot buffer-ul, cu truncated=true.
+     *
+     * @param userId destinatarul
+     * @param after ultima secvență văzută de client (0 pentru toate)
+     * @param epoch epoca în care clientul a văzut secvența (null dacă nu o cunoaște)
+     * @return notificările lipsă; truncated=true dacă o parte nu mai există și clientul trebuie să reîncarce datele
+     */
+    public NotificationDTO.InboxDTO replay(String userId, long after, Long epoch) {
+        UserInbox inbox = inboxes.get(userId);
+        if (inbox == null) {
+            return NotificationDTO.InboxDTO.builder()
+                    .userId(userId)
+                    .lastSequence(0L)
+                    .truncated(after > 0)
+                    .notifications(List.of())
+                    .build();
+        }
+
+        List<Notification> missing;
+        long last;
+        long oldest;
+        boolean reset;
+        synchronized (inbox) {
+            last = inbox.lastSequence;
+            oldest = inbox.oldestSequence();
+            reset = after > last || (epoch != null && epoch != inbox.epoch);
+            missing = inbox.after(reset ? 0 : after);
+        }
+
+        boolean truncated = reset;
+        if (!reset && after + 1 < oldest) {
+            // Older than the ring buffer: fall back to the append-only store
+            List<Notification> older = readStore(userId, inbox.epoch, after, oldest);
+            replayedFromStore.add(older.size());
+            truncated = older.isEmpty() || older.get(0).getSequence() > after + 1;
+            older.addAll(missing);
+            missing = older;
+        }
+        if (!truncated && !contiguous(missing, after, last)) {
+            // A replica from the owning instance was lost on the way to this one
+            truncated = true;
+        }
+        replayed.add(missing.size());
+
+        return NotificationDTO.InboxDTO.builder()
+                .userId(userId)
+                .epoch(inbox.epoch)
+                .lastSequence(last)
+                .truncated(truncated)
+                .notifications(missing)
+                .build();
+    }
+
+    public MetricsDTO.InboxMetricsDTO metrics() {
+        return MetricsDTO.InboxMetricsDTO.builder()
+                .capacity(capacity)
+                .users(inboxes.size())
+                .appended(appended.sum())
+                .replayed(replayed.sum())
+                .replayedFromStore(replayedFromStore.sum())
+                .storeFailures(storeFailures.sum())
+                .pendingWrites(pending.size())
+                .compactions(compactions.sum())
+                .forwarded(forwarded.sum())
+                .mirrored(mirrored.sum())
+                .build();
+    }
+
+    /**
+     * Numerotează notificarea în inbox-ul propriu, o scrie, o trimite clienților locali
+     * și o replică celorlalte instanțe.
+     */
+    private void append(String userId, Notification notification) {
+        UserInbox inbox = inbox(userId);
+        // Sequence, store order, queue order and replica order are the same for a given user;
+        // the file itself is written by the writer thread
+        synchronized (inbox) {
+            inbox.append(notification);
+            store(userId, notification);
+            dispatcher.dispatchNow(notification, USER_QUEUE_PREFIX + userId);
+            if (clusterRelay.isClustered()) {
+                byte[] body = serialize(notification);
+                if (body != null) {
+                    clusterRelay.replicateInbox(userId, body);
+                }
+            }
+        }
+        appended.increment();
+    }
+
+    /**
+     * Păstrează în copia locală o notificare numerotată de instanța care deține inbox-ul
+     * și o trimite clienților conectați la această instanță.
+     */
+    private void mirror(String userId, Notification notification) {
+        Long epoch = notification.getEpoch();
+        if (notification.getSequence() == null || epoch == null) {
+            return;
+        }
+        // A newer epoch means the owner lost its store and restarted numbering; older ones are stale replicas
+        UserInbox inbox = inboxes.compute(userId, (id, current) ->
+                current == null || epoch > current.epoch ? new UserInbox(capacity, epoch) : current);
+        synchronized (inbox) {
+            if (inbox.epoch != epoch) {
+                return;
+            }
+            inbox.mirror(notification);
+            store(userId, notification);
+            dispatcher.dispatchNow(notification, USER_QUEUE_PREFIX + userId);
+        }
+        mirrored.increment();
+    }
+
+    private void store(String userId, Notification notification) {
+        if (!pending.offer(new StoredEntry(userId, notification))) {
+            // The in-memory inbox still has it; only replay of older messages is affected
+            storeFailures.increment();
+        }
+    }
+
+    private byte[] serialize(Notification notification) {
+        try {
+            return objectMapper.writeValueAsBytes(notification);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize notification {} for another instance", notification.getId(), e);
+            return null;
+        }
+    }
+
+    private Notification deserialize(byte[] body) {
+        try {
+            return objectMapper.readValue(body, Notification.class);
+        } catch (IOException e) {
+            log.warn("Could not read a notification relayed by another instance", e);
+            return null;
+        }
+    }
+
+    // Sequences after+1 .. last, each exactly once
+    private static boolean contiguous(List<Notification> notifications, long after, long last) {
+        long expected = after + 1;
+        for (Notification notification : notifications) {
+            if (notification.getSequence() != expected) {
+                return false;
+            }
+            expected++;
+        }
+        return expected == last + 1;
+    }
+
+    private UserInbox inbox(String userId) {
+        return inboxes.computeIfAbsent(userId, id -> new UserInbox(capacity, newEpoch()));
+    }
+
+    private static long newEpoch() {
+        return System.currentTimeMillis();
+    }
+
+    private void writeLoop() {
+        List<StoredEntry> batch = new ArrayList<>();
+        while (running || !pending.isEmpty()) {
+            try {
+                StoredEntry first = pending.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                pending.drainTo(batch);
+            } catch (InterruptedException e) {
+                // On shutdown: write what is already queued, then exit
+                pending.drainTo(batch);
+                running = false;
+            }
+            write(batch);
+            batch.clear();
+            if (linesSinceCompaction >= compactAfter) {
+                compactRunning();
+            }
+        }
+        closeStore();
+    }
+
+    private void write(List<StoredEntry> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (store == null) {
+            storeFailures.add(batch.size());
+            return;
+        }
+        try {
+            for (StoredEntry entry : batch) {
+                store.write(objectMapper.writeValueAsString(toStored(entry.userId, entry.notification)));
+                store.newLine();
+            }
+            // One flush per batch; readers only see whole lines (a torn one is skipped)
+            store.flush();
+            linesSinceCompaction += batch.size();
+        } catch (IOException e) {
+            // The in-memory inbox still has them; only replay of older messages is affected
+            log.warn("Could not write {} notifications to the inbox store {}", batch.size(), storePath, e);
+            storeFailures.add(batch.size());
+        }
+    }
+
+    private void compactRunning() {
+        closeStore();
+        try {
+            compact();
+        } catch (IOException e) {
+            // Keep appending to the uncompacted file; the next batch tries again
+            log.warn("Could not compact the notification inbox store {}", storePath, e);
+        }
+        try {
+            store = openStore();
+        } catch (IOException e) {
+            log.warn("Could not reopen the notification inbox store {}", storePath, e);
+        }
+    }
+
+    private void lockStore() throws IOException {
+        Path lockPath = storePath.resolveSibling(storePath.getFileName() + ".lock");
+        storeLockFile = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (storeLockFile.tryLock() == null) {
+            storeLockFile.close();
+            throw new IllegalStateException("Notification inbox store " + storePath
+                    + " is used by another instance; give each instance its own app.notifications.inbox.path");
+        }
+    }
+
+    private BufferedWriter openStore() throws IOException {
+        return Files.newBufferedWriter(storePath, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private void closeStore() {
+        if (store == null) {
+            return;
+        }
+        try {
+            store.close();
+        } catch (IOException e) {
+            log.warn("Could not close the notification inbox store {}", storePath, e);
+        }
+        store = null;
+    }
+
+    private List<Notification> readStore(String userId, long epoch, long after, long before) {
+        // No lock: lines are only appended, and compaction replaces the whole file atomically,
+        // so an open reader keeps seeing the file it started with
+        List<Notification> result = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(storePath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                StoredEntry entry = parse(line);
+                if (entry != null && entry.userId.equals(userId) && sameEpoch(entry.notification, epoch)) {
+                    long sequence = entry.notification.getSequence();
+                    if (sequence > after && sequence < before) {
+                        result.add(entry.notification);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read notification inbox store", e);
+        }
+        return result;
+    }
+
+    private void compact() throws IOException {
+        // Keep the last `retained` notifications of each user, so the store does not grow without bound
+        Path tmp = storePath.resolveSibling(storePath.getFileName() + ".tmp");
+        try (BufferedReader reader = Files.newBufferedReader(storePath, StandardCharsets.UTF_8);
+             BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                StoredEntry entry = parse(line);
+                UserInbox inbox = entry != null ? inboxes.get(entry.userId) : null;
+                if (inbox == null || !sameEpoch(entry.notification, inbox.epoch)) {
+                    continue;
+                }
+                long last;
+                synchronized (inbox) {
+                    last = inbox.lastSequence;
+                }
+                if (entry.notification.getSequence() > last - retained) {
+                    entry.notification.setEpoch(inbox.epoch);
+                    writer.write(objectMapper.writeValueAsString(toStored(entry.userId, entry.notification)));
+                    writer.newLine();
+                }
+            }
+        }
+        Files.move(tmp, storePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        linesSinceCompaction = 0;
+        compactions.increment();
+    }
+
+    // Entries written before epochs existed belong to the epoch their inbox was restored with
+    private static boolean sameEpoch(Notification notification, long epoch) {
+        return notification.getEpoch() == null || Objects.equals(notification.getEpoch(), epoch);
+    }
+
+    private ObjectNode toStored(String userId, Notification notification) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("userId", userId);
+        node.set("notification", objectMapper.valueToTree(notification));
+        return node;
+    }
+
+    private StoredEntry parse(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            Notification notification = objectMapper.treeToValue(node.get("notification"), Notification.class);
+            if (notification == null || notification.getSequence() == null || !node.hasNonNull("userId")) {
+                return null;
+            }
+            return new StoredEntry(node.get("userId").asText(), notification);
+        } catch (IOException e) {
+            // A torn last line after a crash is skipped
+            return null;
+        }
+    }
+
+    /**
+     * Buffer circular cu ultimele notificări ale unui utilizator.
+     * Notificarea cu secvența s stă pe poziția s % capacitate.
+     */
+    private static final class UserInbox {
+        final Notification[] ring;
+        final long epoch;
+        long lastSequence;
+
+        UserInbox(int capacity, long epoch) {
+            this.ring = new Notification[capacity];
+            this.epoch = epoch;
+        }
+
+        void append(Notification notification) {
+            notification.setEpoch(epoch);
+            notification.setSequence(++lastSequence);
+            ring[(int) (lastSequence % ring.length)] = notification;
+        }
+
+        void restore(Notification notification) {
+            if (!sameEpoch(notification, epoch)) {
+                return;
+            }
+            notification.setEpoch(epoch);
+            long sequence = notification.getSequence();
+            if (sequence > lastSequence) {
+                lastSequence = sequence;
+                ring[(int) (sequence % ring.length)] = notification;
+            }
+        }
+
+        void mirror(Notification notification) {
+            long sequence = notification.getSequence();
+            if (sequence > lastSequence) {
+                lastSequence = sequence;
+                ring[(int) (sequence % ring.length)] = notification;
+            } else if (sequence > lastSequence - ring.length) {
+                // Datagrams may arrive out of order: fill the slot unless a newer one is already there
+                Notification current = ring[(int) (sequence % ring.length)];
+                if (current == null || current.getSequence() < sequence) {
+                    ring[(int) (sequence % ring.length)] = notification;
+                }
+            }
+        }
+
+        long oldestSequence() {
+            return Math.max(1, lastSequence - ring.length + 1);
+        }
+
+        List<Notification> after(long after) {
+            List<Notification> result = new ArrayList<>();
+            for (long s = Math.max(after + 1, oldestSequence()); s <= lastSequence; s++) {
+                Notification notification = ring[(int) (s % ring.length)];
+                // Slots can be empty after a restart if the store had gaps
+                if (notification != null && notification.getSequence() == s) {
+                    result.add(notification);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Notificările venite de la celelalte instanțe prin ClusterRelay.
+     */
+    private final class RelayedNotifications implements ClusterRelay.InboxListener {
+
+        @Override
+        public void forwarded(String userId, byte[] body) {
+            Notification notification = deserialize(body);
+            if (notification != null) {
+                append(userId, notification);
+            }
+        }
+
+        @Override
+        public void replicated(String userId, byte[] body) {
+            Notification notification = deserialize(body);
+            if (notification != null) {
+                mirror(userId, notification);
+            }
+        }
+    }
+
+    private static final class StoredEntry {
+        final String userId;
+        final Notification notification;
+
+        StoredEntry(String userId, Notification notification) {
+            this.userId = userId;
+            this.notification = notification;
+        }
+    }
+}
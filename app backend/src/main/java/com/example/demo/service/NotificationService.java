@@ -1,20 +1,34 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.ImportDTO;
+import com.example.demo.dto.NotificationDTO;
 import com.example.demo.model.ComercialSpace;
 import com.example.demo.model.Notification;
 import com.example.demo.model.RentalContract;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 @Service
 public class NotificationService {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    // Messages are queued and sent by the dispatcher's worker thread, after the current transaction commits.
+    // Payloads are compact deltas built here, on the caller's thread, while lazy associations are still reachable.
+    private final NotificationDispatcher dispatcher;
+    private final NotificationCoalescer coalescer;
+    // Per-user messages are numbered and kept for replay when the client reconnects
+    private final NotificationInbox inbox;
+    // Space events also go to the geo cell topic of the space, for clients watching that area
+    private final SpaceTopics spaceTopics;
 
     @Autowired
-    public NotificationService(SimpMessagingTemplate messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
+    public NotificationService(NotificationDispatcher dispatcher,
+                               NotificationCoalescer coalescer,
+                               NotificationInbox inbox,
+                               SpaceTopics spaceTopics) {
+        this.dispatcher = dispatcher;
+        this.coalescer = coalescer;
+        this.inbox = inbox;
+        this.spaceTopics = spaceTopics;
     }
 
     /**
@@ -24,10 +38,10 @@ public class NotificationService {
         Notification notification = new Notification(
                 "NEW_SPACE",
                 "New commercial space available: " + space.getName(),
-                space,
+                NotificationDTO.newSpace(space),
                 "all"
         );
-        messagingTemplate.convertAndSend("/topic/spaces", notification);
+        dispatcher.dispatch(notification, spaceTopics.destinationsFor(space));
     }
 
     /**
@@ -38,10 +52,25 @@ public class NotificationService {
         Notification notification = new Notification(
                 "SPACE_STATUS_CHANGE",
                 "Space '" + space.getName() + "' is now " + status,
-                space,
+                NotificationDTO.spaceStatus(space),
                 "all"
         );
-        messagingTemplate.convertAndSend("/topic/spaces", notification);
+        // Bursts for the same space collapse into its latest state within the coalescing window
+        coalescer.submit(space.getId(), notification, spaceTopics.destinationsFor(space));
+    }
+
+    /**
+     * Notify all clients once about a finished bulk import (a summary, not one message per row)
+     */
+    public void notifyImportCompleted(ImportDTO result) {
+        Notification notification = new Notification(
+                "BULK_IMPORT",
+                "Imported " + result.getImported() + " of " + result.getProcessed() + " "
+                        + result.getKind().name().toLowerCase() + " (" + result.getFailed() + " rejected)",
+                result,
+                "all"
+        );
+        dispatcher.dispatch("/topic/spaces", notification);
     }
 
     /**
@@ -53,13 +82,11 @@ public class NotificationService {
             Notification notification = new Notification(
                     "NEW_CONTRACT",
                     "New contract for your space: " + contract.getSpace().getName(),
-                    contract,
+                    NotificationDTO.newContract(contract),
                     ownerId.toString()
             );
-            messagingTemplate.convertAndSend("/queue/user." + ownerId, notification);
-
-            // Also send to general topic for admin visibility
-            messagingTemplate.convertAndSend("/topic/contracts", notification);
+            // Also send to general topic for admin visibility (as a copy without the owner's sequence)
+            inbox.deliver(ownerId.toString(), notification, "/topic/contracts");
         }
     }
 
@@ -72,10 +99,10 @@ public class NotificationService {
             Notification notification = new Notification(
                     "CONTRACT_UPDATE",
                     "Your contract for " + contract.getSpace().getName() + " has been updated to " + contract.getStatus(),
-                    contract,
+                    NotificationDTO.contractStatus(contract),
                     tenantId.toString()
             );
-            messagingTemplate.convertAndSend("/queue/user." + tenantId, notification);
+            inbox.deliver(tenantId.toString(), notification);
         }
     }
 
@@ -83,13 +110,13 @@ public class NotificationService {
      * Send a direct notification to a specific user
      */
     public void sendDirectNotification(String userId, Notification notification) {
-        messagingTemplate.convertAndSend("/queue/user." + userId, notification);
+        inbox.deliver(userId, notification);
     }
 
     /**
      * Send a broadcast notification to all users
      */
     public void sendBroadcastNotification(Notification notification) {
-        messagingTemplate.convertAndSend("/topic/public", notification);
+        dispatcher.dispatch("/topic/public", notification);
     }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ParkingDTO;
+
+public interface ParkingReservationService {
+    ParkingDTO.ReservationDTO reserveSpots(Long parkingId, int spots);
+
+    ParkingDTO.ReservationDTO releaseSpots(Long parkingId, int spots);
+
+    ParkingDTO.ReservationDTO getAvailability(Long parkingId);
+
+    void flush();
+}
@@ -1,11 +1,13 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.CursorPageDTO;
 import com.example.demo.model.RentalContract;
 import java.util.List;
 
 public interface RentalContractService {
     RentalContract createContract(RentalContract contract);
     List<RentalContract> getAllContracts();
+    CursorPageDTO<RentalContract> getContractsPage(String sort, String cursor, int size);
     RentalContract getContractById(Long id);
     RentalContract updateContract(RentalContract contract);
     void terminateContract(Long id);
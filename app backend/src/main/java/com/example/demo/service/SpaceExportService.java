@@ -0,0 +1,8 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface SpaceExportService {
+    long exportSpaces(OutputStream out) throws IOException;
+}
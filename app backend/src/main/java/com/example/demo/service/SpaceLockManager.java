@@ -0,0 +1,150 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.MetricsDTO;
+import com.example.demo.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Lock-uri pe spații comerciale, împărțite pe un număr fix de benzi (striped locking).
+ *
+ * ID-ul spațiului este dispersat pe un tablou fix de ReentrantLock-uri, deci memoria
+ * nu crește cu numărul de spații. Operațiile pe același spațiu se execută pe rând,
+ * iar cele pe spații diferite rulează în paralel (cu excepția rarelor coliziuni de
+ * bandă). Timpii de așteptare la lock sunt măsurați și expuși prin metrics().
+ */
+@Component
+public class SpaceLockManager {
+
+    // Limitele superioare (în microsecunde) ale intervalelor din histograma timpilor de așteptare
+    private static final long[] WAIT_BUCKETS_MICROS = {100, 1_000, 10_000, 100_000, 1_000_000};
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final long timeoutMillis;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder[] waitHistogram = new LongAdder[WAIT_BUCKETS_MICROS.length + 1];
+
+    public SpaceLockManager(@Value("${app.locks.stripes:256}") int stripeCount,
+                            @Value("${app.locks.timeout-ms:5000}") long timeoutMillis) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("app.locks.stripes must be positive");
+        }
+        // Rotunjim la o putere a lui 2 ca banda să se aleagă cu o mască
+        int size = stripeCount == 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+        this.timeoutMillis = timeoutMillis;
+        for (int i = 0; i < waitHistogram.length; i++) {
+            waitHistogram[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Execută acțiunea ținând lock-ul spațiului dat.
+     * Fără ID (spațiu necunoscut) acțiunea rulează fără lock.
+     *
+     * @param spaceId ID-ul spațiului
+     * @param action acțiunea de executat
+     * @return rezultatul acțiunii
+     */
+    public <T> T withSpaceLock(Long spaceId, Supplier<T> action) {
+        if (spaceId == null) {
+            return action.get();
+        }
+        ReentrantLock lock = stripes[stripeOf(spaceId)];
+        acquire(lock, spaceId);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void withSpaceLock(Long spaceId, Runnable action) {
+        withSpaceLock(spaceId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Statisticile de așteptare la lock-uri de la pornirea aplicației.
+     */
+    public MetricsDTO.LockMetricsDTO metrics() {
+        long count = acquisitions.sum();
+        long waited = totalWaitNanos.sum();
+        long[] histogram = new long[waitHistogram.length];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = waitHistogram[i].sum();
+        }
+        return MetricsDTO.LockMetricsDTO.builder()
+                .stripes(stripes.length)
+                .acquisitions(count)
+                .contended(contended.sum())
+                .timeouts(timeouts.sum())
+                .totalWaitMs(TimeUnit.NANOSECONDS.toMillis(waited))
+                .averageWaitMicros(count > 0 ? TimeUnit.NANOSECONDS.toMicros(waited / count) : 0)
+                .maxWaitMicros(TimeUnit.NANOSECONDS.toMicros(maxWaitNanos.get()))
+                .waitBucketsMicros(WAIT_BUCKETS_MICROS.clone())
+                .waitHistogram(histogram)
+                .build();
+    }
+
+    private void acquire(ReentrantLock lock, Long spaceId) {
+        // Calea rapidă: lock liber, nu măsurăm nimic în afară de numărul de achiziții
+        if (lock.tryLock()) {
+            acquisitions.increment();
+            waitHistogram[0].increment();
+            return;
+        }
+
+        contended.increment();
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Interrupted while waiting for space " + spaceId);
+        }
+        long waited = System.nanoTime() - start;
+        record(waited);
+        if (!acquired) {
+            timeouts.increment();
+            throw new BusinessException("Space " + spaceId + " is busy, please try again");
+        }
+        acquisitions.increment();
+    }
+
+    private void record(long waitedNanos) {
+        totalWaitNanos.add(waitedNanos);
+        maxWaitNanos.accumulateAndGet(waitedNanos, Math::max);
+        long micros = TimeUnit.NANOSECONDS.toMicros(waitedNanos);
+        int bucket = 0;
+        while (bucket < WAIT_BUCKETS_MICROS.length && micros >= WAIT_BUCKETS_MICROS[bucket]) {
+            bucket++;
+        }
+        waitHistogram[bucket].increment();
+    }
+
+    private int stripeOf(long spaceId) {
+        // Amestecăm biții ca ID-urile consecutive (alocate în blocuri) să se distribuie uniform
+        long h = spaceId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
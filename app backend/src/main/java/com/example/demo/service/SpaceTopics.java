@@ -0,0 +1,94 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.NotificationDTO;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.index.GeoGrid;
+import com.example.demo.model.Building;
+import com.example.demo.model.ComercialSpace;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Destinațiile STOMP pentru evenimentele despre spații, împărțite geografic.
+ *
+ * Fiecare spațiu aparține unei celule a grilei de app.notifications.geo-cell-degrees
+ * grade, iar evenimentele lui se publică pe /topic/spaces/geo/{celulă}. Un client se
+ * abonează doar la celulele din viewport-ul hărții, deci primește doar evenimentele
+ * din zona pe care o vede. Topicul general /topic/spaces rămâne activ pentru clienții
+ * existenți cât timp app.notifications.legacy-space-topic este true.
+ */
+@Component
+public class SpaceTopics {
+
+    public static final String LEGACY_TOPIC = "/topic/spaces";
+    public static final String GEO_TOPIC_PREFIX = "/topic/spaces/geo/";
+
+    private final double cellDegrees;
+    private final int maxCells;
+    private final boolean legacyTopic;
+
+    @Autowired
+    public SpaceTopics(@Value("${app.notifications.geo-cell-degrees:0.5}") double cellDegrees,
+                       @Value("${app.notifications.geo-max-cells:64}") int maxCells,
+                       @Value("${app.notifications.legacy-space-topic:true}") boolean legacyTopic) {
+        if (cellDegrees <= 0 || cellDegrees > 180) {
+            throw new IllegalArgumentException("Geo cell size must be between 0 and 180 degrees");
+        }
+        this.cellDegrees = cellDegrees;
+        this.maxCells = maxCells;
+        this.legacyTopic = legacyTopic;
+    }
+
+    /**
+     * Destinațiile unui eveniment despre spațiu: celula lui și, dacă este activ, topicul general.
+     * Un spațiu fără coordonate folosește coordonatele clădirii; fără niciunele, doar topicul general.
+     */
+    public String[] destinationsFor(ComercialSpace space) {
+        String cell = cellOf(space);
+        if (cell == null) {
+            return new String[]{LEGACY_TOPIC};
+        }
+        return legacyTopic
+                ? new String[]{GEO_TOPIC_PREFIX + cell, LEGACY_TOPIC}
+                : new String[]{GEO_TOPIC_PREFIX + cell};
+    }
+
+    /**
+     * Celulele la care trebuie să se aboneze un client pentru viewport-ul dat.
+     * Dacă viewport-ul acoperă prea multe celule, clientul primește topicul general.
+     */
+    public NotificationDTO.GeoCellsDTO cellsFor(Double minLat, Double maxLat, Double minLng, Double maxLng) {
+        if (minLat == null || maxLat == null || minLng == null || maxLng == null) {
+            throw new BadRequestException("Viewport bounds are required");
+        }
+        if (minLat > maxLat || minLng > maxLng) {
+            throw new BadRequestException("Viewport minimum bounds cannot exceed maximum bounds");
+        }
+
+        List<String> cells = GeoGrid.cellNames(minLat, maxLat, minLng, maxLng, cellDegrees, maxCells);
+        NotificationDTO.GeoCellsDTO.GeoCellsDTOBuilder result = NotificationDTO.GeoCellsDTO.builder()
+                .cellDegrees(cellDegrees);
+        if (cells == null) {
+            return result.topics(List.of(LEGACY_TOPIC)).build();
+        }
+        return result
+                .cells(cells)
+                .topics(cells.stream().map(cell -> GEO_TOPIC_PREFIX + cell).collect(Collectors.toList()))
+                .build();
+    }
+
+    private String cellOf(ComercialSpace space) {
+        if (space.getLatitude() != null && space.getLongitude() != null) {
+            return GeoGrid.cellName(space.getLatitude(), space.getLongitude(), cellDegrees);
+        }
+        Building building = space.getBuilding();
+        if (building != null && building.getLatitude() != null && building.getLongitude() != null) {
+            return GeoGrid.cellName(building.getLatitude(), building.getLongitude(), cellDegrees);
+        }
+        return null;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.CursorPageDTO;
 import com.example.demo.model.RentalContract;
 import com.example.demo.model.User;
 import java.util.List;
@@ -7,6 +8,7 @@ import java.util.List;
 public interface UserService {
     User addUser(User user);
     List<User> getAllUsers();
+    CursorPageDTO<User> getUsersPage(String sort, String cursor, int size);
     User getUserById(Long id);
     void deleteUser(Long id);
     User updateUser(User user);
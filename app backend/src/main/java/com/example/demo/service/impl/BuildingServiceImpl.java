@@ -1,39 +1,56 @@
 // app backend/src/main/java/com/example/demo/service/impl/BuildingServiceImpl.java
 package com.example.demo.service.impl;
 
+import com.example.demo.dto.BuildingDTO;
+import com.example.demo.dto.CursorPageDTO;
+import com.example.demo.dto.KeysetCursor;
 import com.example.demo.exception.BadRequestException;
 import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.index.GeoGrid;
+import com.example.demo.index.SpaceIndexCoordinator;
+import com.example.demo.index.SpatialIndex;
 import com.example.demo.model.Building;
 import com.example.demo.repository.BuildingRepository;
+import com.example.demo.repository.ComercialSpaceRepository;
 import com.example.demo.service.BuildingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class BuildingServiceImpl implements BuildingService {
+    private static final int MAX_NEAREST_RESULTS = 100;
+
     private final BuildingRepository buildingRepository;
+    private final ComercialSpaceRepository spaceRepository;
+    private final SpatialIndex spatialIndex;
+    private final SpaceIndexCoordinator indexCoordinator;
 
     @Autowired
-    public BuildingServiceImpl(BuildingRepository buildingRepository) {
+    public BuildingServiceImpl(BuildingRepository buildingRepository,
+                               ComercialSpaceRepository spaceRepository,
+                               SpatialIndex spatialIndex,
+                               SpaceIndexCoordinator indexCoordinator) {
         this.buildingRepository = buildingRepository;
+        this.spaceRepository = spaceRepository;
+        this.spatialIndex = spatialIndex;
+        this.indexCoordinator = indexCoordinator;
     }
 
     @Override
     public Building addBuilding(Building building) {
         // Validation
-        if (building == null) {
-            throw new BadRequestException("Building cannot be null");
-        }
-        if (building.getName() == null || building.getName().isEmpty()) {
-            throw new BadRequestException("Building name is required");
-        }
-        if (building.getAddress() == null || building.getAddress().isEmpty()) {
-            throw new BadRequestException("Building address is required");
-        }
+        EntityValidator.validateNewBuilding(building);
 
-        return buildingRepository.save(building);
+        Building savedBuilding = buildingRepository.save(building);
+        indexCoordinator.buildingSaved(savedBuilding);
+        return savedBuilding;
     }
 
     @Override
@@ -41,6 +58,28 @@ public class BuildingServiceImpl implements BuildingService {
         return buildingRepository.findAll();
     }
 
+    @Override
+    public CursorPageDTO<Building> getBuildingsPage(String sort, String cursor, int size) {
+        Pageable limit = KeysetCursor.fetchLimit(size);
+        KeysetCursor after = cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor, sort) : null;
+
+        // Each page seeks past the last (sortKey, id) pair instead of skipping rows with OFFSET
+        switch (sort) {
+            case "id":
+                List<Building> byId = after == null
+                        ? buildingRepository.findAllByOrderByIdAsc(limit)
+                        : buildingRepository.findByIdGreaterThanOrderByIdAsc(after.getLastId(), limit);
+                return CursorPageDTO.of(byId, size, building -> new KeysetCursor(sort, building.getId(), null));
+            case "name":
+                List<Building> byName = after == null
+                        ? buildingRepository.findAllByOrderByNameAscIdAsc(limit)
+                        : buildingRepository.findPageAfterName(after.getLastValue(), after.getLastId(), limit);
+                return CursorPageDTO.of(byName, size, building -> new KeysetCursor(sort, building.getId(), building.getName()));
+            default:
+                throw new BadRequestException("Unsupported sort key: " + sort);
+        }
+    }
+
     @Override
     public Building getBuildingById(Long id) {
         if (id == null) {
@@ -72,11 +111,22 @@ public class BuildingServiceImpl implements BuildingService {
         }
 
         // Verify building exists
-        if (!buildingRepository.findById(building.getId()).isPresent()) {
+        Building existingBuilding = buildingRepository.findById(building.getId()).orElse(null);
+        if (existingBuilding == null) {
             throw new ResourceNotFoundException("Building not found with ID: " + building.getId());
         }
 
-        return buildingRepository.save(building);
+        // Read before saving: the merge copies the new values onto the managed instance
+        boolean moved = !Objects.equals(existingBuilding.getLatitude(), building.getLatitude())
+                || !Objects.equals(existingBuilding.getLongitude(), building.getLongitude());
+
+        Building updatedBuilding = buildingRepository.save(building);
+        indexCoordinator.buildingSaved(updatedBuilding);
+        if (moved) {
+            // Spaces without their own coordinates are indexed at their building's position
+            spaceRepository.findByBuildingId(updatedBuilding.getId()).forEach(indexCoordinator::spaceSaved);
+        }
+        return updatedBuilding;
     }
 
     @Override
@@ -91,5 +141,34 @@ public class BuildingServiceImpl implements BuildingService {
         }
 
         buildingRepository.deleteById(id);
+        indexCoordinator.buildingDeleted(id);
+    }
+
+    @Override
+    public List<BuildingDTO.MapDTO> getNearestBuildings(Double latitude, Double longitude, int k) {
+        EntityValidator.validateCoordinates(latitude, longitude);
+        if (k <= 0 || k > MAX_NEAREST_RESULTS) {
+            throw new BadRequestException("k must be between 1 and " + MAX_NEAREST_RESULTS);
+        }
+
+        List<GeoGrid.Hit> hits = spatialIndex.findNearestBuildings(latitude, longitude, k);
+        Map<Long, Building> byId = buildingRepository.findAllById(
+                        hits.stream().map(GeoGrid.Hit::getId).collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(Building::getId, Function.identity()));
+        return hits.stream()
+                .filter(hit -> byId.containsKey(hit.getId()))
+                .map(hit -> {
+                    Building building = byId.get(hit.getId());
+                    return BuildingDTO.MapDTO.builder()
+                            .id(building.getId())
+                            .name(building.getName())
+                            .address(building.getAddress())
+                            .latitude(building.getLatitude())
+                            .longitude(building.getLongitude())
+                            .buildingType(building.getBuildingType())
+                            .distanceKm(hit.getDistanceKm())
+                            .build();
+                })
+                .collect(Collectors.toList());
     }
 }
\ No newline at end of file
@@ -1,54 +1,83 @@
 // app backend/src/main/java/com/example/demo/service/impl/ComercialSpaceServiceImpl.java
 package com.example.demo.service.impl;
 
+import com.example.demo.constants.SpaceType;
+import com.example.demo.dto.ComercialSpaceDTO;
+import com.example.demo.dto.CursorPageDTO;
+import com.example.demo.dto.KeysetCursor;
 import com.example.demo.exception.BadRequestException;
 import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.index.FullTextIndex;
+import com.example.demo.index.GeoGrid;
+import com.example.demo.index.IndexPage;
+import com.example.demo.index.MapClusterIndex;
+import com.example.demo.index.SpaceIndexCoordinator;
+import com.example.demo.index.SpaceLeaderboard;
+import com.example.demo.index.SpaceSearchIndex;
+import com.example.demo.index.SpatialIndex;
 import com.example.demo.model.ComercialSpace;
 import com.example.demo.repository.ComercialSpaceRepository;
 import com.example.demo.service.ComercialSpaceService;
 import com.example.demo.service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class ComercialSpaceServiceImpl implements ComercialSpaceService {
+    private static final int MAX_VIEWPORT_RESULTS = 2000;
+    private static final int MAX_NEAREST_RESULTS = 100;
+    private static final int MAX_ZOOM = 22;
+    private static final int POINTS_MIN_ZOOM = 15;
+    private static final int MAX_TOP_RESULTS = 100;
+
     private final ComercialSpaceRepository spaceRepository;
     private final NotificationService notificationService;
+    private final SpaceIndexCoordinator indexCoordinator;
+    private final SpaceSearchIndex searchIndex;
+    private final SpatialIndex spatialIndex;
+    private final MapClusterIndex clusterIndex;
+    private final FullTextIndex fullTextIndex;
+    private final SpaceLeaderboard leaderboard;
 
     @Autowired
     public ComercialSpaceServiceImpl(ComercialSpaceRepository spaceRepository,
-                                     NotificationService notificationService) {
+                                     NotificationService notificationService,
+                                     SpaceIndexCoordinator indexCoordinator,
+                                     SpaceSearchIndex searchIndex,
+                                     SpatialIndex spatialIndex,
+                                     MapClusterIndex clusterIndex,
+                                     FullTextIndex fullTextIndex,
+                                     SpaceLeaderboard leaderboard) {
         this.spaceRepository = spaceRepository;
         this.notificationService = notificationService;
+        this.indexCoordinator = indexCoordinator;
+        this.searchIndex = searchIndex;
+        this.spatialIndex = spatialIndex;
+        this.clusterIndex = clusterIndex;
+        this.fullTextIndex = fullTextIndex;
+        this.leaderboard = leaderboard;
     }
 
     @Override
     public ComercialSpace addSpace(ComercialSpace space) {
         // Validation
-        if (space == null) {
-            throw new BadRequestException("Space cannot be null");
-        }
-        if (space.getName() == null || space.getName().isEmpty()) {
-            throw new BadRequestException("Space name is required");
-        }
-        if (space.getArea() == null || space.getArea() <= 0) {
-            throw new BadRequestException("Space area must be a positive value");
-        }
-        if (space.getPricePerMonth() == null || space.getPricePerMonth() <= 0) {
-            throw new BadRequestException("Space price must be a positive value");
-        }
-        if (space.getSpaceType() == null || space.getSpaceType().isEmpty()) {
-            throw new BadRequestException("Space type is required");
-        }
+        EntityValidator.validateNewSpace(space);
 
-        // Set next ID in sequence
-        space.setId((long) (spaceRepository.findAll().size() + 1));
+        // The ID is assigned on persist from the shared pooled generator (no table scan, no collisions)
+        space.setId(null);
 
         // Save space
         ComercialSpace savedSpace = spaceRepository.save(space);
+        indexCoordinator.spaceSaved(savedSpace);
 
         // Send notification about new space
         notificationService.notifyNewSpace(savedSpace);
@@ -61,6 +90,29 @@ public class ComercialSpaceServiceImpl implements ComercialSpaceService {
         return spaceRepository.findAll();
     }
 
+    @Override
+    public CursorPageDTO<ComercialSpace> getSpacesPage(String sort, String cursor, int size) {
+        Pageable limit = KeysetCursor.fetchLimit(size);
+        KeysetCursor after = cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor, sort) : null;
+
+        // Each page seeks past the last (sortKey, id) pair instead of skipping rows with OFFSET
+        switch (sort) {
+            case "id":
+                List<ComercialSpace> byId = after == null
+                        ? spaceRepository.findAllByOrderByIdAsc(limit)
+                        : spaceRepository.findByIdGreaterThanOrderByIdAsc(after.getLastId(), limit);
+                return CursorPageDTO.of(byId, size, space -> new KeysetCursor(sort, space.getId(), null));
+            case "price":
+                List<ComercialSpace> byPrice = after == null
+                        ? spaceRepository.findAllByOrderByPricePerMonthAscIdAsc(limit)
+                        : spaceRepository.findPageAfterPrice(after.getLastValue(Double::valueOf), after.getLastId(), limit);
+                return CursorPageDTO.of(byPrice, size,
+                        space -> new KeysetCursor(sort, space.getId(), String.valueOf(space.getPricePerMonth())));
+            default:
+                throw new BadRequestException("Unsupported sort key: " + sort);
+        }
+    }
+
     @Override
     public ComercialSpace getSpaceById(Long id) {
         ComercialSpace space = spaceRepository.findById(id);
@@ -89,8 +141,12 @@ public class ComercialSpaceServiceImpl implements ComercialSpaceService {
         // Check if status has changed for notification
         boolean statusChanged = existingSpace.getAvailable() != space.getAvailable();
 
+        // Recompute derived columns here: @PreUpdate does not run when only the amenities changed
+        space.updateDerivedColumns();
+
         // Update space
         ComercialSpace updatedSpace = spaceRepository.update(space);
+        indexCoordinator.spaceSaved(updatedSpace);
 
         // Send notification if status changed
         if (statusChanged) {
@@ -110,6 +166,7 @@ public class ComercialSpaceServiceImpl implements ComercialSpaceService {
 
         // Delete space
         spaceRepository.deleteById(id);
+        indexCoordinator.spaceDeleted(id);
 
         // Send notification about space deletion
         existingSpace.setAvailable(false);
@@ -117,42 +174,198 @@ public class ComercialSpaceServiceImpl implements ComercialSpaceService {
     }
 
     @Override
-    public List<ComercialSpace> getAvailableSpaces() {
-        return spaceRepository.findAll().stream()
-                .filter(ComercialSpace::getAvailable)
-                .collect(Collectors.toList());
+    public Page<ComercialSpaceDTO.ListDTO> getAvailableSpaces(Pageable pageable) {
+        return spaceRepository.findListByAvailable(true, pageable);
     }
 
     @Override
-    public List<ComercialSpace> getSpacesByType(String spaceType) {
+    public Page<ComercialSpaceDTO.ListDTO> getSpacesByType(String spaceType, Pageable pageable) {
         if (spaceType == null || spaceType.isEmpty()) {
             throw new BadRequestException("Space type cannot be null or empty");
         }
 
-        return spaceRepository.findAll().stream()
-                .filter(space -> spaceType.equalsIgnoreCase(space.getSpaceType()))
-                .collect(Collectors.toList());
+        SpaceType type;
+        try {
+            type = SpaceType.valueOf(spaceType.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown space type: " + spaceType);
+        }
+
+        return spaceRepository.findListBySpaceType(type, pageable);
     }
 
     @Override
-    public List<ComercialSpace> getSpacesByOwner(Long ownerId) {
+    public Page<ComercialSpaceDTO.ListDTO> getSpacesByOwner(Long ownerId, Pageable pageable) {
         if (ownerId == null) {
             throw new BadRequestException("Owner ID cannot be null");
         }
 
-        return spaceRepository.findAll().stream()
-                .filter(space -> space.getOwner() != null && space.getOwner().getId().equals(ownerId))
-                .collect(Collectors.toList());
+        return spaceRepository.findListByOwnerId(ownerId, pageable);
+    }
+
+    @Override
+    public Page<ComercialSpaceDTO.SummaryDTO> getSpaceSummariesByOwner(Long ownerId, Pageable pageable) {
+        if (ownerId == null) {
+            throw new BadRequestException("Owner ID cannot be null");
+        }
+
+        return spaceRepository.findSummariesByOwnerId(ownerId, pageable);
     }
 
     @Override
-    public List<ComercialSpace> getSpacesByBuilding(Long buildingId) {
+    public Page<ComercialSpaceDTO.ListDTO> getSpacesByBuilding(Long buildingId, Pageable pageable) {
         if (buildingId == null) {
             throw new BadRequestException("Building ID cannot be null");
         }
 
-        return spaceRepository.findAll().stream()
-                .filter(space -> space.getBuilding() != null && space.getBuilding().getId().equals(buildingId))
+        return spaceRepository.findListByBuildingId(buildingId, pageable);
+    }
+
+    @Override
+    public Page<ComercialSpace> searchSpaces(ComercialSpaceDTO.SearchDTO criteria, Pageable pageable) {
+        if (criteria == null) {
+            throw new BadRequestException("Search criteria cannot be null");
+        }
+
+        // Predicates are evaluated by the in-memory index; MySQL only serves primary key lookups for the page
+        IndexPage result = searchIndex.search(criteria, pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(findAllInOrder(result.getIds()), pageable, result.getTotal());
+    }
+
+    @Override
+    public ComercialSpaceDTO.FacetedSearchDTO searchSpacesWithFacets(ComercialSpaceDTO.SearchDTO criteria,
+                                                                     Pageable pageable) {
+        if (criteria == null) {
+            throw new BadRequestException("Search criteria cannot be null");
+        }
+
+        // Page and facet counts come from the same pass over the matching set
+        IndexPage result = searchIndex.search(criteria, pageable.getOffset(), pageable.getPageSize(), true);
+        return ComercialSpaceDTO.FacetedSearchDTO.builder()
+                .content(findAllInOrder(result.getIds()))
+                .page(pageable.getPageNumber())
+                .size(pageable.getPageSize())
+                .totalElements(result.getTotal())
+                .facets(result.getFacets())
+                .build();
+    }
+
+    @Override
+    public Page<ComercialSpace> searchSpacesByText(String query, Pageable pageable) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query cannot be null or empty");
+        }
+
+        // Ranking is done by the in-memory inverted index; the page is loaded by primary key in ranked order
+        IndexPage result = fullTextIndex.search(query, pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(findAllInOrder(result.getIds()), pageable, result.getTotal());
+    }
+
+    @Override
+    public List<ComercialSpace> getTopSpacesByPricePerSquareMeter(int limit, boolean highest) {
+        validateTopLimit(limit);
+
+        List<Long> ids = highest
+                ? leaderboard.highestPricePerSquareMeter(limit)
+                : leaderboard.lowestPricePerSquareMeter(limit);
+        return findAllInOrder(ids);
+    }
+
+    @Override
+    public List<ComercialSpace> getSpacesWithMostAmenities(int limit) {
+        validateTopLimit(limit);
+
+        return findAllInOrder(leaderboard.mostAmenities(limit));
+    }
+
+    @Override
+    public List<ComercialSpaceDTO.MapDTO> getSpacesInArea(Double minLat, Double maxLat,
+                                                          Double minLng, Double maxLng, int limit) {
+        validateViewport(minLat, maxLat, minLng, maxLng);
+        if (limit <= 0 || limit > MAX_VIEWPORT_RESULTS) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_VIEWPORT_RESULTS);
+        }
+
+        List<Long> ids = spatialIndex.findSpacesInArea(minLat, maxLat, minLng, maxLng, limit);
+        Map<Long, ComercialSpaceDTO.MapDTO> byId = findMapViews(ids);
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ComercialSpaceDTO.MapDTO> getNearestSpaces(Double latitude, Double longitude, int k) {
+        EntityValidator.validateCoordinates(latitude, longitude);
+        if (k <= 0 || k > MAX_NEAREST_RESULTS) {
+            throw new BadRequestException("k must be between 1 and " + MAX_NEAREST_RESULTS);
+        }
+
+        List<GeoGrid.Hit> hits = spatialIndex.findNearestSpaces(latitude, longitude, k);
+        Map<Long, ComercialSpaceDTO.MapDTO> byId = findMapViews(
+                hits.stream().map(GeoGrid.Hit::getId).collect(Collectors.toList()));
+        return hits.stream()
+                .filter(hit -> byId.containsKey(hit.getId()))
+                .map(hit -> {
+                    ComercialSpaceDTO.MapDTO dto = byId.get(hit.getId());
+                    dto.setDistanceKm(hit.getDistanceKm());
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public ComercialSpaceDTO.MapViewDTO getMapView(Double minLat, Double maxLat,
+                                                   Double minLng, Double maxLng, int zoom) {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            throw new BadRequestException("Zoom must be between 0 and " + MAX_ZOOM);
+        }
+
+        // Individual pins only once the viewport is small enough to show them
+        if (zoom >= POINTS_MIN_ZOOM) {
+            return ComercialSpaceDTO.MapViewDTO.builder()
+                    .zoom(zoom)
+                    .spaces(getSpacesInArea(minLat, maxLat, minLng, maxLng, MAX_VIEWPORT_RESULTS))
+                    .build();
+        }
+
+        validateViewport(minLat, maxLat, minLng, maxLng);
+        return ComercialSpaceDTO.MapViewDTO.builder()
+                .zoom(zoom)
+                .clusters(clusterIndex.clusters(minLat, maxLat, minLng, maxLng, zoom))
+                .build();
+    }
+
+    private void validateViewport(Double minLat, Double maxLat, Double minLng, Double maxLng) {
+        if (minLat == null || maxLat == null || minLng == null || maxLng == null) {
+            throw new BadRequestException("Viewport bounds are required");
+        }
+        if (minLat > maxLat || minLng > maxLng) {
+            throw new BadRequestException("Viewport minimum bounds cannot exceed maximum bounds");
+        }
+    }
+
+    private void validateTopLimit(int limit) {
+        if (limit <= 0 || limit > MAX_TOP_RESULTS) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_TOP_RESULTS);
+        }
+    }
+
+    private Map<Long, ComercialSpaceDTO.MapDTO> findMapViews(List<Long> ids) {
+        // Projection query: one statement, no lazy building/parking/amenity loads per row
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return spaceRepository.findMapViewsByIds(ids).stream()
+                .collect(Collectors.toMap(ComercialSpaceDTO.MapDTO::getId, Function.identity()));
+    }
+
+    private List<ComercialSpace> findAllInOrder(List<Long> ids) {
+        Map<Long, ComercialSpace> byId = spaceRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(ComercialSpace::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.model.Building;
+import com.example.demo.model.ComercialSpace;
+import com.example.demo.model.Parking;
+
+/**
+ * Regulile de validare comune pentru crearea entităților, folosite atât de
+ * operațiile individuale (addSpace, addBuilding) cât și de importul în masă.
+ */
+final class EntityValidator {
+
+    private EntityValidator() {
+    }
+
+    static void validateNewSpace(ComercialSpace space) {
+        if (space == null) {
+            throw new BadRequestException("Space cannot be null");
+        }
+        if (space.getName() == null || space.getName().isEmpty()) {
+            throw new BadRequestException("Space name is required");
+        }
+        if (space.getArea() == null || space.getArea() <= 0) {
+            throw new BadRequestException("Space area must be a positive value");
+        }
+        if (space.getPricePerMonth() == null || space.getPricePerMonth() <= 0) {
+            throw new BadRequestException("Space price must be a positive value");
+        }
+        if (space.getSpaceType() == null) {
+            throw new BadRequestException("Space type is required");
+        }
+    }
+
+    static void validateNewBuilding(Building building) {
+        if (building == null) {
+            throw new BadRequestException("Building cannot be null");
+        }
+        if (building.getName() == null || building.getName().isEmpty()) {
+            throw new BadRequestException("Building name is required");
+        }
+        if (building.getAddress() == null || building.getAddress().isEmpty()) {
+            throw new BadRequestException("Building address is required");
+        }
+    }
+
+    static void validateNewParking(Parking parking) {
+        if (parking == null) {
+            throw new BadRequestException("Parking cannot be null");
+        }
+        if (parking.getNumberOfSpots() == null || parking.getNumberOfSpots() <= 0) {
+            throw new BadRequestException("Parking number of spots must be a positive value");
+        }
+        if (parking.getPricePerSpot() != null && parking.getPricePerSpot() < 0) {
+            throw new BadRequestException("Parking price per spot cannot be negative");
+        }
+    }
+
+    static void validateCoordinates(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            throw new BadRequestException("Latitude and longitude are required");
+        }
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new BadRequestException("Coordinates are out of range");
+        }
+    }
+}
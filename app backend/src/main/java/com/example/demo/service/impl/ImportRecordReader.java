@@ -0,0 +1,199 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.ImportDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Citește un fișier de import rând cu rând, fără să-l încarce întreg în memorie.
+ *
+ * Fiecare rând devine o mapă coloană -> valoare, în aceeași formă ca un corp JSON
+ * trimis la endpoint-urile de creare. Pentru CSV prima linie este antetul, valorile
+ * goale sunt omise, iar coloanele de tip listă (ex. amenities) sunt separate prin ';'.
+ */
+final class ImportRecordReader implements Closeable {
+
+    private static final TypeReference<LinkedHashMap<String, Object>> ROW_TYPE = new TypeReference<>() {
+    };
+    private static final Set<String> LIST_COLUMNS = Set.of("amenities");
+    private static final char LIST_SEPARATOR = ';';
+    private static final char BOM = '\uFEFF';
+
+    private final BufferedReader reader;
+    private final ImportDTO.Format format;
+    private final ObjectMapper objectMapper;
+
+    private String[] header;
+    private long line;
+
+    ImportRecordReader(InputStream in, ImportDTO.Format format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Citește următorul rând.
+     *
+     * @return rândul citit sau null la sfârșitul fișierului
+     */
+    Row next() throws IOException {
+        return format == ImportDTO.Format.CSV ? nextCsv() : nextJson();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Row nextJson() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            line++;
+            if (text == null) {
+                return null;
+            }
+        } while (text.isBlank());
+
+        try {
+            return Row.of(line, objectMapper.readValue(text, ROW_TYPE));
+        } catch (JsonProcessingException e) {
+            return Row.error(line, "Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private Row nextCsv() throws IOException {
+        if (header == null) {
+            List<String> names = readCsvRecord();
+            if (names == null) {
+                return null;
+            }
+            if (!names.isEmpty() && !names.get(0).isEmpty() && names.get(0).charAt(0) == BOM) {
+                names.set(0, names.get(0).substring(1));
+            }
+            header = names.stream().map(String::trim).toArray(String[]::new);
+        }
+
+        List<String> cells;
+        long start;
+        do {
+            start = line + 1;
+            cells = readCsvRecord();
+            if (cells == null) {
+                return null;
+            }
+        } while (cells.size() == 1 && cells.get(0).isBlank());
+
+        if (cells.size() != header.length) {
+            return Row.error(start, "Expected " + header.length + " columns but found " + cells.size());
+        }
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            String cell = cells.get(i).trim();
+            if (cell.isEmpty()) {
+                continue;
+            }
+            if (LIST_COLUMNS.contains(header[i])) {
+                values.put(header[i], splitList(cell));
+            } else {
+                values.put(header[i], cell);
+            }
+        }
+        return Row.of(start, values);
+    }
+
+    /**
+     * Citește o înregistrare CSV (RFC 4180): câmpurile între ghilimele pot conține
+     * virgule, ghilimele dublate și linii noi.
+     */
+    private List<String> readCsvRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        line++;
+
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            char ch = (char) c;
+            if (quoted) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        cell.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (ch == '\n') {
+                        line++;
+                    }
+                    cell.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else if (ch == '\n') {
+                break;
+            } else if (ch != '\r') {
+                cell.append(ch);
+            }
+            c = reader.read();
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    private static List<String> splitList(String cell) {
+        List<String> items = new ArrayList<>();
+        for (String item : cell.split(String.valueOf(LIST_SEPARATOR))) {
+            if (!item.isBlank()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Un rând citit: valorile lui sau eroarea de parsare, cu numărul liniei de început.
+     */
+    static final class Row {
+        final long line;
+        final Map<String, Object> values;
+        final String error;
+
+        private Row(long line, Map<String, Object> values, String error) {
+            this.line = line;
+            this.values = values;
+            this.error = error;
+        }
+
+        static Row of(long line, Map<String, Object> values) {
+            return new Row(line, values, null);
+        }
+
+        static Row error(long line, String message) {
+            return new Row(line, null, message);
+        }
+    }
+}
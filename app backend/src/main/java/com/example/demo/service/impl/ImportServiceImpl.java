@@ -0,0 +1,381 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.ImportDTO;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.index.SpaceIndexCoordinator;
+import com.example.demo.model.Building;
+import com.example.demo.model.ComercialSpace;
+import com.example.demo.model.Owner;
+import com.example.demo.model.Parking;
+import com.example.demo.repository.BuildingRepository;
+import com.example.demo.repository.ComercialSpaceRepository;
+import com.example.demo.repository.OwnerRepository;
+import com.example.demo.service.ImportService;
+import com.example.demo.service.NotificationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class ImportServiceImpl implements ImportService {
+
+    // Relation columns accepted in import rows; everything else maps onto the entity as in the create endpoints
+    private static final String OWNER_ID = "ownerId";
+    private static final String BUILDING_ID = "buildingId";
+    private static final String BUILDING_NAME = "buildingName";
+    private static final String SPACE_ID = "spaceId";
+    private static final String LINK_PARKING_SQL = "UPDATE comercial_spaces SET parking_id = ? WHERE id = ?";
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final OwnerRepository ownerRepository;
+    private final BuildingRepository buildingRepository;
+    private final ComercialSpaceRepository spaceRepository;
+    private final SpaceIndexCoordinator indexCoordinator;
+    private final NotificationService notificationService;
+    private final int batchSize;
+
+    @Autowired
+    public ImportServiceImpl(EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             JdbcTemplate jdbcTemplate,
+                             ObjectMapper objectMapper,
+                             OwnerRepository ownerRepository,
+                             BuildingRepository buildingRepository,
+                             ComercialSpaceRepository spaceRepository,
+                             SpaceIndexCoordinator indexCoordinator,
+                             NotificationService notificationService,
+                             @Value("${app.import.batch-size:500}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("app.import.batch-size must be positive");
+        }
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.ownerRepository = ownerRepository;
+        this.buildingRepository = buildingRepository;
+        this.spaceRepository = spaceRepository;
+        this.indexCoordinator = indexCoordinator;
+        this.notificationService = notificationService;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public ImportDTO importBuildings(InputStream in, ImportDTO.Format format) throws IOException {
+        return runImport(ImportDTO.Kind.BUILDINGS, in, format, new BuildingWriter());
+    }
+
+    @Override
+    public ImportDTO importSpaces(InputStream in, ImportDTO.Format format) throws IOException {
+        return runImport(ImportDTO.Kind.SPACES, in, format, new SpaceWriter());
+    }
+
+    @Override
+    public ImportDTO importParkings(InputStream in, ImportDTO.Format format) throws IOException {
+        return runImport(ImportDTO.Kind.PARKINGS, in, format, new ParkingWriter());
+    }
+
+    /**
+     * Reads the file row by row and writes valid rows in chunks of batchSize, one transaction per chunk.
+     * Invalid rows are reported and skipped; a chunk that fails in the database is reported as a whole.
+     */
+    private <T> ImportDTO runImport(ImportDTO.Kind kind, InputStream in, ImportDTO.Format format,
+                                    ChunkWriter<T> writer) throws IOException {
+        long start = System.currentTimeMillis();
+        ImportDTO result = ImportDTO.builder().kind(kind).format(format).build();
+        List<T> chunk = new ArrayList<>(batchSize);
+        List<Long> lines = new ArrayList<>(batchSize);
+
+        try (ImportRecordReader reader = new ImportRecordReader(in, format, objectMapper)) {
+            ImportRecordReader.Row row;
+            while ((row = reader.next()) != null) {
+                result.setProcessed(result.getProcessed() + 1);
+                if (row.error != null) {
+                    result.reject(row.line, row.error);
+                    continue;
+                }
+                try {
+                    chunk.add(writer.convert(row.values));
+                    lines.add(row.line);
+                } catch (BadRequestException | IllegalArgumentException e) {
+                    result.reject(row.line, e.getMessage());
+                }
+                if (chunk.size() == batchSize) {
+                    writeChunk(writer, chunk, lines, result);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(writer, chunk, lines, result);
+        }
+
+        result.setDurationMs(System.currentTimeMillis() - start);
+        // One summary message for the whole import instead of one notification per row
+        notificationService.notifyImportCompleted(result);
+        return result;
+    }
+
+    private <T> void writeChunk(ChunkWriter<T> writer, List<T> chunk, List<Long> lines, ImportDTO result) {
+        try {
+            if (writeInTransaction(writer, chunk, lines, result)) {
+                result.setImported(result.getImported() + chunk.size());
+                writer.afterCommit(chunk);
+            }
+        } finally {
+            chunk.clear();
+            lines.clear();
+        }
+    }
+
+    private <T> boolean writeInTransaction(ChunkWriter<T> writer, List<T> chunk, List<Long> lines, ImportDTO result) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                writer.write(chunk);
+                entityManager.flush();
+                // Keep the persistence context from growing with the file
+                entityManager.clear();
+            });
+            return true;
+        } catch (RuntimeException e) {
+            writer.afterRollback(chunk);
+            String message = "Batch write failed: " + rootMessage(e);
+            for (Long line : lines) {
+                result.reject(line, message);
+            }
+            return false;
+        }
+    }
+
+    private <T> T toEntity(Map<String, Object> values, Class<T> type) {
+        // Ids are always assigned by the shared pooled generator
+        values.remove("id");
+        try {
+            return objectMapper.convertValue(values, type);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid row: " + rootMessage(e));
+        }
+    }
+
+    private static Long toLong(Object value, String column) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        try {
+            return Long.valueOf(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+
+    /**
+     * Converts rows into entities and writes one chunk of them.
+     */
+    private interface ChunkWriter<T> {
+        T convert(Map<String, Object> values);
+
+        void write(List<T> chunk);
+
+        void afterCommit(List<T> chunk);
+
+        void afterRollback(List<T> chunk);
+    }
+
+    private final class BuildingWriter implements ChunkWriter<Building> {
+
+        @Override
+        public Building convert(Map<String, Object> values) {
+            values.remove("spaces");
+            Building building = toEntity(values, Building.class);
+            EntityValidator.validateNewBuilding(building);
+            return building;
+        }
+
+        @Override
+        public void write(List<Building> chunk) {
+            chunk.forEach(entityManager::persist);
+        }
+
+        @Override
+        public void afterCommit(List<Building> chunk) {
+            chunk.forEach(indexCoordinator::buildingSaved);
+        }
+
+        @Override
+        public void afterRollback(List<Building> chunk) {
+            chunk.forEach(building -> building.setId(null));
+        }
+    }
+
+    private final class SpaceWriter implements ChunkWriter<ComercialSpace> {
+        private final Set<Long> ownerIds = new HashSet<>(ownerRepository.findAllIds());
+        private final Map<Long, Building> buildingsById = new HashMap<>();
+        private final Map<String, Building> buildingsByName = new HashMap<>();
+
+        SpaceWriter() {
+            // Id-only building references carrying the coordinates the spatial index falls back to
+            for (Object[] row : buildingRepository.findLookupRows()) {
+                Building building = Building.builder()
+                        .id((Long) row[0])
+                        .name((String) row[1])
+                        .latitude((Double) row[2])
+                        .longitude((Double) row[3])
+                        .build();
+                buildingsById.put(building.getId(), building);
+                if (building.getName() != null) {
+                    buildingsByName.putIfAbsent(building.getName().toLowerCase(Locale.ROOT), building);
+                }
+            }
+        }
+
+        @Override
+        public ComercialSpace convert(Map<String, Object> values) {
+            Long ownerId = toLong(values.remove(OWNER_ID), OWNER_ID);
+            Long buildingId = toLong(values.remove(BUILDING_ID), BUILDING_ID);
+            Object buildingName = values.remove(BUILDING_NAME);
+            values.keySet().removeAll(List.of("owner", "building", "parking", "contracts"));
+
+            ComercialSpace space = toEntity(values, ComercialSpace.class);
+            EntityValidator.validateNewSpace(space);
+
+            if (ownerId == null) {
+                throw new BadRequestException("Owner ID is required");
+            }
+            if (!ownerIds.contains(ownerId)) {
+                throw new BadRequestException("Owner not found with id: " + ownerId);
+            }
+            Owner owner = new Owner();
+            owner.setId(ownerId);
+            space.setOwner(owner);
+
+            if (buildingId != null) {
+                Building building = buildingsById.get(buildingId);
+                if (building == null) {
+                    throw new BadRequestException("Building not found with id: " + buildingId);
+                }
+                space.setBuilding(building);
+            } else if (buildingName != null) {
+                Building building = buildingsByName.get(buildingName.toString().trim().toLowerCase(Locale.ROOT));
+                if (building == null) {
+                    throw new BadRequestException("Building not found with name: " + buildingName);
+                }
+                space.setBuilding(building);
+            }
+            return space;
+        }
+
+        @Override
+        public void write(List<ComercialSpace> chunk) {
+            // Owner and building are detached id-only references, so no lookups are issued here
+            chunk.forEach(entityManager::persist);
+        }
+
+        @Override
+        public void afterCommit(List<ComercialSpace> chunk) {
+            chunk.forEach(indexCoordinator::spaceSaved);
+        }
+
+        @Override
+        public void afterRollback(List<ComercialSpace> chunk) {
+            chunk.forEach(space -> space.setId(null));
+        }
+    }
+
+    private final class ParkingWriter implements ChunkWriter<ParkingRow> {
+        private final Set<Long> spacesWithoutParking = new HashSet<>(spaceRepository.findIdsWithoutParking());
+
+        @Override
+        public ParkingRow convert(Map<String, Object> values) {
+            Long spaceId = toLong(values.remove(SPACE_ID), SPACE_ID);
+            values.remove("space");
+            Parking parking = toEntity(values, Parking.class);
+            EntityValidator.validateNewParking(parking);
+
+            if (spaceId == null) {
+                throw new BadRequestException("Space ID is required");
+            }
+            // Removing the id also rejects a second parking for the same space later in the file
+            if (!spacesWithoutParking.remove(spaceId)) {
+                throw new BadRequestException("Space not found or already has a parking: " + spaceId);
+            }
+            return new ParkingRow(spaceId, parking);
+        }
+
+        @Override
+        public void write(List<ParkingRow> chunk) {
+            for (ParkingRow row : chunk) {
+                entityManager.persist(row.parking);
+            }
+            entityManager.flush();
+
+            // The foreign key lives on comercial_spaces; link the whole chunk in one JDBC batch
+            List<Object[]> links = new ArrayList<>(chunk.size());
+            for (ParkingRow row : chunk) {
+                links.add(new Object[]{row.parking.getId(), row.spaceId});
+            }
+            jdbcTemplate.batchUpdate(LINK_PARKING_SQL, links);
+        }
+
+        @Override
+        public void afterCommit(List<ParkingRow> chunk) {
+            List<Long> spaceIds = chunk.stream().map(row -> row.spaceId).collect(Collectors.toList());
+            readOnlyTransactionTemplate.executeWithoutResult(status ->
+                    spaceRepository.findAllById(spaceIds).forEach(indexCoordinator::spaceSaved));
+        }
+
+        @Override
+        public void afterRollback(List<ParkingRow> chunk) {
+            for (ParkingRow row : chunk) {
+                row.parking.setId(null);
+                spacesWithoutParking.add(row.spaceId);
+            }
+        }
+    }
+
+    /**
+     * A parking row together with the space it belongs to.
+     */
+    private static final class ParkingRow {
+        final Long spaceId;
+        final Parking parking;
+
+        ParkingRow(Long spaceId, Parking parking) {
+            this.spaceId = spaceId;
+            this.parking = parking;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.example.demo.service.impl;
 import com.example.demo.model.*;
 import com.example.demo.repository.*;
 import com.example.demo.service.MockDataService;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
@@ -13,6 +14,7 @@ import java.util.Arrays;
 import java.util.List;
 
 @Service
+@DependsOn("idBlockSeeder") // generatorul de ID-uri trebuie aliniat înainte de primele inserări
 public class MockDataServiceImpl implements MockDataService {
     private final UserRepository userRepository;
     private final BuildingRepository buildingRepository;
@@ -0,0 +1,60 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.MetricsDTO;
+import com.example.demo.service.ClusterRelay;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Relay pentru o singură instanță: nu trimite și nu primește nimic și deține toate inbox-urile.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cluster.relay", havingValue = "none", matchIfMissing = true)
+public class NoopClusterRelay implements ClusterRelay {
+
+    @Override
+    public void start(Listener listener) {
+    }
+
+    @Override
+    public void publish(String[] destinations, byte[] body) {
+    }
+
+    @Override
+    public boolean ownsInbox(String userId) {
+        return true;
+    }
+
+    @Override
+    public void forwardToInboxOwner(String userId, byte[] notification) {
+        throw new IllegalStateException("A single instance owns every inbox");
+    }
+
+    @Override
+    public void replicateInbox(String userId, byte[] notification) {
+    }
+
+    @Override
+    public void setInboxListener(InboxListener listener) {
+    }
+
+    @Override
+    public void publishIndexChange(IndexedEntity entity, Long id, boolean deleted) {
+    }
+
+    @Override
+    public void setIndexListener(IndexListener listener) {
+    }
+
+    @Override
+    public boolean isClustered() {
+        return false;
+    }
+
+    @Override
+    public MetricsDTO.RelayMetricsDTO metrics() {
+        return MetricsDTO.RelayMetricsDTO.builder()
+                .relay("none")
+                .build();
+    }
+}
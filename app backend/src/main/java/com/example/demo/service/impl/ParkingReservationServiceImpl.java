@@ -0,0 +1,281 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.ParkingDTO;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.model.Parking;
+import com.example.demo.repository.ParkingRepository;
+import com.example.demo.service.ClusterRelay;
+import com.example.demo.service.ParkingReservationService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rezervările de locuri de parcare.
+ *
+ * Pe o singură instanță ele trec prin registrul din memorie (ParkingSpotLedger), scris
+ * amânat în baza de date. Cu mai multe instanțe (ClusterRelay.isClustered()) fiecare ar
+ * avea propriul registru și ar putea vinde aceleași locuri de două ori, așa că fiecare
+ * rezervare sau eliberare devine un singur UPDATE condiționat în baza de date, comun
+ * tuturor instanțelor.
+ */
+@Slf4j
+@Service
+public class ParkingReservationServiceImpl implements ParkingReservationService {
+    private static final String FLUSH_SQL = "UPDATE parkings SET reserved_spots = ? WHERE id = ?";
+    private static final String RESERVE_SQL = "UPDATE parkings SET reserved_spots = COALESCE(reserved_spots, 0) + ? "
+            + "WHERE id = ? AND COALESCE(reserved_spots, 0) + ? <= number_of_spots";
+    private static final String RELEASE_SQL = "UPDATE parkings SET reserved_spots = reserved_spots - ? "
+            + "WHERE id = ? AND reserved_spots >= ?";
+    private static final String COUNTS_SQL = "SELECT number_of_spots, COALESCE(reserved_spots, 0) FROM parkings WHERE id = ?";
+
+    private final ParkingRepository parkingRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+    // Several instances: the database is the only counter they share
+    private final boolean shared;
+    private final long flushIntervalMillis;
+    private final ParkingSpotLedger ledger = new ParkingSpotLedger();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "parking-ledger-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public ParkingReservationServiceImpl(ParkingRepository parkingRepository,
+                                         JdbcTemplate jdbcTemplate,
+                                         EntityManagerFactory entityManagerFactory,
+                                         PlatformTransactionManager transactionManager,
+                                         ClusterRelay clusterRelay,
+                                         @Value("${app.parking.flush-interval-ms:1000}") long flushIntervalMillis) {
+        this.parkingRepository = parkingRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shared = clusterRelay.isClustered();
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    @PostConstruct
+    public void startFlusher() {
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Keeps the ledger in step with JPA changes to parkings, including cascades from ComercialSpace:
+     * a committed update resizes the cached capacity and a committed delete evicts the parking.
+     * reserved_spots itself is not updatable through JPA, so a merge cannot overwrite the ledger's value.
+     */
+    @PostConstruct
+    public void registerParkingListener() {
+        ParkingChangeListener listener = new ParkingChangeListener();
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+    }
+
+    @PreDestroy
+    public void stopFlusher() {
+        flusher.shutdown();
+        // Write the last changes before the application stops
+        flush();
+    }
+
+    @Override
+    public ParkingDTO.ReservationDTO reserveSpots(Long parkingId, int spots) {
+        validateSpots(spots);
+        if (shared) {
+            return updateShared(parkingId, RESERVE_SQL, spots, (capacity, reserved) ->
+                    new BadRequestException("Not enough free spots in parking " + parkingId
+                            + ": requested " + spots + ", available " + Math.max(0, capacity - reserved)));
+        }
+        ensureLoaded(parkingId);
+
+        int reserved = ledger.reserve(parkingId, spots);
+        if (reserved == ParkingSpotLedger.REJECTED) {
+            throw new BadRequestException("Not enough free spots in parking " + parkingId
+                    + ": requested " + spots + ", available " + (ledger.capacity(parkingId) - ledger.reserved(parkingId)));
+        }
+        return toReservationDTO(parkingId, reserved);
+    }
+
+    @Override
+    public ParkingDTO.ReservationDTO releaseSpots(Long parkingId, int spots) {
+        validateSpots(spots);
+        if (shared) {
+            return updateShared(parkingId, RELEASE_SQL, spots, (capacity, reserved) ->
+                    new BadRequestException("Cannot release " + spots + " spots in parking " + parkingId
+                            + ": only " + reserved + " are reserved"));
+        }
+        ensureLoaded(parkingId);
+
+        int reserved = ledger.release(parkingId, spots);
+        if (reserved == ParkingSpotLedger.REJECTED) {
+            throw new BadRequestException("Cannot release " + spots + " spots in parking " + parkingId
+                    + ": only " + ledger.reserved(parkingId) + " are reserved");
+        }
+        return toReservationDTO(parkingId, reserved);
+    }
+
+    @Override
+    public ParkingDTO.ReservationDTO getAvailability(Long parkingId) {
+        if (shared) {
+            int[] counts = readCounts(parkingId);
+            return toReservationDTO(parkingId, counts[0], counts[1]);
+        }
+        ensureLoaded(parkingId);
+        return toReservationDTO(parkingId, ledger.reserved(parkingId));
+    }
+
+    /**
+     * Writes the reserved counts of all parkings changed since the last flush in one JDBC batch.
+     */
+    @Override
+    public void flush() {
+        Map<Long, Integer> changed = ledger.drainDirty();
+        if (changed.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(changed.size());
+        changed.forEach((parkingId, reserved) -> rows.add(new Object[]{reserved, parkingId}));
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, rows);
+        } catch (RuntimeException e) {
+            // Keep the changes queued; the next flush writes the then-current values
+            ledger.markDirty(changed.keySet());
+            throw e;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Already re-queued in flush(); rethrowing here would cancel the scheduled task
+            log.warn("Parking ledger flush failed; the changes will be retried on the next flush", e);
+        }
+    }
+
+    /**
+     * Rezervă sau eliberează locuri cu un UPDATE condiționat. Numerele raportate sunt citite
+     * în aceeași tranzacție, cât rândul este încă blocat de UPDATE.
+     */
+    private ParkingDTO.ReservationDTO updateShared(Long parkingId, String sql, int spots, Rejection rejection) {
+        return transactionTemplate.execute(status -> {
+            int updated = jdbcTemplate.update(sql, spots, parkingId, spots);
+            int[] counts = readCounts(parkingId);
+            if (updated == 0) {
+                throw rejection.of(counts[0], counts[1]);
+            }
+            return toReservationDTO(parkingId, counts[0], counts[1]);
+        });
+    }
+
+    private int[] readCounts(Long parkingId) {
+        if (parkingId == null) {
+            throw new BadRequestException("Parking ID cannot be null");
+        }
+        return jdbcTemplate.query(COUNTS_SQL, rs -> {
+            if (!rs.next()) {
+                throw new ResourceNotFoundException("Parking not found with ID: " + parkingId);
+            }
+            return new int[]{rs.getInt(1), rs.getInt(2)};
+        }, parkingId);
+    }
+
+    private void ensureLoaded(Long parkingId) {
+        if (parkingId == null) {
+            throw new BadRequestException("Parking ID cannot be null");
+        }
+        if (ledger.isLoaded(parkingId)) {
+            return;
+        }
+        Parking parking = parkingRepository.findById(parkingId)
+                .orElseThrow(() -> new ResourceNotFoundException("Parking not found with ID: " + parkingId));
+        ledger.load(parkingId,
+                parking.getNumberOfSpots() != null ? parking.getNumberOfSpots() : 0,
+                parking.getReservedSpots() != null ? parking.getReservedSpots() : 0);
+    }
+
+    private static void validateSpots(int spots) {
+        if (spots <= 0) {
+            throw new BadRequestException("Number of spots must be a positive value");
+        }
+    }
+
+    private ParkingDTO.ReservationDTO toReservationDTO(Long parkingId, int reserved) {
+        return toReservationDTO(parkingId, ledger.capacity(parkingId), reserved);
+    }
+
+    private static ParkingDTO.ReservationDTO toReservationDTO(Long parkingId, int capacity, int reserved) {
+        return ParkingDTO.ReservationDTO.builder()
+                .parkingId(parkingId)
+                .numberOfSpots(capacity)
+                .reservedSpots(reserved)
+                // A parking shrunk below its reservations has no free spots, not a negative number
+                .availableSpots(Math.max(0, capacity - reserved))
+                .build();
+    }
+
+    private interface Rejection {
+        BadRequestException of(int capacity, int reserved);
+    }
+
+    private final class ParkingChangeListener implements PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            if (event.getEntity() instanceof Parking parking) {
+                ledger.resize(parking.getId(), parking.getNumberOfSpots() != null ? parking.getNumberOfSpots() : 0);
+            }
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            if (event.getEntity() instanceof Parking parking) {
+                ledger.evict(parking.getId());
+            }
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+            // Rolled back: the cached capacity is still the committed one
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+            // Rolled back: the parking still exists
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return Parking.class.equals(persister.getMappedClass());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.demo.service.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registrul din memorie al locurilor de parcare rezervate.
+ *
+ * Fiecare parcare are o stare atomică (capacitate și locuri rezervate într-un
+ * singur long), modificată doar prin bucle CAS: o rezervare, o eliberare sau o
+ * schimbare de capacitate este o singură operație compareAndSet, deci operațiile
+ * sunt liniarizabile și nu se pot vinde mai multe locuri decât capacitatea.
+ * Parcările diferite nu împart niciun contor, deci nu se blochează între ele. Parcările modificate sunt marcate "dirty" pentru scrierea amânată
+ * (write-behind) în baza de date.
+ */
+final class ParkingSpotLedger {
+
+    /** Rezultatul unei operații respinse (locuri insuficiente sau eliberare peste cele rezervate). */
+    static final int REJECTED = -1;
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    boolean isLoaded(Long parkingId) {
+        return counters.containsKey(parkingId);
+    }
+
+    /**
+     * Încarcă starea unei parcări; dacă este deja încărcată, starea din memorie are prioritate.
+     */
+    void load(Long parkingId, int capacity, int reserved) {
+        int clamped = Math.max(0, Math.min(reserved, capacity));
+        counters.putIfAbsent(parkingId, new Counter(capacity, clamped));
+    }
+
+    /**
+     * Rezervă locuri dacă mai sunt suficiente libere.
+     *
+     * @return numărul de locuri rezervate după operație sau REJECTED
+     */
+    int reserve(Long parkingId, int spots) {
+        Counter counter = counter(parkingId);
+        while (true) {
+            long state = counter.state.get();
+            int capacity = Counter.capacity(state);
+            int reserved = Counter.reserved(state);
+            if (spots > capacity - reserved) {
+                return REJECTED;
+            }
+            if (counter.state.compareAndSet(state, Counter.pack(capacity, reserved + spots))) {
+                dirty.add(parkingId);
+                return reserved + spots;
+            }
+        }
+    }
+
+    /**
+     * Eliberează locuri rezervate.
+     *
+     * @return numărul de locuri rezervate după operație sau REJECTED dacă se eliberează mai multe decât sunt rezervate
+     */
+    int release(Long parkingId, int spots) {
+        Counter counter = counter(parkingId);
+        while (true) {
+            long state = counter.state.get();
+            int reserved = Counter.reserved(state);
+            if (spots > reserved) {
+                return REJECTED;
+            }
+            if (counter.state.compareAndSet(state, Counter.pack(Counter.capacity(state), reserved - spots))) {
+                dirty.add(parkingId);
+                return reserved - spots;
+            }
+        }
+    }
+
+    /**
+     * Schimbă capacitatea unei parcări încărcate, păstrând locurile rezervate.
+     * Dacă noua capacitate este sub numărul de locuri rezervate, rezervările noi
+     * sunt respinse până când se eliberează suficiente locuri.
+     */
+    void resize(Long parkingId, int capacity) {
+        Counter counter = counters.get(parkingId);
+        if (counter == null) {
+            return;
+        }
+        long state;
+        do {
+            state = counter.state.get();
+        } while (!counter.state.compareAndSet(state, Counter.pack(capacity, Counter.reserved(state))));
+    }
+
+    /**
+     * Scoate o parcare din registru (ex. după ștergere); următoarea folosire o reîncarcă din baza de date.
+     */
+    void evict(Long parkingId) {
+        counters.remove(parkingId);
+        dirty.remove(parkingId);
+    }
+
+    int reserved(Long parkingId) {
+        return Counter.reserved(counter(parkingId).state.get());
+    }
+
+    int capacity(Long parkingId) {
+        return Counter.capacity(counter(parkingId).state.get());
+    }
+
+    /**
+     * Scoate parcările modificate din lista "dirty" și returnează valoarea lor curentă.
+     * O parcare este scoasă din listă înainte de citire, deci o modificare ulterioară
+     * o marchează din nou și ajunge la următoarea scriere.
+     */
+    Map<Long, Integer> drainDirty() {
+        Map<Long, Integer> snapshot = new HashMap<>();
+        for (Long parkingId : dirty) {
+            if (dirty.remove(parkingId)) {
+                Counter counter = counters.get(parkingId);
+                // An evicted parking has nothing left to write
+                if (counter != null) {
+                    snapshot.put(parkingId, Counter.reserved(counter.state.get()));
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Marchează din nou parcările a căror scriere a eșuat.
+     */
+    void markDirty(Iterable<Long> parkingIds) {
+        parkingIds.forEach(dirty::add);
+    }
+
+    private Counter counter(Long parkingId) {
+        Counter counter = counters.get(parkingId);
+        if (counter == null) {
+            throw new IllegalStateException("Parking " + parkingId + " is not loaded in the ledger");
+        }
+        return counter;
+    }
+
+    private static final class Counter {
+        // Capacity in the high 32 bits, reserved spots in the low 32 bits
+        final AtomicLong state;
+
+        Counter(int capacity, int reserved) {
+            this.state = new AtomicLong(pack(capacity, reserved));
+        }
+
+        static long pack(int capacity, int reserved) {
+            return ((long) capacity << 32) | (reserved & 0xFFFFFFFFL);
+        }
+
+        static int capacity(long state) {
+            return (int) (state >>> 32);
+        }
+
+        static int reserved(long state) {
+            return (int) state;
+        }
+    }
+}
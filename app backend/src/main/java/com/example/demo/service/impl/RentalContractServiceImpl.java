@@ -1,17 +1,25 @@
 // app backend/src/main/java/com/example/demo/service/impl/RentalContractServiceImpl.java
 package com.example.demo.service.impl;
 
+import com.example.demo.dto.CursorPageDTO;
+import com.example.demo.dto.KeysetCursor;
 import com.example.demo.exception.BadRequestException;
 import com.example.demo.exception.BusinessException;
 import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.index.SpaceIndexCoordinator;
 import com.example.demo.model.ComercialSpace;
 import com.example.demo.model.RentalContract;
 import com.example.demo.repository.RentalContractRepository;
 import com.example.demo.repository.ComercialSpaceRepository;
 import com.example.demo.service.NotificationService;
 import com.example.demo.service.RentalContractService;
+import com.example.demo.service.SpaceLockManager;
+import com.example.demo.util.ContractNumberGenerator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -22,14 +30,23 @@ public class RentalContractServiceImpl implements RentalContractService {
     private final RentalContractRepository contractRepository;
     private final ComercialSpaceRepository spaceRepository;
     private final NotificationService notificationService;
+    private final SpaceIndexCoordinator indexCoordinator;
+    private final SpaceLockManager spaceLocks;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
     public RentalContractServiceImpl(RentalContractRepository contractRepository,
                                      ComercialSpaceRepository spaceRepository,
-                                     NotificationService notificationService) {
+                                     NotificationService notificationService,
+                                     SpaceIndexCoordinator indexCoordinator,
+                                     SpaceLockManager spaceLocks,
+                                     PlatformTransactionManager transactionManager) {
         this.contractRepository = contractRepository;
         this.spaceRepository = spaceRepository;
         this.notificationService = notificationService;
+        this.indexCoordinator = indexCoordinator;
+        this.spaceLocks = spaceLocks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -54,18 +71,35 @@ public class RentalContractServiceImpl implements RentalContractService {
             throw new BadRequestException("Monthly rent must be a positive value");
         }
 
-        // Verify space exists and is available
+        // Mutations of one space run one at a time; the transaction commits before the lock is released
+        RentalContract savedContract = spaceLocks.withSpaceLock(contract.getSpace().getId(),
+                () -> transactionTemplate.execute(status -> bookSpace(contract)));
+
+        // Send notification to space owner
+        notificationService.notifyOwnerAboutNewContract(savedContract);
+
+        return savedContract;
+    }
+
+    private RentalContract bookSpace(RentalContract contract) {
+        // Verify space exists
         ComercialSpace space = contract.getSpace();
-        ComercialSpace existingSpace = spaceRepository.findById(space.getId());
-        if (existingSpace == null) {
+        if (spaceRepository.findById(space.getId()) == null) {
             throw new ResourceNotFoundException("Space not found with ID: " + space.getId());
         }
-        if (!existingSpace.getAvailable()) {
+
+        // Book the space with one conditional UPDATE: of concurrent requests only one changes the row
+        if (spaceRepository.reserveIfAvailable(space.getId()) == 0) {
             throw new BadRequestException("The selected space is not available for rent");
         }
 
+        // The UPDATE cleared the persistence context: read the booked space again so the
+        // indexes and the owner notification work on a managed entity, not a detached one
+        ComercialSpace bookedSpace = spaceRepository.findById(space.getId());
+        contract.setSpace(bookedSpace);
+
         // Generate a contract number
-        contract.setContractNumber("RENT-" + System.currentTimeMillis());
+        contract.setContractNumber(ContractNumberGenerator.getInstance().nextContractNumber());
 
         // Set the creation date to now
         contract.setDateCreated(LocalDate.now());
@@ -75,15 +109,10 @@ public class RentalContractServiceImpl implements RentalContractService {
             contract.setStatus(RentalContract.ContractStatus.valueOf("ACTIVE"));
         }
 
-        // Mark the space as unavailable
-        existingSpace.setAvailable(false);
-        spaceRepository.update(existingSpace);
-
-        // Save contract
+        // Save contract (a failure rolls back the booking as well)
         RentalContract savedContract = contractRepository.save(contract);
 
-        // Send notification to space owner
-        notificationService.notifyOwnerAboutNewContract(savedContract);
+        indexCoordinator.spaceSaved(bookedSpace);
 
         return savedContract;
     }
@@ -93,6 +122,29 @@ public class RentalContractServiceImpl implements RentalContractService {
         return contractRepository.findAll();
     }
 
+    @Override
+    public CursorPageDTO<RentalContract> getContractsPage(String sort, String cursor, int size) {
+        Pageable limit = KeysetCursor.fetchLimit(size);
+        KeysetCursor after = cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor, sort) : null;
+
+        // Each page seeks past the last (sortKey, id) pair instead of skipping rows with OFFSET
+        switch (sort) {
+            case "id":
+                List<RentalContract> byId = after == null
+                        ? contractRepository.findAllByOrderByIdAsc(limit)
+                        : contractRepository.findByIdGreaterThanOrderByIdAsc(after.getLastId(), limit);
+                return CursorPageDTO.of(byId, size, contract -> new KeysetCursor(sort, contract.getId(), null));
+            case "startDate":
+                List<RentalContract> byStartDate = after == null
+                        ? contractRepository.findAllByOrderByStartDateAscIdAsc(limit)
+                        : contractRepository.findPageAfterStartDate(after.getLastValue(LocalDate::parse), after.getLastId(), limit);
+                return CursorPageDTO.of(byStartDate, size,
+                        contract -> new KeysetCursor(sort, contract.getId(), String.valueOf(contract.getStartDate())));
+            default:
+                throw new BadRequestException("Unsupported sort key: " + sort);
+        }
+    }
+
     @Override
     public RentalContract getContractById(Long id) {
         RentalContract contract = contractRepository.findById(id);
@@ -135,6 +187,26 @@ public class RentalContractServiceImpl implements RentalContractService {
     @Override
     public void terminateContract(Long id) {
         // Check if contract exists
+        RentalContract found = contractRepository.findById(id);
+        if (found == null) {
+            throw new ResourceNotFoundException("Contract not found with ID: " + id);
+        }
+
+        Long spaceId = found.getSpace() != null ? found.getSpace().getId() : null;
+        RentalContract contract = spaceLocks.withSpaceLock(spaceId,
+                () -> transactionTemplate.execute(status -> releaseSpace(id)));
+
+        if (contract.getSpace() != null) {
+            // Send notification about space availability
+            notificationService.notifySpaceStatusChange(contract.getSpace());
+        }
+
+        // Send notification to tenant about contract termination
+        notificationService.notifyTenantAboutContractChange(contract);
+    }
+
+    private RentalContract releaseSpace(Long id) {
+        // Re-read under the lock so a concurrent change of the same contract is not overwritten
         RentalContract contract = contractRepository.findById(id);
         if (contract == null) {
             throw new ResourceNotFoundException("Contract not found with ID: " + id);
@@ -149,13 +221,9 @@ public class RentalContractServiceImpl implements RentalContractService {
         if (space != null) {
             space.setAvailable(true);
             spaceRepository.update(space);
-
-            // Send notification about space availability
-            notificationService.notifySpaceStatusChange(space);
+            indexCoordinator.spaceSaved(space);
         }
-
-        // Send notification to tenant about contract termination
-        notificationService.notifyTenantAboutContractChange(contract);
+        return contract;
     }
 
     @Override
@@ -221,6 +289,28 @@ public class RentalContractServiceImpl implements RentalContractService {
             throw new BadRequestException("New end date cannot be in the past");
         }
 
+        Long spaceId = existingContract.getSpace() != null ? existingContract.getSpace().getId() : null;
+        RentalContract renewedContract = spaceLocks.withSpaceLock(spaceId,
+                () -> transactionTemplate.execute(status -> renew(contractId, renewalDetails)));
+
+        // Send notifications
+        notificationService.notifyTenantAboutContractChange(renewedContract);
+        notificationService.notifyOwnerAboutNewContract(renewedContract);
+
+        return renewedContract;
+    }
+
+    private RentalContract renew(Long contractId, RentalContract renewalDetails) {
+        // Re-read under the lock so two renewals of the same contract do not both succeed
+        RentalContract existingContract = contractRepository.findById(contractId);
+        if (existingContract == null) {
+            throw new ResourceNotFoundException("Contract not found with ID: " + contractId);
+        }
+        if (RentalContract.ContractStatus.EXPIRED.equals(existingContract.getStatus())
+                || RentalContract.ContractStatus.TERMINATED.equals(existingContract.getStatus())) {
+            throw new BadRequestException("Contract " + contractId + " has already ended and cannot be renewed");
+        }
+
         try {
             // Create a new contract based on the existing one with new dates
             RentalContract newContract = new RentalContract();
@@ -243,14 +333,9 @@ public class RentalContractServiceImpl implements RentalContractService {
             contractRepository.update(existingContract);
 
             // Save new contract
-            RentalContract renewedContract = contractRepository.save(newContract);
-
-            // Send notifications
-            notificationService.notifyTenantAboutContractChange(renewedContract);
-            notificationService.notifyOwnerAboutNewContract(renewedContract);
-
-            return renewedContract;
+            return contractRepository.save(newContract);
         } catch (Exception e) {
             throw new BusinessException("Failed to renew contract: " + e.getMessage(), e);
         }
-    }
\ No newline at end of file
+    }
+}
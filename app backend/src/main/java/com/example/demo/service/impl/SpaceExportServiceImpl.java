@@ -0,0 +1,99 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.ComercialSpaceDTO;
+import com.example.demo.model.ComercialSpace;
+import com.example.demo.repository.ComercialSpaceRepository;
+import com.example.demo.service.SpaceExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+public class SpaceExportServiceImpl implements SpaceExportService {
+    private static final int CHUNK_SIZE = 500;
+    private static final byte NEWLINE = '\n';
+
+    private final ComercialSpaceRepository spaceRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public SpaceExportServiceImpl(ComercialSpaceRepository spaceRepository,
+                                  EntityManager entityManager,
+                                  ObjectMapper objectMapper) {
+        this.spaceRepository = spaceRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportSpaces(OutputStream out) throws IOException {
+        long exported = 0;
+        Pageable limit = PageRequest.of(0, CHUNK_SIZE);
+
+        // Keyset chunks: each query seeks past the last exported ID, so neither the driver
+        // nor the persistence context ever holds more than one chunk of the catalog
+        List<ComercialSpace> chunk = spaceRepository.findAllByOrderByIdAsc(limit);
+        while (!chunk.isEmpty()) {
+            Long lastId = chunk.get(chunk.size() - 1).getId();
+            exported += writeChunk(chunk, out);
+            // Detach the written entities so the persistence context does not grow with the catalog
+            entityManager.clear();
+            chunk = chunk.size() < CHUNK_SIZE
+                    ? List.of()
+                    : spaceRepository.findByIdGreaterThanOrderByIdAsc(lastId, limit);
+        }
+
+        out.flush();
+        return exported;
+    }
+
+    private int writeChunk(List<ComercialSpace> chunk, OutputStream out) throws IOException {
+        // One query for the amenities of the whole chunk instead of one lazy load per space
+        Map<Long, List<String>> amenities = new HashMap<>();
+        List<Long> ids = chunk.stream().map(ComercialSpace::getId).collect(Collectors.toList());
+        for (Object[] row : spaceRepository.findAmenitiesBySpaceIds(ids)) {
+            amenities.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((String) row[1]);
+        }
+
+        for (ComercialSpace space : chunk) {
+            out.write(objectMapper.writeValueAsBytes(toExportDTO(space, amenities.getOrDefault(space.getId(), List.of()))));
+            out.write(NEWLINE);
+        }
+        return chunk.size();
+    }
+
+    private ComercialSpaceDTO.ExportDTO toExportDTO(ComercialSpace space, List<String> amenities) {
+        // getId() on a lazy proxy returns the foreign key without loading the owner or building
+        return ComercialSpaceDTO.ExportDTO.builder()
+                .id(space.getId())
+                .name(space.getName())
+                .description(space.getDescription())
+                .area(space.getArea())
+                .pricePerMonth(space.getPricePerMonth())
+                .address(space.getAddress())
+                .latitude(space.getLatitude())
+                .longitude(space.getLongitude())
+                .spaceType(space.getSpaceType())
+                .available(space.getAvailable())
+                .ownerId(space.getOwner() != null ? space.getOwner().getId() : null)
+                .buildingId(space.getBuilding() != null ? space.getBuilding().getId() : null)
+                .amenities(amenities)
+                .createdAt(space.getCreatedAt())
+                .updatedAt(space.getUpdatedAt())
+                .build();
+    }
+}
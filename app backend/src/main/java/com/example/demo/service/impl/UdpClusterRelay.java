@@ -0,0 +1,369 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.MetricsDTO;
+import com.example.demo.service.ClusterRelay;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Relay între instanțe prin datagrame UDP trimise direct fiecărei instanțe din app.cluster.peers.
+ *
+ * Fiecare instanță ascultă pe app.cluster.bind-address:app.cluster.port și trimite fiecare
+ * notificare tuturor instanțelor din listă. Lista poate fi aceeași pe toate instanțele:
+ * pachetele proprii sunt recunoscute după ID-ul instanței și ignorate. Pe o singură mașină
+ * instanțele diferă doar prin server.port și app.cluster.port.
+ *
+ * Lista de peers definește și proprietarii inbox-urilor: inbox-ul unui utilizator este
+ * deținut de instanța de pe poziția hash(userId) mod numărul de peers, deci lista trebuie
+ * să fie aceeași, în aceeași ordine, pe toate instanțele și să conțină fiecare instanță
+ * exact cu adresa ei bind-address:port. O notificare pentru un inbox străin pleacă doar
+ * către proprietar; replicile numerotate și modificările indexurilor pleacă către toți.
+ *
+ * Livrarea este "cel mult o dată", ca pentru brokerul din memorie: un pachet pierdut nu
+ * se retrimite. Notificările mai mari decât o datagramă nu sunt retransmise.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.cluster.relay", havingValue = "udp")
+public class UdpClusterRelay implements ClusterRelay {
+
+    private static final int MAGIC = 0x4E544632; // "NTF2"
+    private static final int MAX_DATAGRAM = 65507;
+
+    // Message kinds, written after the instance ID
+    private static final byte TOPIC = 0;
+    private static final byte INBOX_FORWARD = 1;
+    private static final byte INBOX_REPLICA = 2;
+    private static final byte INDEX_CHANGE = 3;
+
+    private final long instanceId = ThreadLocalRandom.current().nextLong();
+    private final InetSocketAddress bindAddress;
+    private final List<InetSocketAddress> peers;
+    private DatagramSocket socket;
+    // The address the other instances know this one by (the bound port when app.cluster.port is 0)
+    private volatile InetSocketAddress self;
+    private Thread receiver;
+    private volatile boolean running;
+    private volatile InboxListener inboxListener;
+    private volatile IndexListener indexListener;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder datagramsSent = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder ignoredOwn = new LongAdder();
+    private final LongAdder oversize = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder malformed = new LongAdder();
+    private final LongAdder forwarded = new LongAdder();
+    private final LongAdder replicated = new LongAdder();
+    private final LongAdder indexChanges = new LongAdder();
+    private final LongAdder unhandled = new LongAdder();
+
+    @Autowired
+    public UdpClusterRelay(@Value("${app.cluster.bind-address:127.0.0.1}") String bindHost,
+                           @Value("${app.cluster.port:9101}") int port,
+                           @Value("${app.cluster.peers:}") String peers) {
+        this(new InetSocketAddress(bindHost, port), parsePeers(peers));
+    }
+
+    UdpClusterRelay(InetSocketAddress bindAddress, List<InetSocketAddress> peers) {
+        this.bindAddress = bindAddress;
+        this.peers = peers;
+    }
+
+    @Override
+    public synchronized void start(Listener listener) {
+        if (running) {
+            throw new IllegalStateException("Cluster relay is already started");
+        }
+        try {
+            socket = new DatagramSocket(bindAddress);
+        } catch (SocketException e) {
+            throw new IllegalStateException("Cannot bind cluster relay to " + bindAddress, e);
+        }
+        self = new InetSocketAddress(bindAddress.getAddress(), socket.getLocalPort());
+        if (!peers.isEmpty() && !peers.contains(self)) {
+            log.warn("Cluster peers {} do not list this instance ({}): it owns no user inbox", peers, self);
+        }
+        running = true;
+        receiver = new Thread(() -> receiveLoop(listener), "cluster-relay");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        if (socket != null) {
+            // Unblocks receive()
+            socket.close();
+        }
+        if (receiver != null) {
+            receiver.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    @Override
+    public void publish(String[] destinations, byte[] body) {
+        if (send(peers, out -> {
+            out.writeByte(TOPIC);
+            out.writeShort(destinations.length);
+            for (String destination : destinations) {
+                out.writeUTF(destination);
+            }
+            writeBody(out, body);
+        })) {
+            published.increment();
+        }
+    }
+
+    @Override
+    public boolean ownsInbox(String userId) {
+        return peers.isEmpty() || inboxOwner(userId).equals(self);
+    }
+
+    @Override
+    public void forwardToInboxOwner(String userId, byte[] notification) {
+        if (send(List.of(inboxOwner(userId)), out -> {
+            out.writeByte(INBOX_FORWARD);
+            out.writeUTF(userId);
+            writeBody(out, notification);
+        })) {
+            forwarded.increment();
+        }
+    }
+
+    @Override
+    public void replicateInbox(String userId, byte[] notification) {
+        if (send(peers, out -> {
+            out.writeByte(INBOX_REPLICA);
+            out.writeUTF(userId);
+            writeBody(out, notification);
+        })) {
+            replicated.increment();
+        }
+    }
+
+    @Override
+    public void setInboxListener(InboxListener listener) {
+        this.inboxListener = listener;
+    }
+
+    @Override
+    public void publishIndexChange(IndexedEntity entity, Long id, boolean deleted) {
+        if (send(peers, out -> {
+            out.writeByte(INDEX_CHANGE);
+            out.writeByte(entity.ordinal());
+            out.writeLong(id);
+            out.writeBoolean(deleted);
+        })) {
+            indexChanges.increment();
+        }
+    }
+
+    @Override
+    public void setIndexListener(IndexListener listener) {
+        this.indexListener = listener;
+    }
+
+    @Override
+    public boolean isClustered() {
+        return !peers.isEmpty();
+    }
+
+    // Same position in the same peer list on every instance; String.hashCode is fixed by the JLS
+    private InetSocketAddress inboxOwner(String userId) {
+        return peers.get(Math.floorMod(userId.hashCode(), peers.size()));
+    }
+
+    /**
+     * Portul local efectiv (util când app.cluster.port este 0).
+     */
+    public int getLocalPort() {
+        return socket.getLocalPort();
+    }
+
+    @Override
+    public MetricsDTO.RelayMetricsDTO metrics() {
+        return MetricsDTO.RelayMetricsDTO.builder()
+                .relay("udp")
+                .instanceId(Long.toHexString(instanceId))
+                .peers(peers.size())
+                .published(published.sum())
+                .datagramsSent(datagramsSent.sum())
+                .received(received.sum())
+                .ignoredOwn(ignoredOwn.sum())
+                .oversize(oversize.sum())
+                .failed(failed.sum())
+                .malformed(malformed.sum())
+                .inboxForwarded(forwarded.sum())
+                .inboxReplicated(replicated.sum())
+                .indexChanges(indexChanges.sum())
+                .unhandled(unhandled.sum())
+                .build();
+    }
+
+    private void receiveLoop(Listener listener) {
+        byte[] buffer = new byte[MAX_DATAGRAM];
+        while (running) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(packet);
+            } catch (IOException e) {
+                // Socket closed on shutdown, or a transient error while running
+                continue;
+            }
+            try (DataInputStream in = new DataInputStream(
+                    new ByteArrayInputStream(packet.getData(), packet.getOffset(), packet.getLength()))) {
+                if (in.readInt() != MAGIC) {
+                    malformed.increment();
+                    continue;
+                }
+                if (in.readLong() == instanceId) {
+                    ignoredOwn.increment();
+                    continue;
+                }
+                received.increment();
+                receive(in, listener);
+            } catch (IOException e) {
+                malformed.increment();
+            } catch (RuntimeException e) {
+                // A failing listener must not stop the receiver
+                log.warn("Could not handle a message from another instance", e);
+                failed.increment();
+            }
+        }
+    }
+
+    private void receive(DataInputStream in, Listener listener) throws IOException {
+        byte kind = in.readByte();
+        switch (kind) {
+            case TOPIC -> {
+                String[] destinations = new String[in.readUnsignedShort()];
+                for (int i = 0; i < destinations.length; i++) {
+                    destinations[i] = in.readUTF();
+                }
+                listener.deliver(destinations, readBody(in));
+            }
+            case INBOX_FORWARD, INBOX_REPLICA -> {
+                String userId = in.readUTF();
+                byte[] notification = readBody(in);
+                InboxListener inbox = inboxListener;
+                if (inbox == null) {
+                    // Not started yet; the message is lost like any other datagram
+                    unhandled.increment();
+                } else if (kind == INBOX_FORWARD) {
+                    inbox.forwarded(userId, notification);
+                } else {
+                    inbox.replicated(userId, notification);
+                }
+            }
+            case INDEX_CHANGE -> {
+                int ordinal = in.readUnsignedByte();
+                if (ordinal >= IndexedEntity.values().length) {
+                    malformed.increment();
+                    return;
+                }
+                IndexedEntity entity = IndexedEntity.values()[ordinal];
+                long id = in.readLong();
+                boolean deleted = in.readBoolean();
+                IndexListener index = indexListener;
+                if (index == null) {
+                    unhandled.increment();
+                } else {
+                    index.changed(entity, id, deleted);
+                }
+            }
+            default -> malformed.increment();
+        }
+    }
+
+    /**
+     * Codifică mesajul o singură dată și îl trimite fiecărei adrese.
+     *
+     * @return false dacă mesajul nu a plecat deloc (relay oprit, fără destinatari, prea mare)
+     */
+    private boolean send(List<InetSocketAddress> targets, Payload payload) {
+        if (!running || targets.isEmpty()) {
+            return false;
+        }
+        byte[] packet;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeLong(instanceId);
+            payload.write(out);
+            out.flush();
+            packet = bytes.toByteArray();
+        } catch (IOException e) {
+            failed.increment();
+            return false;
+        }
+        if (packet.length > MAX_DATAGRAM) {
+            oversize.increment();
+            return false;
+        }
+        for (InetSocketAddress target : targets) {
+            try {
+                socket.send(new DatagramPacket(packet, packet.length, target));
+                datagramsSent.increment();
+            } catch (IOException e) {
+                // A peer that is down must not hold back the others
+                failed.increment();
+            }
+        }
+        return true;
+    }
+
+    private static void writeBody(DataOutputStream out, byte[] body) throws IOException {
+        out.writeInt(body.length);
+        out.write(body);
+    }
+
+    private static byte[] readBody(DataInputStream in) throws IOException {
+        byte[] body = new byte[in.readInt()];
+        in.readFully(body);
+        return body;
+    }
+
+    private interface Payload {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static List<InetSocketAddress> parsePeers(String peers) {
+        List<InetSocketAddress> result = new ArrayList<>();
+        for (String peer : peers.split(",")) {
+            String trimmed = peer.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int colon = trimmed.lastIndexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Cluster peer must be host:port, got: " + trimmed);
+            }
+            result.add(new InetSocketAddress(trimmed.substring(0, colon),
+                    Integer.parseInt(trimmed.substring(colon + 1))));
+        }
+        return result;
+    }
+}
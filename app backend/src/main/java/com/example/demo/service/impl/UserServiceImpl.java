@@ -1,6 +1,8 @@
 // app backend/src/main/java/com/example/demo/service/impl/UserServiceImpl.java
 package com.example.demo.service.impl;
 
+import com.example.demo.dto.CursorPageDTO;
+import com.example.demo.dto.KeysetCursor;
 import com.example.demo.exception.BadRequestException;
 import com.example.demo.exception.DuplicateResourceException;
 import com.example.demo.exception.ResourceNotFoundException;
@@ -10,6 +12,7 @@ import com.example.demo.model.User;
 import com.example.demo.repository.RentalContractRepository;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.service.UserService;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -65,6 +68,28 @@ public class UserServiceImpl implements UserService {
         return userRepository.findAll();
     }
 
+    @Override
+    public CursorPageDTO<User> getUsersPage(String sort, String cursor, int size) {
+        Pageable limit = KeysetCursor.fetchLimit(size);
+        KeysetCursor after = cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor, sort) : null;
+
+        // Each page seeks past the last (sortKey, id) pair instead of skipping rows with OFFSET
+        switch (sort) {
+            case "id":
+                List<User> byId = after == null
+                        ? userRepository.findAllByOrderByIdAsc(limit)
+                        : userRepository.findByIdGreaterThanOrderByIdAsc(after.getLastId(), limit);
+                return CursorPageDTO.of(byId, size, user -> new KeysetCursor(sort, user.getId(), null));
+            case "name":
+                List<User> byName = after == null
+                        ? userRepository.findAllByOrderByNameAscIdAsc(limit)
+                        : userRepository.findPageAfterName(after.getLastValue(), after.getLastId(), limit);
+                return CursorPageDTO.of(byName, size, user -> new KeysetCursor(sort, user.getId(), user.getName()));
+            default:
+                throw new BadRequestException("Unsupported sort key: " + sort);
+        }
+    }
+
     @Override
     public User getUserById(Long id) {
         if (id == null) {
@@ -0,0 +1,64 @@
+package com.example.demo.util;
+
+/**
+ * Generator de numere de contract unice.
+ *
+ * Numerele vin dintr-un SnowflakeIdGenerator propriu (timp, ID-ul nodului și
+ * secvență), deci sunt strict crescătoare pe un nod și unice între noduri cu
+ * app.node-id diferit.
+ *
+ * Forma textuală este "RENT-" urmat de 13 cifre în baza 36 (lungime fixă), deci
+ * ordinea alfabetică a numerelor coincide cu ordinea generării.
+ */
+public final class ContractNumberGenerator {
+
+    public static final String PREFIX = "RENT-";
+
+    private static final int RADIX = 36;
+    private static final int DIGITS = 13;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    private static final ContractNumberGenerator INSTANCE = new ContractNumberGenerator(0);
+
+    private final SnowflakeIdGenerator ids;
+
+    public ContractNumberGenerator(int nodeId) {
+        this.ids = new SnowflakeIdGenerator(nodeId);
+    }
+
+    /**
+     * Generatorul comun al aplicației (folosit și de entitatea RentalContract).
+     */
+    public static ContractNumberGenerator getInstance() {
+        return INSTANCE;
+    }
+
+    public void setNodeId(int nodeId) {
+        ids.setNodeId(nodeId);
+    }
+
+    /**
+     * Generează următorul ID numeric, strict crescător pe acest nod.
+     *
+     * @return ID-ul generat
+     */
+    public long nextId() {
+        return ids.nextId();
+    }
+
+    /**
+     * Generează următorul număr de contract.
+     *
+     * @return numărul de contract, ex. "RENT-00C4FJ2KX9A1B"
+     */
+    public String nextContractNumber() {
+        long id = nextId();
+        char[] chars = new char[PREFIX.length() + DIGITS];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+            chars[i] = ALPHABET[(int) (id % RADIX)];
+            id /= RADIX;
+        }
+        return new String(chars);
+    }
+}
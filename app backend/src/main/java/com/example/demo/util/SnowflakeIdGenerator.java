@@ -0,0 +1,70 @@
+package com.example.demo.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generator de ID-uri numerice unice, în stilul Snowflake.
+ *
+ * Fiecare ID este un long pe 63 de biți: 41 de biți pentru milisecundele
+ * trecute de la EPOCH, 10 biți pentru ID-ul nodului (instanța aplicației) și
+ * 12 biți pentru o secvență în cadrul aceleiași milisecunde. Starea (timp +
+ * secvență) este ținută într-un singur AtomicLong și avansată prin CAS, fără
+ * lock-uri. Dacă secvența se epuizează într-o milisecundă sau ceasul sistemului
+ * dă înapoi, generatorul continuă pe milisecunda următoare, așa că ID-urile
+ * rămân strict crescătoare pe un nod.
+ *
+ * Fiecare tip de ID are propria instanță, ca un flux (ex. notificările) să nu
+ * consume secvențele altuia (ex. numerele de contract).
+ */
+public final class SnowflakeIdGenerator {
+
+    // 2024-01-01T00:00:00Z
+    private static final long EPOCH = 1704067200000L;
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final SnowflakeIdGenerator NOTIFICATIONS = new SnowflakeIdGenerator(0);
+
+    /** (milisecunde de la EPOCH << SEQUENCE_BITS) | secvență, pentru ultimul ID emis */
+    private final AtomicLong state = new AtomicLong();
+    private volatile long nodeBits;
+
+    public SnowflakeIdGenerator(int nodeId) {
+        setNodeId(nodeId);
+    }
+
+    /**
+     * Generatorul ID-urilor de notificare (entitatea Notification).
+     */
+    public static SnowflakeIdGenerator notifications() {
+        return NOTIFICATIONS;
+    }
+
+    public void setNodeId(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+    }
+
+    /**
+     * Generează următorul ID, strict crescător pe acest nod.
+     *
+     * @return ID-ul generat
+     */
+    public long nextId() {
+        long now = System.currentTimeMillis() - EPOCH;
+        while (true) {
+            long previous = state.get();
+            // Milisecundă nouă: secvența pornește de la 0; altfel incrementăm, iar
+            // depășirea secvenței trece automat în milisecunda următoare
+            long next = now > (previous >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : previous + 1;
+            if (state.compareAndSet(previous, next)) {
+                long millis = next >>> SEQUENCE_BITS;
+                return (millis << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+}
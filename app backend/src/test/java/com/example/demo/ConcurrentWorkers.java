@@ -0,0 +1,68 @@
+package com.example.demo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Race harness shared by the concurrency tests: a fixed pool of threads that all
+ * start at the same moment. A failure in any worker (assertion or exception) fails the test.
+ */
+public final class ConcurrentWorkers {
+
+	private static final long TIMEOUT_SECONDS = 120;
+
+	@FunctionalInterface
+	public interface Worker {
+		void run() throws Exception;
+	}
+
+	@FunctionalInterface
+	public interface Task {
+		void run(int index) throws Exception;
+	}
+
+	private ConcurrentWorkers() {
+	}
+
+	/**
+	 * Runs the same body once on each of the given number of threads.
+	 */
+	public static void onEachThread(int threads, Worker body) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<?>> workers = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				workers.add(executor.submit(() -> {
+					start.await();
+					body.run();
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> worker : workers) {
+				worker.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Runs tasks 0..count-1 on the given number of threads; each thread takes the next free index.
+	 */
+	public static void split(int threads, int count, Task task) throws Exception {
+		AtomicInteger next = new AtomicInteger();
+		onEachThread(threads, () -> {
+			for (int index = next.getAndIncrement(); index < count; index = next.getAndIncrement()) {
+				task.run(index);
+			}
+		});
+	}
+}
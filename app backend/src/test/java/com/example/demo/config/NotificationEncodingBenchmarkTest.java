@@ -0,0 +1,94 @@
+package com.example.demo.config;
+
+import com.example.demo.dto.NotificationDTO;
+import com.example.demo.model.Notification;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NotificationEncodingBenchmarkTest {
+
+	private static final int MESSAGES = 20_000;
+
+	private final ObjectMapper objectMapper = new ObjectMapper()
+			.findAndRegisterModules()
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+	private final NotificationTranscoder transcoder = new NotificationTranscoder(ZoneId.of("UTC"));
+
+	@Test
+	void binaryEncodingsAreSmallerThanJson() throws Exception {
+		List<byte[]> messages = sampleMessages(MESSAGES);
+		Map<MessageEncoding, Double> bytesPerMessage = new EnumMap<>(MessageEncoding.class);
+
+		for (MessageEncoding encoding : MessageEncoding.values()) {
+			long totalBytes = 0;
+			for (byte[] json : messages) {
+				totalBytes += transcoder.transcode(json, encoding).length;
+			}
+			bytesPerMessage.put(encoding, (double) totalBytes / messages.size());
+		}
+
+		double json = bytesPerMessage.get(MessageEncoding.JSON);
+		for (MessageEncoding encoding : List.of(MessageEncoding.CBOR, MessageEncoding.SMILE)) {
+			double binary = bytesPerMessage.get(encoding);
+			assertTrue(binary < json,
+					() -> encoding + " (" + binary + " bytes/message) should be smaller than JSON (" + json + " bytes/message)");
+		}
+	}
+
+	@Test
+	void binaryEncodingUsesNumericIdAndEpochTimestamp() throws Exception {
+		byte[] json = sampleMessages(1).get(0);
+		JsonNode original = objectMapper.readTree(json);
+
+		JsonNode cbor = new CBORMapper().readTree(transcoder.transcode(json, MessageEncoding.CBOR));
+		JsonNode smile = new SmileMapper().readTree(transcoder.transcode(json, MessageEncoding.SMILE));
+
+		for (JsonNode decoded : List.of(cbor, smile)) {
+			assertTrue(decoded.get("id").isIntegralNumber());
+			assertEquals(original.get("id").asText(), decoded.get("id").asText());
+			assertTrue(decoded.get("timestamp").isIntegralNumber());
+			assertEquals(original.get("data"), decoded.get("data"));
+		}
+	}
+
+	@Test
+	void jsonIsPassedThroughUnchanged() throws Exception {
+		byte[] json = sampleMessages(1).get(0);
+
+		assertSame(json, transcoder.transcode(json, MessageEncoding.JSON));
+	}
+
+	// Status-change deltas, as NotificationService sends them for spaces
+	private List<byte[]> sampleMessages(int count) throws Exception {
+		List<byte[]> messages = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Map<String, Object> changes = new LinkedHashMap<>();
+			changes.put("available", i % 2 == 0);
+			NotificationDTO.DeltaDTO delta = NotificationDTO.DeltaDTO.builder()
+					.schema(NotificationDTO.SCHEMA_VERSION)
+					.entity("space")
+					.id(1_000L + i)
+					.version(1_760_000_000_000L + i)
+					.changes(changes)
+					.build();
+			messages.add(objectMapper.writeValueAsBytes(new Notification("SPACE_STATUS_CHANGE",
+					"Space 'Office " + i + "' is now " + (i % 2 == 0 ? "available" : "unavailable"), delta, "all")));
+		}
+		return messages;
+	}
+}
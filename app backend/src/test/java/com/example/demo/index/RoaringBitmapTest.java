@@ -0,0 +1,177 @@
+package com.example.demo.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Compares RoaringBitmap with a java.util.BitSet holding the same ordinals.
+ *
+ * A timed comparison with the JPQL join path for 1, 3 and 6 amenities would need
+ * JMH and a live MySQL instance, neither of which this build has; the last test
+ * checks the same intersections for correctness instead.
+ */
+class RoaringBitmapTest {
+
+	private static final int ARRAY_MAX_SIZE = 4096;
+	private static final int BLOCK = 65536;
+
+	@Test
+	void addAndRemoveAcrossTheContainerThreshold() {
+		RoaringBitmap bitmap = new RoaringBitmap();
+		BitSet oracle = new BitSet();
+
+		// Fill one block up to the array limit, then one past it (array -> bitmap)
+		for (int i = 0; i < ARRAY_MAX_SIZE; i++) {
+			add(bitmap, oracle, i * 3);
+		}
+		assertMatches(oracle, bitmap);
+		add(bitmap, oracle, ARRAY_MAX_SIZE * 3);
+		assertMatches(oracle, bitmap);
+
+		// Adding an existing value must not change the cardinality in either representation
+		add(bitmap, oracle, 0);
+		assertMatches(oracle, bitmap);
+
+		// Drop back to the limit (bitmap -> array) and keep removing
+		remove(bitmap, oracle, 3);
+		assertMatches(oracle, bitmap);
+		for (int i = 2; i < ARRAY_MAX_SIZE; i += 2) {
+			remove(bitmap, oracle, i * 3);
+		}
+		assertMatches(oracle, bitmap);
+
+		// Grow again past the limit after the round trip
+		for (int i = 0; i < ARRAY_MAX_SIZE * 2; i++) {
+			add(bitmap, oracle, BLOCK - 1 - i);
+		}
+		assertMatches(oracle, bitmap);
+	}
+
+	@Test
+	void removingTheLastValueDropsTheBlock() {
+		RoaringBitmap bitmap = new RoaringBitmap();
+		BitSet oracle = new BitSet();
+		add(bitmap, oracle, 7);
+		add(bitmap, oracle, BLOCK + 7);
+		add(bitmap, oracle, 5 * BLOCK);
+
+		remove(bitmap, oracle, BLOCK + 7);
+		remove(bitmap, oracle, BLOCK + 8);
+		assertMatches(oracle, bitmap);
+
+		remove(bitmap, oracle, 7);
+		remove(bitmap, oracle, 5 * BLOCK);
+		assertTrue(bitmap.isEmpty());
+		assertMatches(oracle, bitmap);
+
+		// An empty bitmap clears every bit of the target
+		BitSet target = new BitSet();
+		target.set(0, 3 * BLOCK);
+		bitmap.andInto(target);
+		assertTrue(target.isEmpty());
+	}
+
+	@Test
+	void andIntoHandlesMissingSparseAndDenseBlocks() {
+		RoaringBitmap bitmap = new RoaringBitmap();
+		BitSet oracle = new BitSet();
+		// Block 0 stays sparse, block 2 becomes dense, blocks 1 and 3 are missing
+		for (int i = 0; i < 100; i++) {
+			add(bitmap, oracle, i * 17);
+		}
+		for (int i = 0; i < ARRAY_MAX_SIZE * 3; i++) {
+			add(bitmap, oracle, 2 * BLOCK + i * 5);
+		}
+
+		BitSet target = new BitSet();
+		target.set(0, 4 * BLOCK + 10);
+		BitSet expected = (BitSet) target.clone();
+		expected.and(oracle);
+
+		bitmap.andInto(target);
+		assertEquals(expected, target);
+	}
+
+	@Test
+	void randomOperationsMatchBitSet() {
+		Random random = new Random(42);
+		RoaringBitmap bitmap = new RoaringBitmap();
+		BitSet oracle = new BitSet();
+		int range = 4 * BLOCK;
+
+		for (int step = 0; step < 200_000; step++) {
+			// Skewed values so some blocks are dense and others sparse
+			int value = random.nextBoolean() ? random.nextInt(BLOCK / 4) : random.nextInt(range);
+			if (random.nextInt(3) == 0) {
+				remove(bitmap, oracle, value);
+			} else {
+				add(bitmap, oracle, value);
+			}
+			if (step % 20_000 == 0) {
+				assertMatches(oracle, bitmap);
+			}
+		}
+		assertMatches(oracle, bitmap);
+	}
+
+	@Test
+	void intersectionOfOneThreeAndSixBitmapsMatchesBitSet() {
+		Random random = new Random(7);
+		int spaces = 200_000;
+		RoaringBitmap[] amenities = new RoaringBitmap[6];
+		BitSet[] oracles = new BitSet[6];
+		for (int a = 0; a < amenities.length; a++) {
+			amenities[a] = new RoaringBitmap();
+			oracles[a] = new BitSet();
+			// From very common to rare amenities, so containers of both kinds take part
+			int oneIn = 1 << a;
+			for (int ordinal = 0; ordinal < spaces; ordinal++) {
+				if (random.nextInt(oneIn) == 0) {
+					add(amenities[a], oracles[a], ordinal);
+				}
+			}
+		}
+
+		for (int required : new int[]{1, 3, 6}) {
+			BitSet result = new BitSet();
+			result.set(0, spaces);
+			BitSet expected = (BitSet) result.clone();
+			for (int a = 0; a < required; a++) {
+				amenities[a].andInto(result);
+				expected.and(oracles[a]);
+			}
+			assertEquals(expected, result, required + " required amenities");
+		}
+	}
+
+	private static void add(RoaringBitmap bitmap, BitSet oracle, int value) {
+		bitmap.add(value);
+		oracle.set(value);
+	}
+
+	private static void remove(RoaringBitmap bitmap, BitSet oracle, int value) {
+		bitmap.remove(value);
+		oracle.clear(value);
+	}
+
+	private static void assertMatches(BitSet oracle, RoaringBitmap bitmap) {
+		assertEquals(oracle.cardinality(), bitmap.cardinality());
+		assertEquals(oracle.isEmpty(), bitmap.isEmpty());
+		for (int i = 0, end = oracle.length() + 1; i <= end; i++) {
+			if (oracle.get(i) != bitmap.contains(i)) {
+				fail("Mismatch at ordinal " + i);
+			}
+		}
+		// Intersecting a full range reproduces the set exactly
+		BitSet full = new BitSet();
+		full.set(0, oracle.length() + BLOCK);
+		bitmap.andInto(full);
+		assertEquals(oracle, full);
+	}
+}
@@ -0,0 +1,125 @@
+package com.example.demo.service;
+
+import com.example.demo.constants.SpaceType;
+import com.example.demo.dto.NotificationDTO;
+import com.example.demo.model.Building;
+import com.example.demo.model.ComercialSpace;
+import com.example.demo.model.Notification;
+import com.example.demo.model.Owner;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NotificationPayloadSizeTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper()
+			.findAndRegisterModules()
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+	@Test
+	void statusChangeDeltaIsMuchSmallerThanEntity() throws Exception {
+		ComercialSpace space = sampleSpace();
+
+		int entityBytes = bytes(new Notification("SPACE_STATUS_CHANGE", "Space 'Office 12' is now unavailable", space, "all"));
+		int deltaBytes = bytes(new Notification("SPACE_STATUS_CHANGE", "Space 'Office 12' is now unavailable",
+				NotificationDTO.spaceStatus(space), "all"));
+
+		assertTrue(deltaBytes * 4 < entityBytes,
+				() -> "delta payload (" + deltaBytes + " bytes) should be under a quarter of the entity payload (" + entityBytes + " bytes)");
+	}
+
+	@Test
+	void newSpaceDeltaIsSmallerThanEntity() throws Exception {
+		ComercialSpace space = sampleSpace();
+
+		int entityBytes = bytes(new Notification("NEW_SPACE", "New commercial space available: Office 12", space, "all"));
+		int deltaBytes = bytes(new Notification("NEW_SPACE", "New commercial space available: Office 12",
+				NotificationDTO.newSpace(space), "all"));
+
+		assertTrue(deltaBytes * 2 < entityBytes,
+				() -> "delta payload (" + deltaBytes + " bytes) should be under half of the entity payload (" + entityBytes + " bytes)");
+	}
+
+	@Test
+	void deltaCarriesIdVersionAndForeignKeysOnly() throws Exception {
+		ComercialSpace space = sampleSpace();
+
+		Map<?, ?> delta = objectMapper.readValue(objectMapper.writeValueAsBytes(NotificationDTO.newSpace(space)), Map.class);
+
+		assertEquals(NotificationDTO.SCHEMA_VERSION, delta.get("schema"));
+		assertEquals("space", delta.get("entity"));
+		assertEquals(12, delta.get("id"));
+		assertTrue(delta.get("version") instanceof Number);
+		Map<?, ?> changes = (Map<?, ?>) delta.get("changes");
+		assertEquals(7, changes.get("ownerId"));
+		assertEquals(3, changes.get("buildingId"));
+		assertTrue(!changes.containsKey("owner") && !changes.containsKey("building"));
+	}
+
+	private int bytes(Object payload) throws Exception {
+		return objectMapper.writeValueAsBytes(payload).length;
+	}
+
+	// A space as it would be returned by the repository, with its owner and building loaded
+	private static ComercialSpace sampleSpace() {
+		Owner owner = new Owner();
+		owner.setId(7L);
+		owner.setName("Ion Popescu");
+		owner.setEmail("ion.popescu@example.com");
+		owner.setUsername("ipopescu");
+		owner.setPassword("$2a$10$abcdefghijklmnopqrstuvabcdefghijklmnopqrstuvwxyz01234");
+		owner.setPhone("+40 721 000 000");
+		owner.setAddress("Str. Lunga 5, Brasov");
+		owner.setCompanyName("Popescu Imobiliare SRL");
+		owner.setTaxId("RO12345678");
+		owner.setCompanyType("SRL");
+		owner.setRegistrationNumber("J08/1234/2015");
+		owner.setBankAccount("RO49AAAA1B31007593840000");
+		owner.setBankName("Banca Transilvania");
+		owner.setCreatedAt(LocalDateTime.now());
+		owner.setUpdatedAt(LocalDateTime.now());
+
+		Building building = new Building();
+		building.setId(3L);
+		building.setName("Coresi Business Park");
+		building.setAddress("Str. Turnului 5, Brasov");
+		building.setTotalFloors(6);
+		building.setYearBuilt(2015);
+		building.setLatitude(45.6712);
+		building.setLongitude(25.6186);
+		building.setDescription("Class A office building with underground parking and 24/7 security");
+		building.setTotalArea(12000.0);
+		building.setParkingSpots(300);
+		building.setCreatedAt(LocalDateTime.now());
+		building.setUpdatedAt(LocalDateTime.now());
+
+		List<String> amenities = new ArrayList<>(List.of("Parking", "Reception", "Kitchen", "Meeting rooms"));
+		ComercialSpace space = new ComercialSpace();
+		space.setId(12L);
+		space.setName("Office 12");
+		space.setDescription("Open-space office on the third floor, fully furnished, with city views");
+		space.setArea(120.0);
+		space.setPricePerMonth(2400.0);
+		space.setAddress("Str. Turnului 5, Brasov");
+		space.setLatitude(45.6712);
+		space.setLongitude(25.6186);
+		space.setSpaceType(SpaceType.OFFICE);
+		space.setAvailable(false);
+		space.setFloors(1);
+		space.setNumberOfRooms(4);
+		space.setAmenities(amenities);
+		space.setCreatedAt(LocalDateTime.now());
+		space.setUpdatedAt(LocalDateTime.now());
+		space.setOwner(owner);
+		space.setBuilding(building);
+		return space;
+	}
+}
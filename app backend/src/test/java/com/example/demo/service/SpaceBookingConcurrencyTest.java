@@ -0,0 +1,250 @@
+package com.example.demo.service;
+
+import com.example.demo.ConcurrentWorkers;
+import com.example.demo.constants.SpaceType;
+import com.example.demo.dto.ComercialSpaceDTO;
+import com.example.demo.dto.NotificationDTO;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.index.FullTextIndex;
+import com.example.demo.index.SpaceSearchIndex;
+import com.example.demo.model.Notification;
+import com.example.demo.model.ComercialSpace;
+import com.example.demo.model.Owner;
+import com.example.demo.model.RentalContract;
+import com.example.demo.model.Tenant;
+import com.example.demo.model.User;
+import com.example.demo.repository.ComercialSpaceRepository;
+import com.example.demo.repository.OwnerRepository;
+import com.example.demo.repository.RentalContractRepository;
+import com.example.demo.repository.TenantRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SpaceBookingConcurrencyTest {
+
+	private static final int SPACES = 200;
+	// Every space is requested by this many competing bookings
+	private static final int ATTEMPTS_PER_SPACE = 3;
+
+	@Autowired
+	private RentalContractService contractService;
+
+	@Autowired
+	private ComercialSpaceRepository spaceRepository;
+
+	@Autowired
+	private RentalContractRepository contractRepository;
+
+	@Autowired
+	private OwnerRepository ownerRepository;
+
+	@Autowired
+	private SpaceSearchIndex searchIndex;
+
+	@Autowired
+	private FullTextIndex fullTextIndex;
+
+	@Autowired
+	private NotificationInbox inbox;
+
+	@Autowired
+	private TenantRepository tenantRepository;
+
+	private Owner owner;
+	private Tenant tenant;
+	private final List<Long> spaceIds = new ArrayList<>();
+
+	@BeforeEach
+	void createUsers() {
+		String suffix = Long.toString(System.nanoTime(), 36);
+		owner = new Owner();
+		owner.setName("Booking Test Owner");
+		owner.setEmail("booking-owner-" + suffix + "@example.com");
+		owner.setUsername("booking_owner_" + suffix);
+		owner.setPassword("password");
+		owner.setRole(User.UserRole.OWNER);
+		owner = ownerRepository.save(owner);
+
+		tenant = new Tenant();
+		tenant.setName("Booking Test Tenant");
+		tenant.setEmail("booking-tenant-" + suffix + "@example.com");
+		tenant.setUsername("booking_tenant_" + suffix);
+		tenant.setPassword("password");
+		tenant.setRole(User.UserRole.TENANT);
+		tenant = tenantRepository.save(tenant);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		for (Long spaceId : spaceIds) {
+			contractRepository.deleteAll(contractRepository.findBySpaceId(spaceId));
+		}
+		spaceRepository.deleteAllById(spaceIds);
+		tenantRepository.delete(tenant);
+		ownerRepository.delete(owner);
+	}
+
+	@Test
+	void onlyOneConcurrentBookingWins() throws Exception {
+		Long spaceId = createSpaces(1).get(0);
+
+		int winners = race(16, 64, attempt -> spaceId);
+
+		assertEquals(1, winners);
+		assertEquals(1, contractRepository.findBySpaceId(spaceId).size());
+		assertFalse(spaceRepository.findById(spaceId).orElseThrow().getAvailable());
+	}
+
+	@Test
+	void everySpaceIsBookedExactlyOnceUnderContention() throws Exception {
+		List<Long> ids = createSpaces(SPACES);
+		int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+		int winners = race(threads, SPACES * ATTEMPTS_PER_SPACE, attempt -> ids.get(attempt % SPACES));
+
+		assertEquals(SPACES, winners);
+		for (Long spaceId : ids) {
+			assertEquals(1, contractRepository.findBySpaceId(spaceId).size(), "Contracts for space " + spaceId);
+			assertFalse(spaceRepository.findById(spaceId).orElseThrow().getAvailable());
+		}
+	}
+
+	/**
+	 * A booking updates the in-memory indexes after commit and notifies the owner,
+	 * even though the booking UPDATE clears the persistence context.
+	 */
+	@Test
+	void bookingUpdatesTheIndexesAndNotifiesTheOwner() {
+		Long spaceId = createSpaces(1).get(0);
+
+		RentalContract contract = contractService.createContract(newContract(spaceId));
+
+		assertTrue(fullTextIndex.search("booking", 0, Integer.MAX_VALUE).getIds().contains(spaceId));
+		assertTrue(searchIndex.search(availability(false), 0, Integer.MAX_VALUE).getIds().contains(spaceId));
+		assertFalse(searchIndex.search(availability(true), 0, Integer.MAX_VALUE).getIds().contains(spaceId));
+
+		NotificationDTO.InboxDTO ownerInbox = inbox.replay(owner.getId().toString(), 0, null);
+		assertEquals(1, ownerInbox.getNotifications().size());
+		Notification notification = ownerInbox.getNotifications().get(0);
+		assertEquals("NEW_CONTRACT", notification.getType());
+		assertEquals(1L, notification.getSequence());
+		NotificationDTO.DeltaDTO delta = (NotificationDTO.DeltaDTO) notification.getData();
+		assertEquals(contract.getId(), delta.getId());
+		assertEquals(spaceId, delta.getChanges().get("spaceId"));
+	}
+
+	/**
+	 * Measures bookings per second with 1, 2, 4... threads up to the number of cores.
+	 * The numbers depend on the machine and the database, so they are published to the
+	 * test report rather than asserted; only the booking outcome is checked.
+	 */
+	@Test
+	void reportsBookingThroughputPerThreadCount(TestReporter reporter) throws Exception {
+		int cores = Runtime.getRuntime().availableProcessors();
+		for (int threads = 1; threads <= Math.max(4, cores); threads *= 2) {
+			List<Long> ids = createSpaces(SPACES);
+
+			long start = System.nanoTime();
+			int winners = race(threads, SPACES * ATTEMPTS_PER_SPACE, attempt -> ids.get(attempt % SPACES));
+			double seconds = (System.nanoTime() - start) / 1e9;
+
+			assertEquals(SPACES, winners);
+			reporter.publishEntry("bookings/s with " + threads + " threads", String.format("%.0f", winners / seconds));
+		}
+	}
+
+	@Test
+	void invalidContractDoesNotBookTheSpace() {
+		Long spaceId = createSpaces(1).get(0);
+		RentalContract contract = newContract(spaceId);
+		contract.setEndDate(contract.getStartDate().minusDays(1));
+
+		assertThrows(BadRequestException.class, () -> contractService.createContract(contract));
+
+		assertTrue(spaceRepository.findById(spaceId).orElseThrow().getAvailable());
+		assertTrue(contractRepository.findBySpaceId(spaceId).isEmpty());
+	}
+
+	@Test
+	void failedContractInsertRollsBackTheBooking() {
+		Long spaceId = createSpaces(1).get(0);
+		RentalContract contract = newContract(spaceId);
+		// A tenant that does not exist: the booking UPDATE succeeds, the contract INSERT violates the foreign key
+		Tenant missing = new Tenant();
+		missing.setId(Long.MAX_VALUE);
+		contract.setTenant(missing);
+
+		assertThrows(RuntimeException.class, () -> contractService.createContract(contract));
+
+		assertTrue(spaceRepository.findById(spaceId).orElseThrow().getAvailable());
+		assertTrue(contractRepository.findBySpaceId(spaceId).isEmpty());
+	}
+
+	private List<Long> createSpaces(int count) {
+		List<ComercialSpace> spaces = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			spaces.add(ComercialSpace.builder()
+					.name("Booking test " + i)
+					.area(50.0)
+					.pricePerMonth(1000.0)
+					.spaceType(SpaceType.OFFICE)
+					.owner(owner)
+					.build());
+		}
+		List<Long> ids = new ArrayList<>(count);
+		for (ComercialSpace space : spaceRepository.saveAll(spaces)) {
+			ids.add(space.getId());
+		}
+		spaceIds.addAll(ids);
+		return ids;
+	}
+
+	private static ComercialSpaceDTO.SearchDTO availability(boolean available) {
+		return ComercialSpaceDTO.SearchDTO.builder().available(available).build();
+	}
+
+	private RentalContract newContract(Long spaceId) {
+		RentalContract contract = new RentalContract();
+		contract.setSpace(spaceRepository.getReferenceById(spaceId));
+		contract.setTenant(tenant);
+		contract.setStartDate(LocalDate.now());
+		contract.setEndDate(LocalDate.now().plusYears(1));
+		contract.setMonthlyRent(1000.0);
+		return contract;
+	}
+
+	/**
+	 * Submits the given number of contracts through the service, all threads released at once.
+	 * A rejected booking must fail with "not available"; any other failure fails the test.
+	 *
+	 * @return how many contracts were created
+	 */
+	private int race(int threads, int attempts, IntFunction<Long> spaceForAttempt) throws Exception {
+		AtomicInteger winners = new AtomicInteger();
+		ConcurrentWorkers.split(threads, attempts, attempt -> {
+			try {
+				contractService.createContract(newContract(spaceForAttempt.apply(attempt)));
+				winners.incrementAndGet();
+			} catch (BadRequestException e) {
+				assertTrue(e.getMessage().contains("not available"), e.getMessage());
+			}
+		});
+		return winners.get();
+	}
+}
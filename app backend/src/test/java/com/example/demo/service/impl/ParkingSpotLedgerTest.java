@@ -0,0 +1,102 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.ConcurrentWorkers;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParkingSpotLedgerTest {
+
+	private static final int THREADS = 32;
+	private static final long PARKING_ID = 1L;
+
+	@Test
+	void concurrentReservationsNeverOversell() throws Exception {
+		ParkingSpotLedger ledger = new ParkingSpotLedger();
+		ledger.load(PARKING_ID, 1_000, 0);
+		AtomicInteger reservedByWinners = new AtomicInteger();
+
+		runConcurrently(20_000, () -> {
+			int spots = ThreadLocalRandom.current().nextInt(1, 4);
+			int after = ledger.reserve(PARKING_ID, spots);
+			if (after != ParkingSpotLedger.REJECTED) {
+				assertTrue(after <= 1_000, "Oversold: " + after);
+				reservedByWinners.addAndGet(spots);
+			}
+		});
+
+		// Demand far exceeds capacity, so the parking ends up full and exactly as reserved as the winners say
+		assertEquals(reservedByWinners.get(), ledger.reserved(PARKING_ID));
+		assertTrue(ledger.reserved(PARKING_ID) > 1_000 - 3);
+	}
+
+	@Test
+	void mixedReserveAndReleaseKeepTheCountConsistent() throws Exception {
+		ParkingSpotLedger ledger = new ParkingSpotLedger();
+		ledger.load(PARKING_ID, 200, 50);
+		AtomicLong net = new AtomicLong(50);
+
+		runConcurrently(200_000, () -> {
+			int spots = ThreadLocalRandom.current().nextInt(1, 6);
+			boolean reserve = ThreadLocalRandom.current().nextBoolean();
+			int after = reserve ? ledger.reserve(PARKING_ID, spots) : ledger.release(PARKING_ID, spots);
+			if (after != ParkingSpotLedger.REJECTED) {
+				assertTrue(after >= 0 && after <= 200, "Out of range: " + after);
+				net.addAndGet(reserve ? spots : -spots);
+			}
+		});
+
+		assertEquals(net.get(), ledger.reserved(PARKING_ID));
+	}
+
+	@Test
+	void drainReturnsLatestValueOfEveryChangedParking() {
+		ParkingSpotLedger ledger = new ParkingSpotLedger();
+		ledger.load(1L, 10, 0);
+		ledger.load(2L, 10, 0);
+		ledger.load(3L, 10, 0);
+		ledger.reserve(1L, 2);
+		ledger.reserve(1L, 3);
+		ledger.reserve(2L, 4);
+		ledger.release(2L, 1);
+
+		Map<Long, Integer> changed = ledger.drainDirty();
+
+		assertEquals(Map.of(1L, 5, 2L, 3), changed);
+		assertTrue(ledger.drainDirty().isEmpty());
+	}
+
+	@Test
+	void resizeKeepsReservationsAndEvictDropsTheParking() {
+		ParkingSpotLedger ledger = new ParkingSpotLedger();
+		ledger.load(PARKING_ID, 10, 0);
+		ledger.reserve(PARKING_ID, 6);
+
+		// Shrinking below the reservations blocks new ones until enough are released
+		ledger.resize(PARKING_ID, 4);
+		assertEquals(4, ledger.capacity(PARKING_ID));
+		assertEquals(6, ledger.reserved(PARKING_ID));
+		assertEquals(ParkingSpotLedger.REJECTED, ledger.reserve(PARKING_ID, 1));
+		assertEquals(3, ledger.release(PARKING_ID, 3));
+		assertEquals(4, ledger.reserve(PARKING_ID, 1));
+
+		ledger.evict(PARKING_ID);
+		assertFalse(ledger.isLoaded(PARKING_ID));
+		assertTrue(ledger.drainDirty().isEmpty());
+
+		// Resizing a parking that is not loaded is a no-op
+		ledger.resize(PARKING_ID, 20);
+		assertFalse(ledger.isLoaded(PARKING_ID));
+	}
+
+	private static void runConcurrently(int operations, Runnable operation) throws Exception {
+		ConcurrentWorkers.split(THREADS, operations, index -> operation.run());
+	}
+}
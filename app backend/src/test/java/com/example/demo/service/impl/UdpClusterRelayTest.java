@@ -0,0 +1,228 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.service.ClusterRelay;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UdpClusterRelayTest {
+
+	private final List<UdpClusterRelay> relays = new ArrayList<>();
+
+	@AfterEach
+	void stopRelays() throws Exception {
+		for (UdpClusterRelay relay : relays) {
+			relay.stop();
+		}
+	}
+
+	@Test
+	void messageReachesEveryOtherInstanceOnce() throws Exception {
+		// Three instances on one box, all configured with the same peer list (including themselves)
+		List<InetSocketAddress> peers = List.of(freeAddress(), freeAddress(), freeAddress());
+		List<BlockingQueue<Received>> inboxes = new ArrayList<>();
+		for (InetSocketAddress address : peers) {
+			BlockingQueue<Received> inbox = new LinkedBlockingQueue<>();
+			UdpClusterRelay relay = new UdpClusterRelay(address, peers);
+			relay.start((destinations, body) -> inbox.add(new Received(destinations, body)));
+			relays.add(relay);
+			inboxes.add(inbox);
+		}
+
+		byte[] body = "{\"type\":\"NEW_SPACE\"}".getBytes(StandardCharsets.UTF_8);
+		relays.get(0).publish(new String[]{"/topic/spaces", "/topic/spaces/geo/274_415"}, body);
+
+		for (int i = 1; i < relays.size(); i++) {
+			Received received = inboxes.get(i).poll(5, TimeUnit.SECONDS);
+			assertNotNull(received, "instance " + i + " did not receive the message");
+			assertArrayEquals(new String[]{"/topic/spaces", "/topic/spaces/geo/274_415"}, received.destinations);
+			assertArrayEquals(body, received.body);
+		}
+
+		// The sender's own copy is recognized and not delivered again (no loop)
+		waitFor(() -> relays.get(0).metrics().getIgnoredOwn() == 1);
+		assertNull(inboxes.get(0).poll(200, TimeUnit.MILLISECONDS));
+		assertEquals(3L, relays.get(0).metrics().getDatagramsSent());
+	}
+
+	@Test
+	void unreachablePeerDoesNotBlockOthers() throws Exception {
+		InetSocketAddress live = freeAddress();
+		List<InetSocketAddress> peers = List.of(freeAddress(), live);
+		BlockingQueue<Received> inbox = new LinkedBlockingQueue<>();
+
+		UdpClusterRelay sender = new UdpClusterRelay(freeAddress(), peers);
+		UdpClusterRelay receiver = new UdpClusterRelay(live, List.of());
+		sender.start((destinations, body) -> { });
+		receiver.start((destinations, body) -> inbox.add(new Received(destinations, body)));
+		relays.add(sender);
+		relays.add(receiver);
+
+		sender.publish(new String[]{"/queue/user.7"}, new byte[]{1, 2, 3});
+
+		Received received = inbox.poll(5, TimeUnit.SECONDS);
+		assertNotNull(received);
+		assertArrayEquals(new String[]{"/queue/user.7"}, received.destinations);
+	}
+
+	@Test
+	void everyInboxHasExactlyOneOwner() throws Exception {
+		List<InetSocketAddress> peers = List.of(freeAddress(), freeAddress(), freeAddress());
+		for (InetSocketAddress address : peers) {
+			UdpClusterRelay relay = new UdpClusterRelay(address, peers);
+			relay.start((destinations, body) -> { });
+			relays.add(relay);
+		}
+
+		int[] owned = new int[relays.size()];
+		for (int user = 1; user <= 300; user++) {
+			int owners = 0;
+			for (int i = 0; i < relays.size(); i++) {
+				if (relays.get(i).ownsInbox(Integer.toString(user))) {
+					owners++;
+					owned[i]++;
+				}
+			}
+			assertEquals(1, owners, "owners of user " + user);
+		}
+		for (int count : owned) {
+			assertTrue(count > 0, "every instance owns some inboxes");
+		}
+	}
+
+	@Test
+	void forwardedNotificationReachesOnlyTheOwner() throws Exception {
+		List<InetSocketAddress> peers = List.of(freeAddress(), freeAddress(), freeAddress());
+		List<BlockingQueue<Received>> forwarded = new ArrayList<>();
+		for (InetSocketAddress address : peers) {
+			BlockingQueue<Received> inbox = new LinkedBlockingQueue<>();
+			UdpClusterRelay relay = new UdpClusterRelay(address, peers);
+			relay.start((destinations, body) -> { });
+			relay.setInboxListener(new InboxQueue(inbox, null));
+			relays.add(relay);
+			forwarded.add(inbox);
+		}
+		String userId = "42";
+		int owner = ownerOf(userId);
+		int sender = (owner + 1) % relays.size();
+
+		byte[] body = "{\"type\":\"NEW_CONTRACT\"}".getBytes(StandardCharsets.UTF_8);
+		relays.get(sender).forwardToInboxOwner(userId, body);
+
+		Received received = forwarded.get(owner).poll(5, TimeUnit.SECONDS);
+		assertNotNull(received, "the owner did not receive the forwarded notification");
+		assertArrayEquals(new String[]{userId}, received.destinations);
+		assertArrayEquals(body, received.body);
+		for (int i = 0; i < relays.size(); i++) {
+			if (i != owner) {
+				assertNull(forwarded.get(i).poll(200, TimeUnit.MILLISECONDS), "instance " + i + " is not the owner");
+			}
+		}
+		assertEquals(1L, relays.get(sender).metrics().getDatagramsSent());
+	}
+
+	@Test
+	void replicasAndIndexChangesReachEveryOtherInstance() throws Exception {
+		List<InetSocketAddress> peers = List.of(freeAddress(), freeAddress(), freeAddress());
+		List<BlockingQueue<Received>> replicas = new ArrayList<>();
+		List<BlockingQueue<String>> changes = new ArrayList<>();
+		for (InetSocketAddress address : peers) {
+			BlockingQueue<Received> inbox = new LinkedBlockingQueue<>();
+			BlockingQueue<String> indexChanges = new LinkedBlockingQueue<>();
+			UdpClusterRelay relay = new UdpClusterRelay(address, peers);
+			relay.start((destinations, body) -> { });
+			relay.setInboxListener(new InboxQueue(null, inbox));
+			relay.setIndexListener((entity, id, deleted) -> indexChanges.add(entity + ":" + id + ":" + deleted));
+			relays.add(relay);
+			replicas.add(inbox);
+			changes.add(indexChanges);
+		}
+
+		byte[] body = "{\"sequence\":7}".getBytes(StandardCharsets.UTF_8);
+		relays.get(0).replicateInbox("7", body);
+		relays.get(0).publishIndexChange(ClusterRelay.IndexedEntity.SPACE, 15L, true);
+
+		for (int i = 1; i < relays.size(); i++) {
+			Received replica = replicas.get(i).poll(5, TimeUnit.SECONDS);
+			assertNotNull(replica, "instance " + i + " did not receive the replica");
+			assertArrayEquals(body, replica.body);
+			assertEquals("SPACE:15:true", changes.get(i).poll(5, TimeUnit.SECONDS));
+		}
+		assertNull(replicas.get(0).poll(200, TimeUnit.MILLISECONDS));
+		assertNull(changes.get(0).poll(200, TimeUnit.MILLISECONDS));
+	}
+
+	private int ownerOf(String userId) {
+		for (int i = 0; i < relays.size(); i++) {
+			if (relays.get(i).ownsInbox(userId)) {
+				return i;
+			}
+		}
+		throw new AssertionError("No owner for user " + userId);
+	}
+
+	private static InetSocketAddress freeAddress() throws Exception {
+		try (DatagramSocket socket = new DatagramSocket(new InetSocketAddress("127.0.0.1", 0))) {
+			return new InetSocketAddress("127.0.0.1", socket.getLocalPort());
+		}
+	}
+
+	private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+	/**
+	 * Collects forwarded and replicated notifications; the user ID is kept as the only "destination".
+	 */
+	private static final class InboxQueue implements ClusterRelay.InboxListener {
+		private final BlockingQueue<Received> forwarded;
+		private final BlockingQueue<Received> replicated;
+
+		InboxQueue(BlockingQueue<Received> forwarded, BlockingQueue<Received> replicated) {
+			this.forwarded = forwarded;
+			this.replicated = replicated;
+		}
+
+		@Override
+		public void forwarded(String userId, byte[] notification) {
+			if (forwarded != null) {
+				forwarded.add(new Received(new String[]{userId}, notification));
+			}
+		}
+
+		@Override
+		public void replicated(String userId, byte[] notification) {
+			if (replicated != null) {
+				replicated.add(new Received(new String[]{userId}, notification));
+			}
+		}
+	}
+
+	private static final class Received {
+		final String[] destinations;
+		final byte[] body;
+
+		Received(String[] destinations, byte[] body) {
+			this.destinations = destinations;
+			this.body = body;
+		}
+	}
+}
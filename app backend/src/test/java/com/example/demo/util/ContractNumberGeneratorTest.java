@@ -0,0 +1,56 @@
+package com.example.demo.util;
+
+import com.example.demo.ConcurrentWorkers;
+import com.example.demo.model.RentalContract;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContractNumberGeneratorTest {
+
+	private static final int THREADS = 16;
+	private static final int CONTRACTS = 100_000;
+
+	@Test
+	void concurrentContractsGetUniqueNumbers() throws Exception {
+		Set<String> numbers = ConcurrentHashMap.newKeySet(CONTRACTS);
+		ConcurrentWorkers.onEachThread(THREADS, () -> {
+			String previous = null;
+			for (int i = 0; i < CONTRACTS / THREADS; i++) {
+				// Same path as persisting a contract without a number
+				RentalContract contract = new RentalContract();
+				contract.prePersist();
+				String number = contract.getContractNumber();
+				assertTrue(numbers.add(number), "Duplicate contract number " + number);
+				// Fixed-width base 36: text order follows generation order on one node
+				assertTrue(previous == null || previous.compareTo(number) < 0, previous + " >= " + number);
+				previous = number;
+			}
+		});
+
+		assertEquals(CONTRACTS, numbers.size());
+	}
+
+	@Test
+	void idsAreStrictlyIncreasingPerNode() {
+		ContractNumberGenerator generator = new ContractNumberGenerator(7);
+		long previous = generator.nextId();
+		for (int i = 0; i < 50_000; i++) {
+			long next = generator.nextId();
+			assertTrue(next > previous);
+			assertEquals(7, (next >>> 12) & 0x3FF);
+			previous = next;
+		}
+	}
+
+	@Test
+	void contractNumbersFitTheColumn() {
+		String number = ContractNumberGenerator.getInstance().nextContractNumber();
+		assertTrue(number.startsWith(ContractNumberGenerator.PREFIX));
+		assertEquals(18, number.length());
+	}
+}
@@ -1,8 +1,9 @@
-import React, { useEffect, useState } from 'react';
-import { MapContainer, TileLayer, Marker, Popup } from 'react-leaflet';
+import React, { useCallback, useEffect, useRef, useState } from 'react';
+import { MapContainer, TileLayer, Marker, Popup, CircleMarker, useMap, useMapEvents } from 'react-leaflet';
 import L from 'leaflet';
 import axios from 'axios';
 import { useNavigate } from 'react-router-dom';
+import { subscribeToSpaceArea, clearSpaceArea } from './helper/websocket';
 import './MapPage.css';
 import 'leaflet/dist/leaflet.css';
 
@@ -36,31 +37,160 @@ const warehouseIcon = new L.Icon({
     popupAnchor: [0, -32]
 });
 
+// Zoom from which /spaces/map returns individual spaces instead of clusters
+const POINTS_MIN_ZOOM = 15;
+
+// Reports the visible area (bounds and zoom) on mount and after every move,
+// and keeps the WebSocket subscribed to the space events of that area only
+function MapViewport({ onChange }) {
+    const map = useMap();
+
+    const report = () => {
+        const bounds = map.getBounds();
+        const viewport = {
+            minLat: Math.max(-90, bounds.getSouth()),
+            maxLat: Math.min(90, bounds.getNorth()),
+            minLng: Math.max(-180, bounds.getWest()),
+            maxLng: Math.min(180, bounds.getEast()),
+            zoom: Math.round(map.getZoom())
+        };
+        onChange(viewport);
+        subscribeToSpaceArea(viewport.minLat, viewport.maxLat, viewport.minLng, viewport.maxLng);
+    };
+
+    useMapEvents({ moveend: report });
+
+    useEffect(() => {
+        report();
+        return () => clearSpaceArea();
+        // eslint-disable-next-line react-hooks/exhaustive-deps
+    }, []);
+
+    return null;
+}
+
+// A cluster of spaces at low zoom; clicking it zooms in on its position
+function ClusterMarker({ cluster }) {
+    const map = useMap();
+    const radius = Math.min(40, 10 + Math.log2(cluster.count + 1) * 4);
+
+    return (
+        <CircleMarker
+            center={[cluster.latitude, cluster.longitude]}
+            radius={radius}
+            pathOptions={{ color: '#3498db', fillOpacity: 0.5 }}
+            eventHandlers={{ click: () => map.setView([cluster.latitude, cluster.longitude], map.getZoom() + 2) }}
+        >
+            <Popup>
+                <div className="map-popup">
+                    <h3>{cluster.count} spaces</h3>
+                    <p className="popup-type">{cluster.dominantSpaceType || 'Mixed'}</p>
+                    <p><strong>Average price:</strong> {Math.round(cluster.averagePrice || 0)} €/month</p>
+                </div>
+            </Popup>
+        </CircleMarker>
+    );
+}
+
+const isInViewport = (viewport, latitude, longitude) => {
+    return viewport && latitude != null && longitude != null
+        && latitude >= viewport.minLat && latitude <= viewport.maxLat
+        && longitude >= viewport.minLng && longitude <= viewport.maxLng;
+};
+
+// Counts a new space in the cluster closest to it (clusters are refreshed on the next move)
+const addToNearestCluster = (clusters, latitude, longitude, price) => {
+    if (clusters.length === 0) {
+        return [{ latitude, longitude, count: 1, averagePrice: price }];
+    }
+    let nearest = 0;
+    clusters.forEach((cluster, index) => {
+        const distance = (cluster.latitude - latitude) ** 2 + (cluster.longitude - longitude) ** 2;
+        const best = (clusters[nearest].latitude - latitude) ** 2 + (clusters[nearest].longitude - longitude) ** 2;
+        if (distance < best) {
+            nearest = index;
+        }
+    });
+    return clusters.map((cluster, index) => index !== nearest ? cluster : {
+        ...cluster,
+        count: cluster.count + 1,
+        averagePrice: ((cluster.averagePrice || 0) * cluster.count + price) / (cluster.count + 1)
+    });
+};
+
 function MapPage() {
+    // Individual spaces at high zoom, clusters at low zoom (as returned by /spaces/map)
     const [spaces, setSpaces] = useState([]);
+    const [clusters, setClusters] = useState([]);
     const [filteredSpaces, setFilteredSpaces] = useState([]);
     const [filter, setFilter] = useState('ALL');
     const [availableOnly, setAvailableOnly] = useState(false);
     const [isLoading, setIsLoading] = useState(true);
+    const viewportRef = useRef(null);
+    const requestRef = useRef(0);
     const navigate = useNavigate();
 
+    // Loads only what the current viewport shows, never the whole catalog
+    const fetchMapView = useCallback(async () => {
+        const viewport = viewportRef.current;
+        if (!viewport) {
+            return;
+        }
+        const request = ++requestRef.current;
+        try {
+            const res = await axios.get('http://localhost:8080/spaces/map', { params: viewport });
+            if (request !== requestRef.current) {
+                // The map moved again while this request was in flight
+                return;
+            }
+            setSpaces(res.data.spaces || []);
+            setClusters(res.data.clusters || []);
+        } catch (err) {
+            console.error('Error fetching spaces for map', err);
+        } finally {
+            setIsLoading(false);
+        }
+    }, []);
+
+    const handleViewportChange = useCallback((viewport) => {
+        viewportRef.current = viewport;
+        fetchMapView();
+    }, [fetchMapView]);
+
     useEffect(() => {
-        const fetchSpaces = async () => {
-            setIsLoading(true);
-            try {
-                const res = await axios.get('http://localhost:8080/spaces/getAll');
-                setSpaces(res.data);
-                setFilteredSpaces(res.data);
-                console.log(res.data);
-            } catch (err) {
-                console.error('Error fetching spaces for map', err);
-            } finally {
-                setIsLoading(false);
+        // Live updates for the spaces in view, applied in place (see MapViewport for the subscription)
+        const handleNotification = (event) => {
+            const notification = event.detail;
+            const delta = notification.data;
+            if (!delta || delta.entity !== 'space') {
+                return;
+            }
+            if (notification.type === 'SPACE_STATUS_CHANGE') {
+                setSpaces(prev => prev.map(space =>
+                    space.id === delta.id ? { ...space, ...delta.changes } : space));
+            } else if (notification.type === 'NEW_SPACE') {
+                const changes = delta.changes || {};
+                if (!isInViewport(viewportRef.current, changes.latitude, changes.longitude)) {
+                    return;
+                }
+                if (viewportRef.current.zoom >= POINTS_MIN_ZOOM) {
+                    setSpaces(prev => prev.some(space => space.id === delta.id)
+                        ? prev
+                        : [...prev, { id: delta.id, ...changes }]);
+                } else {
+                    setClusters(prev => addToNearestCluster(prev, changes.latitude, changes.longitude,
+                        changes.pricePerMonth || 0));
+                }
             }
         };
 
-        fetchSpaces();
-    }, []);
+        window.addEventListener('notification', handleNotification);
+        window.addEventListener('notifications-resync', fetchMapView);
+        return () => {
+            window.removeEventListener('notification', handleNotification);
+            window.removeEventListener('notifications-resync', fetchMapView);
+        };
+    }, [fetchMapView]);
 
     useEffect(() => {
         let filtered = spaces;
@@ -135,60 +265,63 @@ function MapPage() {
                 </div>
             </div>
 
-            {isLoading ? (
+            {isLoading && (
                 <div className="loading-container">
                     <p>Loading map data...</p>
                 </div>
-            ) : (
-                <MapContainer
-                    center={[46.77, 23.59]}
-                    zoom={6}
-                    scrollWheelZoom={true}
-                    style={{ height: 'calc(100vh - 180px)', width: '100%', borderRadius: '10px' }}
-                >
-                    <TileLayer
-                        attribution='&copy; <a href="https://www.openstreetmap.org/copyright">OpenStreetMap</a> contributors'
-                        url="https://{s}.tile.openstreetmap.org/{z}/{x}/{y}.png"
-                    />
-                    {filteredSpaces.map((space) => {
-                        if (!space.latitude || !space.longitude) return null;
-
-                        return (
-                            <Marker
-                                key={space.id}
-                                position={[space.latitude, space.longitude]}
-                                icon={getIcon(space.spaceType)}
-                            >
-                                <Popup>
-                                    <div className="map-popup">
-                                        <h3>{space.name}</h3>
-                                        <p className="popup-type">{space.spaceType || 'Unknown'}</p>
-                                        <p>{space.description}</p>
-                                        <div className="popup-details">
-                                            <p><strong>Area:</strong> {space.area} m²</p>
-                                            <p><strong>Price:</strong> {space.pricePerMonth} €/month</p>
-                                            <p><strong>Status:</strong>
-                                                <span className={space.available ? 'available' : 'rented'}>
-                                                    {space.available ? ' Available' : ' Rented'}
-                                                </span>
-                                            </p>
-                                        </div>
-                                        <button
-                                            className="popup-button"
-                                            onClick={() => handleViewDetails(space.id)}
-                                        >
-                                            View Details
-                                        </button>
-                                    </div>
-                                </Popup>
-                            </Marker>
-                        );
-                    })}
-                </MapContainer>
             )}
+            <MapContainer
+                center={[46.77, 23.59]}
+                zoom={6}
+                scrollWheelZoom={true}
+                style={{ height: 'calc(100vh - 180px)', width: '100%', borderRadius: '10px' }}
+            >
+                <TileLayer
+                    attribution='&copy; <a href="https://www.openstreetmap.org/copyright">OpenStreetMap</a> contributors'
+                    url="https://{s}.tile.openstreetmap.org/{z}/{x}/{y}.png"
+                />
+                <MapViewport onChange={handleViewportChange} />
+                {clusters.map((cluster, index) => (
+                    <ClusterMarker key={`${cluster.latitude}_${cluster.longitude}_${index}`} cluster={cluster} />
+                ))}
+                {filteredSpaces.map((space) => {
+                    if (!space.latitude || !space.longitude) return null;
+
+                    return (
+                        <Marker
+                            key={space.id}
+                            position={[space.latitude, space.longitude]}
+                            icon={getIcon(space.spaceType)}
+                        >
+                            <Popup>
+                                <div className="map-popup">
+                                    <h3>{space.name}</h3>
+                                    <p className="popup-type">{space.spaceType || 'Unknown'}</p>
+                                    <p>{space.buildingName || space.address}</p>
+                                    <div className="popup-details">
+                                        <p><strong>Area:</strong> {space.area} m²</p>
+                                        <p><strong>Price:</strong> {space.pricePerMonth} €/month</p>
+                                        <p><strong>Status:</strong>
+                                            <span className={space.available ? 'available' : 'rented'}>
+                                                {space.available ? ' Available' : ' Rented'}
+                                            </span>
+                                        </p>
+                                    </div>
+                                    <button
+                                        className="popup-button"
+                                        onClick={() => handleViewDetails(space.id)}
+                                    >
+                                        View Details
+                                    </button>
+                                </div>
+                            </Popup>
+                        </Marker>
+                    );
+                })}
+            </MapContainer>
 
             <div className="map-stats">
-                <p>Showing {filteredSpaces.length} spaces on the map</p>
+                <p>Showing {filteredSpaces.length + clusters.reduce((total, cluster) => total + cluster.count, 0)} spaces on the map</p>
                 <p>Available spaces: {filteredSpaces.filter(s => s.available).length}</p>
             </div>
         </div>
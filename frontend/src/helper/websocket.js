@@ -1,12 +1,19 @@
 // frontend/src/helper/websocket.js
 import SockJS from 'sockjs-client';
 import { Stomp } from '@stomp/stompjs';
+import axios from 'axios';
 
 let stompClient = null;
 let connectedCallback = null;
 let errorCallback = null;
 let subscriptions = {};
 
+// General space topic; the map replaces it with the geo cell topics of its viewport
+const SPACES_TOPIC = '/topic/spaces';
+// Viewport the map is showing (null when no map is open) and the latest cell lookup sent for it
+let spaceArea = null;
+let spaceAreaRequest = 0;
+
 // Get user from localStorage
 const getUser = () => {
     const userStr = localStorage.getItem('user');
@@ -16,6 +23,30 @@ const getUser = () => {
     return null;
 };
 
+// Last inbox sequence seen by this browser, per user (survives reloads and reconnects)
+const getLastSequence = (userId) => {
+    return Number(localStorage.getItem(`notificationSequence.${userId}`)) || 0;
+};
+
+const setLastSequence = (userId, sequence) => {
+    localStorage.setItem(`notificationSequence.${userId}`, String(sequence));
+};
+
+// Inbox epoch the stored sequence belongs to; the server starts a new epoch when its numbering restarts
+const getEpoch = (userId) => {
+    const epoch = localStorage.getItem(`notificationEpoch.${userId}`);
+    return epoch ? Number(epoch) : null;
+};
+
+const setEpoch = (userId, epoch) => {
+    if (epoch) {
+        localStorage.setItem(`notificationEpoch.${userId}`, String(epoch));
+    }
+};
+
+// Live user messages received while a replay is in flight, per user
+let replayBuffers = {};
+
 // Connect to WebSocket
 export const connect = (onConnected, onError) => {
     connectedCallback = onConnected;
@@ -34,14 +65,17 @@ export const connect = (onConnected, onError) => {
 export const disconnect = () => {
     if (stompClient) {
         // Unsubscribe from all topics
-        Object.values(subscriptions).forEach(subscription => {
-            if (subscription) {
+        Object.entries(subscriptions).forEach(([key, subscription]) => {
+            if (key === 'area') {
+                Object.values(subscription).forEach(areaSubscription => areaSubscription.unsubscribe());
+            } else if (subscription) {
                 subscription.unsubscribe();
             }
         });
 
         // Reset subscriptions
         subscriptions = {};
+        replayBuffers = {};
 
         // Disconnect client
         stompClient.disconnect();
@@ -60,18 +94,24 @@ const onConnectSuccess = () => {
     const user = getUser();
     if (user) {
         subscribeToUser(user.id);
+        replayInbox(user.id);
 
         // Subscribe to relevant topics based on user role
-        if (user.role === 'TENANT') {
-            subscribeToSpaces();
-        } else if (user.role === 'OWNER') {
-            subscribeToContracts();
-        } else if (user.role === 'ADMIN') {
+        // (while a map is open, its area subscription below covers the space events)
+        if (wantsAllSpaces(user) && !spaceArea) {
             subscribeToSpaces();
+        }
+        if (user.role === 'OWNER' || user.role === 'ADMIN') {
             subscribeToContracts();
         }
     }
 
+    // Restore the map's area subscription after a reconnect
+    if (spaceArea) {
+        const { minLat, maxLat, minLng, maxLng } = spaceArea;
+        subscribeToSpaceArea(minLat, maxLat, minLng, maxLng);
+    }
+
     // Notify connection success
     if (connectedCallback) {
         connectedCallback();
@@ -98,14 +138,90 @@ const subscribeToPublic = () => {
 // Subscribe to user-specific queue
 const subscribeToUser = (userId) => {
     if (stompClient && stompClient.connected && userId) {
-        subscriptions.user = stompClient.subscribe(`/queue/user.${userId}`, onMessageReceived);
+        subscriptions.user = stompClient.subscribe(`/queue/user.${userId}`, (payload) => {
+            onUserMessageReceived(userId, payload);
+        });
     }
 };
 
-// Subscribe to spaces topic
+// Tenants and admins follow every space event when no map narrows it down
+const wantsAllSpaces = (user) => {
+    return user && (user.role === 'TENANT' || user.role === 'ADMIN');
+};
+
+// Subscribe to spaces topic (once)
 const subscribeToSpaces = () => {
-    if (stompClient && stompClient.connected) {
-        subscriptions.spaces = stompClient.subscribe('/topic/spaces', onMessageReceived);
+    if (stompClient && stompClient.connected && !subscriptions.spaces) {
+        subscriptions.spaces = stompClient.subscribe(SPACES_TOPIC, onMessageReceived);
+    }
+};
+
+const unsubscribeFromSpaces = () => {
+    if (subscriptions.spaces) {
+        subscriptions.spaces.unsubscribe();
+        delete subscriptions.spaces;
+    }
+};
+
+const unsubscribeFromSpaceArea = () => {
+    Object.values(subscriptions.area || {}).forEach(areaSubscription => areaSubscription.unsubscribe());
+    delete subscriptions.area;
+};
+
+// Subscribe only to the space events of the cells covering a map viewport.
+// Call again when the viewport changes; cells that left the viewport are unsubscribed.
+// While cell topics are active the general space topic is dropped; when the viewport
+// is too wide the server answers with the general topic alone, which replaces the cells.
+export const subscribeToSpaceArea = async (minLat, maxLat, minLng, maxLng) => {
+    spaceArea = { minLat, maxLat, minLng, maxLng };
+    if (!stompClient || !stompClient.connected) {
+        // Subscribed once the connection is up
+        return;
+    }
+    const request = ++spaceAreaRequest;
+    try {
+        const response = await axios.get('http://localhost:8080/spaces/geo-cells', {
+            params: { minLat, maxLat, minLng, maxLng }
+        });
+        if (request !== spaceAreaRequest || !spaceArea || !stompClient.connected) {
+            // The viewport moved again, or the map closed, while this lookup was in flight
+            return;
+        }
+        const topics = response.data.topics || [];
+        if (topics.includes(SPACES_TOPIC)) {
+            unsubscribeFromSpaceArea();
+            subscribeToSpaces();
+            return;
+        }
+
+        const areaSubscriptions = subscriptions.area || {};
+        Object.keys(areaSubscriptions)
+            .filter(topic => !topics.includes(topic))
+            .forEach(topic => {
+                areaSubscriptions[topic].unsubscribe();
+                delete areaSubscriptions[topic];
+            });
+        topics
+            .filter(topic => !areaSubscriptions[topic])
+            .forEach(topic => {
+                areaSubscriptions[topic] = stompClient.subscribe(topic, onMessageReceived);
+            });
+        subscriptions.area = areaSubscriptions;
+        unsubscribeFromSpaces();
+    } catch (error) {
+        console.error('Error subscribing to map area:', error);
+    }
+};
+
+// Drop the map's area subscription (when the map closes) and go back to the role's topics
+export const clearSpaceArea = () => {
+    spaceArea = null;
+    spaceAreaRequest++;
+    unsubscribeFromSpaceArea();
+    if (wantsAllSpaces(getUser())) {
+        subscribeToSpaces();
+    } else {
+        unsubscribeFromSpaces();
     }
 };
 
@@ -116,23 +232,99 @@ const subscribeToContracts = () => {
     }
 };
 
-// Handle received messages
-const onMessageReceived = (payload) => {
+// Fetch the direct notifications missed while disconnected.
+// Subscribed first; live messages that arrive meanwhile are held back and merged with
+// the replayed ones in sequence order, so nothing is shown out of order or twice.
+const replayInbox = async (userId) => {
+    if (replayBuffers[userId]) {
+        return;
+    }
+    const buffer = [];
+    replayBuffers[userId] = buffer;
+
+    let replayed = [];
     try {
-        const notification = JSON.parse(payload.body);
-        console.log('Received notification:', notification);
+        const response = await axios.get(`http://localhost:8080/notifications/inbox/${userId}`, {
+            params: { after: getLastSequence(userId), epoch: getEpoch(userId) || undefined }
+        });
+        const inbox = response.data;
+        if (inbox.truncated) {
+            if (inbox.epoch !== getEpoch(userId) || getLastSequence(userId) > inbox.lastSequence) {
+                // The server numbers this inbox anew: the stored sequence no longer applies
+                setLastSequence(userId, 0);
+            }
+            // Some missed notifications are no longer stored: let pages reload their data
+            window.dispatchEvent(new CustomEvent('notifications-resync'));
+        }
+        setEpoch(userId, inbox.epoch);
+        replayed = inbox.notifications || [];
+    } catch (error) {
+        console.error('Error replaying notifications:', error);
+    }
+
+    delete replayBuffers[userId];
+    [...replayed, ...buffer]
+        .sort((a, b) => (a.sequence || 0) - (b.sequence || 0))
+        .forEach(notification => deliverUserNotification(userId, notification));
+};
+
+// Deliver a direct notification once, in sequence order
+const deliverUserNotification = (userId, notification) => {
+    if (notification.sequence) {
+        if (notification.sequence <= getLastSequence(userId)) {
+            return;
+        }
+        setLastSequence(userId, notification.sequence);
+    }
+    deliverNotification(notification);
+};
 
-        // Dispatch notification event
-        const event = new CustomEvent('notification', { detail: notification });
-        window.dispatchEvent(event);
+// Handle received messages on the user queue
+const onUserMessageReceived = (userId, payload) => {
+    try {
+        const notification = JSON.parse(payload.body);
+        if (replayBuffers[userId]) {
+            replayBuffers[userId].push(notification);
+            return;
+        }
+        const epoch = getEpoch(userId);
+        if (notification.epoch && epoch && notification.epoch !== epoch) {
+            // New inbox epoch on the server: catch up through a replay, which resets the counter
+            replayInbox(userId);
+            replayBuffers[userId].push(notification);
+            return;
+        }
+        if (notification.epoch && !epoch) {
+            // First message of a new inbox; its sequence starts from 1
+            setEpoch(userId, notification.epoch);
+            setLastSequence(userId, 0);
+        }
+        deliverUserNotification(userId, notification);
+    } catch (error) {
+        console.error('Error handling message:', error);
+    }
+};
 
-        // Show browser notification if supported
-        showBrowserNotification(notification);
+// Handle received messages
+const onMessageReceived = (payload) => {
+    try {
+        deliverNotification(JSON.parse(payload.body));
     } catch (error) {
         console.error('Error handling message:', error);
     }
 };
 
+const deliverNotification = (notification) => {
+    console.log('Received notification:', notification);
+
+    // Dispatch notification event
+    const event = new CustomEvent('notification', { detail: notification });
+    window.dispatchEvent(event);
+
+    // Show browser notification if supported
+    showBrowserNotification(notification);
+};
+
 // Show browser notification
 const showBrowserNotification = (notification) => {
     if ('Notification' in window && Notification.permission === 'granted') {